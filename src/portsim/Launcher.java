@@ -2,14 +2,25 @@ package portsim;
 
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import portsim.display.View;
 import portsim.display.ViewModel;
+import portsim.port.Port;
 import portsim.util.BadEncodingException;
-import portsim.util.NoSuchCargoException;
-import portsim.util.NoSuchShipException;
+import portsim.util.ProgressReader;
 
+import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 
 
 /**
@@ -56,24 +67,62 @@ public class Launcher extends Application {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The port file is loaded on a background thread while the window is shown with the
+     * progress of the load and a button to cancel it. Once the port has loaded, the window
+     * shows the simulation. Cancelling, or closing the window, stops the load and exits.
      *
      * @given
      */
     @Override
     public void start(Stage stage) {
-        View view;
-        try {
-            view = new View(stage, new ViewModel(
-                    getParameters().getRaw().get(0)));
-        } catch (BadEncodingException | IOException | NoSuchShipException
-                | ClassNotFoundException | NoSuchCargoException e) {
+        final String filename = getParameters().getRaw().get(0);
+        final Task<Port> loading = new Task<>() {
+            @Override
+            protected Port call() throws IOException, BadEncodingException {
+                File file = new File(filename);
+                try (Reader reader = new ProgressReader(new FileReader(file), file.length(),
+                        fraction -> updateProgress(fraction, 1))) {
+                    return Port.initialisePort(reader);
+                }
+            }
+        };
+        loading.setOnSucceeded(event -> {
+            stage.setOnCloseRequest(null);
+            new View(stage, new ViewModel(filename, loading.getValue())).run();
+        });
+        loading.setOnFailed(event -> {
             System.err.println("Error loading from file. Stack trace below:");
-            e.printStackTrace();
+            loading.getException().printStackTrace();
             Platform.exit();
             System.exit(1);
-            return;
-        }
+        });
+        loading.setOnCancelled(event -> Platform.exit());
+
+        Thread loader = new Thread(loading, "port-loader");
+        loader.setDaemon(true);
+        loader.start();
+
+        stage.setTitle("Port Simulation: loading " + filename);
+        stage.setScene(createLoadingScene(filename, loading));
+        stage.setOnCloseRequest(event -> loading.cancel());
+        stage.show();
+    }
+
+    /* Creates a scene showing the progress of the given load, with a button to cancel it */
+    private Scene createLoadingScene(String filename, Task<Port> loading) {
+        var label = new Label("Loading " + filename + "...");
+        var progress = new ProgressBar();
+        progress.progressProperty().bind(loading.progressProperty());
+        progress.setMaxWidth(Double.MAX_VALUE);
+        var cancel = new Button("Cancel");
+        cancel.setOnAction(event -> loading.cancel());
 
-        view.run();
+        var pane = new VBox(label, progress, cancel);
+        pane.setAlignment(Pos.CENTER);
+        pane.setPadding(new Insets(20));
+        pane.setSpacing(10);
+        pane.setPrefWidth(400);
+        return new Scene(pane);
     }
 }
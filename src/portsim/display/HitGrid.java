@@ -0,0 +1,160 @@
+package portsim.display;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid over a rectangular area of the canvas, used to find which clickable region
+ * contains a point.
+ * <p>
+ * Each region is recorded in every cell it overlaps, and a point is looked up by checking
+ * only the regions in the one cell containing it. The cell size is chosen from the area and
+ * the number of regions expected, so each cell holds a few regions however many there are
+ * and a lookup takes constant time. Each region carries an int value that is returned when
+ * the region is found.
+ */
+final class HitGrid {
+
+    /**
+     * Value returned by {@link #find(double, double)} when no region contains the point.
+     */
+    static final int NONE = -1;
+
+    /**
+     * Smallest width and height of a cell, in pixels.
+     */
+    private static final double MIN_CELL_SIZE = 32;
+
+    /**
+     * Width and height of each cell, in pixels.
+     */
+    private final double cellSize;
+
+    /**
+     * Number of columns of cells.
+     */
+    private final int columns;
+
+    /**
+     * Number of rows of cells.
+     */
+    private final int rows;
+
+    /**
+     * Indices into {@link #regions} of the regions overlapping each cell, indexed by
+     * row * columns + column; null for cells no region overlaps.
+     */
+    private final int[][] cells;
+
+    /**
+     * Number of entries used in each array of {@link #cells}.
+     */
+    private final int[] cellSizes;
+
+    /**
+     * The regions added, in the order they were added.
+     */
+    private PortCanvas.ClickableRegion[] regions;
+
+    /**
+     * The value of each region in {@link #regions}.
+     */
+    private int[] values;
+
+    /**
+     * Number of regions added.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty grid covering the given area, sized for the given number of
+     * regions.
+     *
+     * @param width           width of the area, in pixels
+     * @param height          height of the area, in pixels
+     * @param expectedRegions number of regions expected to be added
+     */
+    HitGrid(double width, double height, int expectedRegions) {
+        int expected = Math.max(1, expectedRegions);
+        this.cellSize = Math.max(MIN_CELL_SIZE, Math.sqrt(width * height / expected));
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = new int[columns * rows][];
+        this.cellSizes = new int[columns * rows];
+        this.regions = new PortCanvas.ClickableRegion[expected];
+        this.values = new int[expected];
+    }
+
+    /**
+     * Adds a region with the given value. Where regions overlap, the one added last is
+     * found.
+     *
+     * @param region region to add
+     * @param value  value to return when the region is found, not {@link #NONE}
+     */
+    void add(PortCanvas.ClickableRegion region, int value) {
+        if (size == regions.length) {
+            regions = Arrays.copyOf(regions, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int index = size++;
+        regions[index] = region;
+        values[index] = value;
+
+        int firstColumn = column(region.getX());
+        int lastColumn = column(region.getX() + region.getWidth());
+        int firstRow = row(region.getY());
+        int lastRow = row(region.getY() + region.getHeight());
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                if (cells[cell] == null) {
+                    cells[cell] = new int[2];
+                } else if (cellSizes[cell] == cells[cell].length) {
+                    cells[cell] = Arrays.copyOf(cells[cell], cellSizes[cell] * 2);
+                }
+                cells[cell][cellSizes[cell]++] = index;
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the region containing the given point.
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return value of the region added last of those containing the point, or
+     * {@link #NONE} if there are none
+     */
+    int find(double x, double y) {
+        if (x < 0 || y < 0 || x > columns * cellSize || y > rows * cellSize) {
+            return NONE;
+        }
+        int cell = row(y) * columns + column(x);
+        for (int i = cellSizes[cell] - 1; i >= 0; i--) {
+            int index = cells[cell][i];
+            if (regions[index].wasClicked(x, y)) {
+                return values[index];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the number of regions added.
+     *
+     * @return number of regions
+     */
+    int size() {
+        return size;
+    }
+
+    /* Returns the column of cells containing the given x-coordinate, clamped to the grid */
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) (x / cellSize)));
+    }
+
+    /* Returns the row of cells containing the given y-coordinate, clamped to the grid */
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) (y / cellSize)));
+    }
+}
@@ -1,8 +1,10 @@
 package portsim.display;
 
 import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
@@ -10,6 +12,7 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
 import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
 import portsim.port.Quay;
 import portsim.port.ShipQueue;
 import portsim.ship.BulkCarrier;
@@ -18,6 +21,7 @@ import portsim.ship.NauticalFlag;
 import portsim.ship.Ship;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Subclass of the JavaFX Canvas to represent the main elements of the port graphically.
@@ -34,9 +38,26 @@ public class PortCanvas extends Canvas {
     private final ViewModel viewModel;
 
     /**
-     * Mapping of clickable regions (rectangles) to ships drawn on the canvas
+     * Index of the clickable regions where ships are drawn, each holding the number of its
+     * slot: a quay index, or the number of indexed quays plus a queue lane; null until the
+     * port is first drawn
      */
-    private final Map<ClickableRegion, Ship> drawnShip;
+    private HitGrid shipSlots;
+
+    /**
+     * Number of quays in {@link #shipSlots}
+     */
+    private int indexedQuays = -1;
+
+    /**
+     * Number of quays along each side of the port when {@link #shipSlots} was built
+     */
+    private int indexedQuaysPerSide = -1;
+
+    /**
+     * Number of queue lanes in {@link #shipSlots}
+     */
+    private int indexedLanes = -1;
 
     /**
      * Width of an aircraft when drawn on the canvas, in pixels
@@ -58,15 +79,182 @@ public class PortCanvas extends Canvas {
      */
     private static final double CONTAINER_WIDTH = CONTAINER_HEIGHT * 5 / 2;
 
+    /**
+     * Width of the sprite of a ship's hull, bridge and cargo, in pixels
+     */
+    private static final double SHIP_SPRITE_WIDTH = SHIP_WIDTH * 4 / 3 + 20;
+
+    /**
+     * Number of columns of containers in each depot
+     */
+    private static final int DEPOT_COLUMNS = 9;
+
+    /**
+     * Number of rows of stored containers that fit in the middle depot
+     */
+    private static final int DEPOT_ROWS = 26;
+
+    /**
+     * Width of the land behind the first quays on each side, in pixels
+     */
+    private static final double LAND_WIDTH = 700;
+
+    /**
+     * Height of the port from the top quays to the bottom quays, in pixels
+     */
+    private static final double PORT_HEIGHT = 680;
+
+    /**
+     * Width taken by each quay along the side of the port, in pixels
+     */
+    private static final double QUAY_WIDTH = SHIP_WIDTH * 5 / 3;
+
+    /**
+     * Gap between the left edge of the port and the first quay, in pixels
+     */
+    private static final double QUAY_MARGIN = 5;
+
+    /**
+     * Minimum number of quays laid out along each side of the port
+     */
+    private static final int MIN_QUAYS_PER_SIDE = 4;
+
+    /**
+     * Height of each lane of the ship queue, in pixels
+     */
+    private static final double LANE_HEIGHT = SHIP_HEIGHT + 12;
+
+    /**
+     * Gap above the first and below the last lane of the ship queue, in pixels
+     */
+    private static final double LANE_PAD = 10;
+
+    /**
+     * Minimum number of lanes drawn for the ship queue
+     */
+    private static final int MIN_QUEUE_LANES = 7;
+
+    /**
+     * Smallest scale the port can be zoomed out to
+     */
+    private static final double MIN_ZOOM = 0.1;
+
+    /**
+     * Largest scale the port can be zoomed in to
+     */
+    private static final double MAX_ZOOM = 4;
+
+    /**
+     * Scale below which ships are drawn as plain shapes, without labels or quay details
+     */
+    private static final double DETAIL_ZOOM = 0.5;
+
+    /**
+     * Factor by which the scale changes for each step of the mouse wheel
+     */
+    private static final double ZOOM_STEP = 1.1;
+
     /**
      * Random number generator (Utility)
      */
     private Random random = new Random();
 
+    /**
+     * Number of quays laid out along each side of the port in the current layout
+     */
+    private int quaysPerSide = MIN_QUAYS_PER_SIDE;
+
+    /**
+     * Number of lanes of the ship queue in the current layout
+     */
+    private int queueLanes = MIN_QUEUE_LANES;
+
+    /**
+     * X-coordinate of the line between the port and the ship queue in the current layout
+     */
+    private double queueX;
+
+    /**
+     * Width of the whole port in the current layout, in pixels
+     */
+    private double portWidth;
+
+    /**
+     * Height of the whole port in the current layout, in pixels
+     */
+    private double portHeight;
+
+    /**
+     * Port x-coordinate shown at the left edge of the canvas
+     */
+    private double viewX = 0;
+
+    /**
+     * Port y-coordinate shown at the top edge of the canvas
+     */
+    private double viewY = 0;
+
+    /**
+     * Number of canvas pixels per port pixel
+     */
+    private double zoom = 1;
+
+    /**
+     * Canvas coordinates at which the current drag started
+     */
+    private double dragStartX;
+
+    /**
+     * Canvas coordinates at which the current drag started
+     */
+    private double dragStartY;
+
+    /**
+     * Port coordinates shown at the left edge of the canvas when the current drag started
+     */
+    private double dragViewX;
+
+    /**
+     * Port coordinates shown at the top edge of the canvas when the current drag started
+     */
+    private double dragViewY;
+
+    /**
+     * Font of ship and quay labels
+     */
+    private final Font labelFont = Font.font("monospace", FontWeight.NORMAL, 12);
+
+    /**
+     * Font of the label of the selected ship and of queue numbers
+     */
+    private final Font labelFontBold = Font.font("monospace", FontWeight.BOLD, 12);
+
+    /**
+     * Image of the land, roads and warehouses behind the first quays, or null until first
+     * drawn
+     */
+    private Image backgroundSprite;
+
+    /**
+     * Image of a full depot of stored containers, or null until first drawn
+     */
+    private Image storedCargoSprite;
+
+    /**
+     * Image of a container ship, or null until first drawn
+     */
+    private Image containerShipSprite;
+
+    /**
+     * Images of bulk carriers indexed by the ordinal of the type of cargo carried, with the
+     * last entry for an empty carrier; entries are null until first drawn
+     */
+    private final Image[] bulkCarrierSprites = new Image[BulkCargoType.values().length + 1];
+
     /**
      * A class to represent a rectangular region on the canvas that responds to click events
      */
-    private static class ClickableRegion {
+    static final class ClickableRegion {
 
         /**
          * X-coordinate of the region (top left)
@@ -107,10 +295,68 @@ public class PortCanvas extends Canvas {
             return clickX >= this.xcoord && clickX <= this.xcoord + this.width
                 && clickY >= this.ycoord && clickY <= this.ycoord + this.height;
         }
+
+        /**
+         * Returns the x-coordinate of the region (top left)
+         */
+        public double getX() {
+            return xcoord;
+        }
+
+        /**
+         * Returns the y-coordinate of the region (top left)
+         */
+        public double getY() {
+            return ycoord;
+        }
+
+        /**
+         * Returns the width of the region, in pixels
+         */
+        public double getWidth() {
+            return width;
+        }
+
+        /**
+         * Returns the height of the region, in pixels
+         */
+        public double getHeight() {
+            return height;
+        }
+
+        /**
+         * Returns whether the given object is a region with the same coordinates and
+         * dimensions
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ClickableRegion)) {
+                return false;
+            }
+            ClickableRegion other = (ClickableRegion) o;
+            return Double.compare(xcoord, other.xcoord) == 0
+                && Double.compare(ycoord, other.ycoord) == 0
+                && Double.compare(width, other.width) == 0
+                && Double.compare(height, other.height) == 0;
+        }
+
+        /**
+         * Returns a hash code consistent with {@link #equals(Object)}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(xcoord, ycoord, width, height);
+        }
     }
 
     /**
      * Creates a new PortCanvas with the given dimensions.
+     * <p>
+     * The canvas is a viewport onto the port: dragging with the primary mouse button pans
+     * the view, and the mouse wheel zooms in and out around the cursor.
      *
      * @param viewModel view model to use to render elements on the canvas
      * @param width     width of the canvas, in pixels
@@ -121,64 +367,260 @@ public class PortCanvas extends Canvas {
         super(width, height);
 
         this.viewModel = viewModel;
-        this.drawnShip = new HashMap<>();
+
+        setOnMousePressed(event -> {
+            dragStartX = event.getX();
+            dragStartY = event.getY();
+            dragViewX = viewX;
+            dragViewY = viewY;
+        });
+
+        setOnMouseDragged(event -> {
+            if (event.getButton() != MouseButton.PRIMARY) {
+                return;
+            }
+            viewX = dragViewX - (event.getX() - dragStartX) / zoom;
+            viewY = dragViewY - (event.getY() - dragStartY) / zoom;
+            draw();
+        });
+
+        setOnScroll(event -> {
+            if (event.getDeltaY() == 0) {
+                return;
+            }
+            zoomAt(event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP,
+                event.getX(), event.getY());
+            draw();
+        });
 
         setOnMouseClicked(event -> {
             /* Discard any click that is not a primary (left mouse button) click */
-            if (event.getButton() != MouseButton.PRIMARY) {
+            if (event.getButton() != MouseButton.PRIMARY || !event.isStillSincePress()) {
                 return;
             }
-            double x = event.getX();
-            double y = event.getY();
+            double x = viewX + event.getX() / zoom;
+            double y = viewY + event.getY() / zoom;
             Ship clickedShip = null;
-            for (Map.Entry<ClickableRegion, Ship> entry : drawnShip.entrySet()) {
-                if (entry.getKey().wasClicked(x, y)) {
-                    clickedShip = entry.getValue();
-                }
+            if (shipSlots != null) {
+                clickedShip = shipInSlot(shipSlots.find(x, y));
             }
             viewModel.getSelectedShip().set(clickedShip);
             viewModel.registerChange();
+        });
 
+        /* Ensures the canvas gains focus when it is clicked */
+        addEventFilter(MouseEvent.MOUSE_PRESSED, e -> requestFocus());
+    }
 
-            /* Ensures the canvas gains focus when it is clicked */
-            addEventFilter(MouseEvent.MOUSE_PRESSED, e -> requestFocus());
-        });
+    /*
+     * Returns the ship now in the given slot of the ship slot index, or null if the slot is
+     * empty or no longer exists.
+     */
+    private Ship shipInSlot(int slot) {
+        if (slot == HitGrid.NONE) {
+            return null;
+        }
+        if (slot < indexedQuays) {
+            List<Quay> quays = viewModel.getPort().getQuayView();
+            return slot < quays.size() ? quays.get(slot).getShip() : null;
+        }
+        List<Ship> ships = viewModel.getPort().getShipQueue().getShipQueueView();
+        int lane = slot - indexedQuays;
+        return lane < ships.size() ? ships.get(lane) : null;
+    }
+
+    /*
+     * Rebuilds the ship slot index if quays have been added or the ship queue has grown past
+     * the lanes indexed. Lanes are indexed in powers of two, so a queue that keeps growing
+     * causes a logarithmic number of rebuilds; lanes beyond the end of the queue hold no ship.
+     */
+    private void updateShipSlots() {
+        int quayCount = viewModel.getPort().getQuayCount();
+        if (shipSlots != null && quayCount == indexedQuays
+                && quaysPerSide == indexedQuaysPerSide && queueLanes <= indexedLanes) {
+            return;
+        }
+        int lanes = Integer.highestOneBit(queueLanes);
+        if (lanes < queueLanes) {
+            lanes <<= 1;
+        }
+        HitGrid slots = new HitGrid(portWidth,
+            Math.max(portHeight, LANE_PAD * 2 + 12 + lanes * LANE_HEIGHT), quayCount + lanes);
+        for (int i = 0; i < quayCount; i++) {
+            boolean topSide = i < quaysPerSide;
+            double x = quayShipX(topSide ? i : i - quaysPerSide);
+            double y = topSide ? SHIP_HEIGHT / 3 : PORT_HEIGHT - SHIP_HEIGHT * 4 / 3;
+            slots.add(shipRegion(x, y), i);
+        }
+        for (int j = 0; j < lanes; j++) {
+            slots.add(shipRegion(queueX + SHIP_WIDTH / 3, laneShipY(j)), quayCount + j);
+        }
+        shipSlots = slots;
+        indexedQuays = quayCount;
+        indexedQuaysPerSide = quaysPerSide;
+        indexedLanes = lanes;
+    }
+
+    /* Returns the x-coordinate of a ship at the quay in the given column */
+    private static double quayShipX(int column) {
+        return QUAY_MARGIN + QUAY_WIDTH * column;
+    }
+
+    /* Returns the y-coordinate of a ship in the given lane of the ship queue */
+    private static double laneShipY(int lane) {
+        return LANE_PAD + 12 + lane * LANE_HEIGHT;
+    }
+
+    /* Returns the region that responds to clicks on a ship drawn at the given position */
+    private static ClickableRegion shipRegion(double x, double y) {
+        return new ClickableRegion(x + 10, y, SHIP_WIDTH * 4 / 3, SHIP_HEIGHT);
+    }
+
+    /**
+     * Shows the port at its natural size, scrolled to the top left corner.
+     */
+    public void resetView() {
+        viewX = 0;
+        viewY = 0;
+        zoom = 1;
+        draw();
+    }
+
+    /* Scales the view by the given factor, keeping the port point under the given canvas point */
+    private void zoomAt(double factor, double canvasX, double canvasY) {
+        double x = viewX + canvasX / zoom;
+        double y = viewY + canvasY / zoom;
+        zoom = Math.max(minZoom(), Math.min(MAX_ZOOM, zoom * factor));
+        viewX = x - canvasX / zoom;
+        viewY = y - canvasY / zoom;
+    }
+
+    /* Returns the smallest scale, at which the whole port just fits unless it is very large */
+    private double minZoom() {
+        double fit = Math.min(getWidth() / portWidth, getHeight() / portHeight);
+        return Math.max(MIN_ZOOM, Math.min(1, fit));
+    }
+
+    /* Keeps the view within the port, centring the port if it is smaller than the view */
+    private void clampView() {
+        zoom = Math.max(minZoom(), Math.min(MAX_ZOOM, zoom));
+        viewX = clamp(viewX, portWidth - getWidth() / zoom);
+        viewY = clamp(viewY, portHeight - getHeight() / zoom);
+    }
+
+    /* Clamps a view coordinate to [0, max], or centres it if max is negative */
+    private static double clamp(double coordinate, double max) {
+        if (max < 0) {
+            return max / 2;
+        }
+        return Math.max(0, Math.min(max, coordinate));
+    }
+
+    /* Lays out the quays and ship queue for the current number of quays and queued ships */
+    private void updateLayout() {
+        quaysPerSide = Math.max(MIN_QUAYS_PER_SIDE,
+            (viewModel.getPort().getQuayCount() + 1) / 2);
+        queueLanes = Math.max(MIN_QUEUE_LANES,
+            viewModel.getPort().getShipQueue().getShipQueueView().size());
+        queueX = Math.max(LAND_WIDTH, QUAY_MARGIN + QUAY_WIDTH * quaysPerSide)
+            + SHIP_WIDTH * 2 + 10;
+        portWidth = queueX + SHIP_WIDTH * 2 - 10;
+        portHeight = Math.max(PORT_HEIGHT, LANE_PAD * 2 + 12 + queueLanes * LANE_HEIGHT);
     }
 
     /**
      * Draws all the relevant elements of the port onto the canvas.
+     * <p>
+     * Only the quays and ships within the current view are drawn, and when zoomed out they are
+     * drawn as plain shapes without labels, so the cost of a frame is bounded by the size of
+     * the canvas rather than the number of quays and queued ships. The land and warehouses
+     * are drawn from a single cached image, and each ship from a cached sprite for its class
+     * and cargo.
      *
      * @given
      */
     public void draw() {
-        this.drawnShip.clear();
+        updateLayout();
+        updateShipSlots();
+        clampView();
 
         GraphicsContext gc = getGraphicsContext2D();
-
+        gc.setTransform(1, 0, 0, 1, 0, 0);
         gc.setFill(Color.DODGERBLUE);
         gc.fillRect(0, 0, getWidth(), getHeight());
+        gc.setTransform(zoom, 0, 0, zoom, -viewX * zoom, -viewY * zoom);
+
+        double left = viewX;
+        double top = viewY;
+        double right = viewX + getWidth() / zoom;
+        double bottom = viewY + getHeight() / zoom;
+        boolean detailed = zoom >= DETAIL_ZOOM;
+
+        if (left < queueX && top < PORT_HEIGHT) {
+            drawLand(gc);
+            if (left < LAND_WIDTH) {
+                gc.drawImage(getBackgroundSprite(), 0, 0);
+                drawStoredCargo();
+            }
+        }
+        if (right > queueX) {
+            drawShipQueue(this.viewModel.getPort().getShipQueue(), top, bottom, detailed);
+        }
+        drawQuays(left, right, top, bottom, detailed);
 
-        drawPort();
-        drawShipQueue(this.viewModel.getPort().getShipQueue());
-        drawQuays();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
     }
 
-    /* Draws the port */
-    private void drawPort() {
-        GraphicsContext gc = getGraphicsContext2D();
+    /* Returns the image of the land behind the first quays, rendering it on first use */
+    private Image getBackgroundSprite() {
+        if (backgroundSprite == null) {
+            backgroundSprite = renderSprite(LAND_WIDTH, PORT_HEIGHT, this::drawPort);
+        }
+        return backgroundSprite;
+    }
 
+    /* Extends the land behind the quays that lie beyond the cached background */
+    private void drawLand(GraphicsContext gc) {
+        double landEnd = QUAY_MARGIN + QUAY_WIDTH * quaysPerSide;
+        if (landEnd > LAND_WIDTH) {
+            gc.setFill(Color.GOLDENROD);
+            gc.fillRect(LAND_WIDTH - 80, SHIP_HEIGHT * 3 / 2, landEnd - LAND_WIDTH + 80,
+                PORT_HEIGHT - SHIP_HEIGHT * 3);
+        }
+    }
+
+    /*
+     * Renders a transparent image of the given size by running the given painter on an
+     * off-screen canvas.
+     */
+    private static Image renderSprite(double width, double height,
+                                      Consumer<GraphicsContext> painter) {
+        Canvas canvas = new Canvas(Math.ceil(width), Math.ceil(height));
+        painter.accept(canvas.getGraphicsContext2D());
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(parameters, null);
+    }
+
+    /* Y-coordinate of the road running past the warehouses */
+    private double warehouseRoadY() {
+        return SHIP_HEIGHT * 3 / 2 + 60;
+    }
+
+    /* Draws the land behind the first quays, with its roads, trucks and warehouses */
+    private void drawPort(GraphicsContext gc) {
         gc.setFill(Color.GOLDENROD);
-        double[] xs = new double[] {0, getWidth() - SHIP_WIDTH * 4,
-            getWidth() - SHIP_WIDTH * 4 - 40, getWidth() - SHIP_WIDTH * 4 - 80, 0};
+        double[] xs = new double[] {0, LAND_WIDTH,
+            LAND_WIDTH - 40, LAND_WIDTH - 80, 0};
         double[] ys = new double[] {0 + SHIP_HEIGHT * 3 / 2, 0 + SHIP_HEIGHT * 3 / 2,
-            getHeight() - SHIP_HEIGHT * 3 / 2 - 50, getHeight() - SHIP_HEIGHT * 3 / 2,
-            getHeight() - SHIP_HEIGHT * 3 / 2};
+            PORT_HEIGHT - SHIP_HEIGHT * 3 / 2 - 50, PORT_HEIGHT - SHIP_HEIGHT * 3 / 2,
+            PORT_HEIGHT - SHIP_HEIGHT * 3 / 2};
         gc.fillPolygon(xs, ys, xs.length);
 
         final double roadHeight = CONTAINER_HEIGHT * 8;
         final double lineLength = 30;
-        final double roadWidth = getWidth() - SHIP_WIDTH * 4 - 60;
-        double roadStartY = SHIP_HEIGHT * 3 / 2 + 60;
+        final double roadWidth = LAND_WIDTH - 60;
+        double roadStartY = warehouseRoadY();
 
         gc.setFill(Color.gray(0.2));
         gc.setFill(Color.BLACK);
@@ -192,7 +634,7 @@ public class PortCanvas extends Canvas {
                 lineLength + (i * lineLength), lineY);
             if (random.nextInt(3) == 0) {
                 // truck
-                drawTruck(lineLength / 2 + (i * lineLength), lineY);
+                drawTruck(gc, lineLength / 2 + (i * lineLength), lineY);
             }
         }
 
@@ -213,16 +655,8 @@ public class PortCanvas extends Canvas {
         gc.fillRect(380, roadStartY + 150, 30, 20);
         gc.fillRect(350, roadStartY + 160, 90, 5);
 
-        gc.setFill(Color.FIREBRICK);
-        int num = viewModel.getPort().getCargo().size();
-        int cols = 9;
-        for (int i = 0; i < num * 4; i++) {
-            gc.fillRect(220 + 8 + (i % cols) * (CONTAINER_WIDTH + 2),
-                roadStartY + 50 + 8 + (double) (i / cols + 1) * (CONTAINER_HEIGHT + 2),
-                CONTAINER_WIDTH, CONTAINER_HEIGHT);
-        }
-
         // generate static containers in stable random pattern.
+        int cols = DEPOT_COLUMNS;
         gc.setFill(Color.BLUEVIOLET);
         random.setSeed(123);
         for (int i = 0; i < 24 * cols; i++) {
@@ -240,7 +674,7 @@ public class PortCanvas extends Canvas {
                 CONTAINER_WIDTH, CONTAINER_HEIGHT);
         }
 
-        roadStartY = getHeight() - SHIP_HEIGHT * 3 + 10;
+        roadStartY = PORT_HEIGHT - SHIP_HEIGHT * 3 + 10;
 
         gc.setFill(Color.gray(0.2));
         gc.setFill(Color.BLACK);
@@ -253,15 +687,51 @@ public class PortCanvas extends Canvas {
                 lineLength + (i * lineLength), lineY);
             if (random.nextInt(6) == 0) {
                 // truck
-                drawTruck(lineLength / 2 + (i * lineLength), lineY);
+                drawTruck(gc, lineLength / 2 + (i * lineLength), lineY);
             }
         }
     }
 
+    /*
+     * Draws four containers for each piece of cargo stored at the port in the middle depot,
+     * up to as many as fit in the depot. Whole rows are copied from the cached stack image in
+     * one call, and the last partial row in another.
+     */
+    private void drawStoredCargo() {
+        final double cellWidth = CONTAINER_WIDTH + 2;
+        final double cellHeight = CONTAINER_HEIGHT + 2;
+        if (storedCargoSprite == null) {
+            storedCargoSprite = renderSprite(DEPOT_COLUMNS * cellWidth,
+                DEPOT_ROWS * cellHeight, gc -> {
+                    gc.setFill(Color.FIREBRICK);
+                    for (int i = 0; i < DEPOT_ROWS * DEPOT_COLUMNS; i++) {
+                        gc.fillRect((i % DEPOT_COLUMNS) * cellWidth,
+                            (double) (i / DEPOT_COLUMNS) * cellHeight,
+                            CONTAINER_WIDTH, CONTAINER_HEIGHT);
+                    }
+                });
+        }
+        long containers = Math.min(4L * viewModel.getPort().getStoredCargoCount(),
+            DEPOT_ROWS * DEPOT_COLUMNS);
+        int rows = (int) (containers / DEPOT_COLUMNS);
+        int rest = (int) (containers % DEPOT_COLUMNS);
+        final double x = 220 + 8;
+        final double y = warehouseRoadY() + 50 + 8 + cellHeight;
+
+        GraphicsContext gc = getGraphicsContext2D();
+        if (rows > 0) {
+            gc.drawImage(storedCargoSprite, 0, 0, DEPOT_COLUMNS * cellWidth, rows * cellHeight,
+                x, y, DEPOT_COLUMNS * cellWidth, rows * cellHeight);
+        }
+        if (rest > 0) {
+            gc.drawImage(storedCargoSprite, 0, 0, rest * cellWidth, cellHeight,
+                x, y + rows * cellHeight, rest * cellWidth, cellHeight);
+        }
+    }
+
     // draws a truck at the position x,y
-    private void drawTruck(double x, double y) {
+    private void drawTruck(GraphicsContext gc, double x, double y) {
         // truck
-        GraphicsContext gc = getGraphicsContext2D();
         gc.setFill(Color.CHOCOLATE);
         gc.fillRect(x, y, CONTAINER_WIDTH + 10,
             CONTAINER_HEIGHT * 2);
@@ -283,44 +753,48 @@ public class PortCanvas extends Canvas {
             y + 2, 6, CONTAINER_HEIGHT * 2 - 4);
     }
 
-    /* Draws the shipQueue */
-    private void drawShipQueue(ShipQueue sq) {
-        final double x = getWidth() - SHIP_WIDTH * 2 + 10;
-        final int capacity = 7;
+    /*
+     * Draws the water, lane markers and numbers of the ship queue between the given port
+     * y-coordinates, and the ships queued in the lanes drawn.
+     */
+    private void drawShipQueue(ShipQueue sq, double top, double bottom, boolean detailed) {
+        final double x = queueX;
 
         GraphicsContext gc = getGraphicsContext2D();
         gc.setFill(Color.ROYALBLUE);
-        gc.fillRect(getWidth() - SHIP_WIDTH * 2 + 12, 0, getWidth() - SHIP_WIDTH * 2 + 12,
-            getHeight());
+        gc.fillRect(x + 2, top, portWidth - x - 2, bottom - top);
         // vertical line
         gc.setFill(Color.BLACK);
-        gc.fillRect(getWidth() - SHIP_WIDTH * 2 + 10, 0, 2, getHeight());
-
-        // markers
-        final double lineLength = SHIP_HEIGHT + 12;
-        final double pad = 10;
-        for (int i = 0; i < ((getHeight()) - lineLength - SHIP_HEIGHT) / lineLength + 1; ++i) {
+        gc.fillRect(x, top, 2, bottom - top);
+
+        // markers and ships, for the lanes in view
+        int first = Math.max(0,
+            (int) Math.floor((top - LANE_PAD - 12 - SHIP_HEIGHT) / LANE_HEIGHT));
+        int last = Math.min(queueLanes - 1,
+            (int) Math.floor((bottom - LANE_PAD - 5) / LANE_HEIGHT));
+        List<Ship> ships = sq.getShipQueueView();
+        for (int i = first; i <= last; ++i) {
             // Horizontal Lines
             gc.setFill(Color.BLACK);
-            gc.fillRect(x, pad + 5 + i * lineLength, SHIP_WIDTH * 2 + 10,
+            gc.fillRect(x, LANE_PAD + 5 + i * LANE_HEIGHT, SHIP_WIDTH * 2 + 10,
                 2);
-            // Fill text numbers
-            gc.setFill(Color.WHITE);
-            gc.setTextBaseline(VPos.CENTER);
-            gc.setTextAlign(TextAlignment.LEFT);
-            gc.setFont(Font.font("monospace", FontWeight.BOLD, 12));
-            gc.fillText(String.valueOf(i + 1),
-                x + 10, // 10 px right pad
-                (i + 1) * lineLength);
+            if (detailed) {
+                // Fill text numbers
+                gc.setFill(Color.WHITE);
+                gc.setTextBaseline(VPos.CENTER);
+                gc.setTextAlign(TextAlignment.LEFT);
+                gc.setFont(labelFontBold);
+                gc.fillText(String.valueOf(i + 1),
+                    x + 10, // 10 px right pad
+                    (i + 1) * LANE_HEIGHT);
+            }
+            if (i < ships.size()) {
+                drawShip(ships.get(i), x + SHIP_WIDTH / 3, laneShipY(i), detailed);
+            }
         }
         gc.setFill(Color.BLACK);
-        gc.fillRect(x, getHeight() - pad - 5, SHIP_WIDTH * 2 + 10,
+        gc.fillRect(x, portHeight - LANE_PAD - 5, SHIP_WIDTH * 2 + 10,
             2);
-        // draw ships
-        for (int j = 0; j < capacity && j < sq.getShipQueue().size(); j++) {
-            drawShip(sq.getShipQueue().get(j), x + SHIP_WIDTH / 3,
-                pad + 12 + j * lineLength, true);
-        }
     }
 
     /*
@@ -329,32 +803,74 @@ public class PortCanvas extends Canvas {
      * @param ship ship to draw
      * @param x x-coord of top left corner
      * @param y y-coord of top left corner
+     * @param detailed whether to draw the ship's sprite and name, rather than a plain shape
      */
-    private void drawShip(Ship ship, double x, double y, boolean name) {
+    private void drawShip(Ship ship, double x, double y, boolean detailed) {
         Color textColor = Color.BLACK;
 
-        this.drawnShip.put(new ClickableRegion(x + 10, y, SHIP_WIDTH * 4 / 3, SHIP_HEIGHT),
-            ship);
-
         // hazardous cargo
         if (ship.getFlag() == NauticalFlag.BRAVO) {
             textColor = Color.RED;
         }
 
         // Is selected
-        FontWeight fontWeight = FontWeight.NORMAL;
-        if (Objects.equals(ship, viewModel.getSelectedShip().get())) {
-            fontWeight = FontWeight.BOLD;
-        }
+        boolean selected = Objects.equals(ship, viewModel.getSelectedShip().get());
 
         GraphicsContext gc = getGraphicsContext2D();
-        // draw boat
+        if (!detailed) {
+            if (selected) {
+                gc.setFill(Color.GOLD);
+            } else if (ship instanceof ContainerShip) {
+                gc.setFill(Color.LIGHTSTEELBLUE);
+            } else {
+                gc.setFill(Color.AZURE);
+            }
+            gc.fillRect(x + 10, y, SHIP_WIDTH * 4 / 3, SHIP_HEIGHT);
+            return;
+        }
+        gc.drawImage(getShipSprite(ship), x, y);
+
+        // Text
+        gc.setFill(textColor);
+        gc.setTextBaseline(VPos.BOTTOM);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setFont(selected ? labelFontBold : labelFont);
+        gc.fillText(ship.getName(),
+            x + SHIP_WIDTH / 3 + SHIP_WIDTH - 10,
+            y + SHIP_HEIGHT);
+    }
+
+    /*
+     * Returns the sprite for the hull and cargo of the given ship, rendering it the first time
+     * a ship of its class and cargo is drawn.
+     */
+    private Image getShipSprite(Ship ship) {
         if (ship instanceof ContainerShip) {
-            gc.setFill(Color.LIGHTSTEELBLUE);
-        } else {
-            gc.setFill(Color.AZURE);
+            if (containerShipSprite == null) {
+                containerShipSprite = renderSprite(SHIP_SPRITE_WIDTH, SHIP_HEIGHT,
+                    gc -> drawHull(gc, Color.LIGHTSTEELBLUE, null));
+            }
+            return containerShipSprite;
+        }
+        BulkCargo cargo = ship instanceof BulkCarrier ? ((BulkCarrier) ship).getCargo() : null;
+        int index = cargo == null ? bulkCarrierSprites.length - 1 : cargo.getType().ordinal();
+        if (bulkCarrierSprites[index] == null) {
+            final Color hold = cargo == null ? Color.BLACK : bulkCargoColour(cargo.getType());
+            bulkCarrierSprites[index] = renderSprite(SHIP_SPRITE_WIDTH, SHIP_HEIGHT,
+                gc -> drawHull(gc, Color.AZURE, hold));
         }
+        return bulkCarrierSprites[index];
+    }
+
+    /*
+     * Draws a ship's hull and bridge at the origin in the given colour, followed by a grid of
+     * containers if hold is null, or a bulk hold of the given colour otherwise.
+     */
+    private static void drawHull(GraphicsContext gc, Color hull, Color hold) {
+        final double x = 0;
+        final double y = 0;
         // hull
+        gc.setFill(hull);
         gc.fillOval(x + 10, y, SHIP_WIDTH, SHIP_HEIGHT);
         gc.fillRect(x + SHIP_WIDTH / 3 + 20, y, SHIP_WIDTH - 20, SHIP_HEIGHT);
         // Bridge
@@ -362,7 +878,7 @@ public class PortCanvas extends Canvas {
         gc.fillRect(x + SHIP_WIDTH / 3 + SHIP_WIDTH - 20, y + 10, 10, SHIP_HEIGHT - 30);
 
         // contents
-        if (ship instanceof ContainerShip) {
+        if (hold == null) {
             gc.setFill(Color.FIREBRICK);
             for (int i = 0; i < 5; i++) {
                 for (int j = 0; j < 7; j++) {
@@ -371,93 +887,101 @@ public class PortCanvas extends Canvas {
                         CONTAINER_WIDTH, CONTAINER_HEIGHT);
                 }
             }
-        } else if (ship instanceof BulkCarrier) {
-            gc.setFill(Color.BLACK);
-            BulkCargo c = ((BulkCarrier) ship).getCargo();
-            if (c != null) {
-                switch (c.getType()) {
-                    case GRAIN:
-                        gc.setFill(Color.KHAKI);
-                        break;
-                    case MINERALS:
-                        gc.setFill(Color.LAVENDER);
-                        break;
-                    case COAL:
-                        gc.setFill(Color.DARKSLATEGREY);
-                        break;
-                    case OIL:
-                        gc.setFill(Color.INDIGO);
-                        break;
-                    case OTHER:
-                        gc.setFill(Color.LIGHTGREEN);
-                        break;
-                }
-            }
+        } else {
+            gc.setFill(hold);
             gc.fillRect(x + SHIP_WIDTH / 3 + 10, y + 10, SHIP_WIDTH - 40, SHIP_HEIGHT - 30);
         }
-        // Text
-        gc.setFill(textColor);
-        gc.setTextBaseline(VPos.BOTTOM);
-        gc.setTextAlign(TextAlignment.RIGHT);
-        gc.setFont(Font.font("monospace", fontWeight, 12));
+    }
 
-        if (name) {
-            gc.fillText(ship.getName(),
-                x + SHIP_WIDTH / 3 + SHIP_WIDTH - 10,
-                y + SHIP_HEIGHT);
+    /* Returns the colour of a bulk carrier's hold when carrying the given type of cargo */
+    private static Color bulkCargoColour(BulkCargoType type) {
+        switch (type) {
+            case GRAIN:
+                return Color.KHAKI;
+            case MINERALS:
+                return Color.LAVENDER;
+            case COAL:
+                return Color.DARKSLATEGREY;
+            case OIL:
+                return Color.INDIGO;
+            default:
+                return Color.LIGHTGREEN;
         }
     }
 
-    /* Draws the quays and their ships */
-    private void drawQuays() {
-        GraphicsContext gc = getGraphicsContext2D();
-        gc.setFill(Color.MIDNIGHTBLUE);
-        List<Quay> quays = this.viewModel.getPort().getQuays();
-
-        final double quayWidth = SHIP_WIDTH * 5 / 3;
-        final double marginLeft = 5;
-        for (int i = 0; i < quays.size(); i++) {
-            Quay q = quays.get(i);
-            if (i < 4) {
-                double quayStartX = marginLeft + quayWidth * i;
-                double quayStartY = SHIP_HEIGHT / 3;
-                if (!q.isEmpty()) {
-                    drawShip(q.getShip(), quayStartX, quayStartY, true);
-                }
-                for (int j = 0; j < 2; j++) {
-                    gc.setFill(Color.MIDNIGHTBLUE);
-                    double x = quayStartX + j * SHIP_WIDTH / 3 + SHIP_WIDTH / 3 + 20;
-                    double y = quayStartY + SHIP_HEIGHT + 5;
-                    gc.fillRect(x, y, 20, 30);
-                    gc.fillRect(x + 6, y - 20, 4, 22);
-                }
-                gc.setFill(Color.BLACK);
-                gc.setTextAlign(TextAlignment.CENTER);
-                gc.setFont(Font.font("monospace", FontWeight.NORMAL, 12));
-                gc.fillText(String.format("%s: %d", q.getClass().getSimpleName(), q.getId()),
-                    quayStartX + 2 * SHIP_WIDTH / 3 + 10,
-                    quayStartY + SHIP_HEIGHT + 50);
-            } else {
-                double quayStartX = marginLeft + quayWidth * (i - 4);
-                double quayStartY = getHeight() - SHIP_HEIGHT * 3 / 2;
-                if (!q.isEmpty()) {
-                    drawShip(q.getShip(), quayStartX, getHeight() - SHIP_HEIGHT * 4 / 3, true);
-                }
-                for (int j = 0; j < 2; j++) {
-                    gc.setFill(Color.MIDNIGHTBLUE);
-                    double x = quayStartX + j * SHIP_WIDTH / 3 + SHIP_WIDTH / 3 + 20;
-                    double y = quayStartY - 25;
-                    gc.fillRect(x, y, 20, 30);
-                    gc.fillRect(x + 6, y + 25, 4, 22);
-                }
-                gc.setFill(Color.BLACK);
-                gc.setTextAlign(TextAlignment.CENTER);
-                gc.setFont(Font.font("monospace", FontWeight.NORMAL, 12));
-                gc.fillText(String.format("Quay: %d", q.getId()),
-                    quayStartX + 2 * SHIP_WIDTH / 3 + 10,
-                    quayStartY - 30);
+    /*
+     * Draws the quays, and their ships, that lie within the given port coordinates. Quays
+     * fill the top side of the port from left to right, then the bottom side.
+     */
+    private void drawQuays(double left, double right, double top, double bottom,
+                           boolean detailed) {
+        List<Quay> quays = this.viewModel.getPort().getQuayView();
+
+        int firstColumn = Math.max(0, (int) Math.floor((left - QUAY_MARGIN) / QUAY_WIDTH));
+        int lastColumn = Math.min(quaysPerSide - 1,
+            (int) Math.floor((right - QUAY_MARGIN) / QUAY_WIDTH));
+        boolean topInView = top < SHIP_HEIGHT / 3 + SHIP_HEIGHT + 55;
+        boolean bottomInView = bottom > PORT_HEIGHT - SHIP_HEIGHT * 3 / 2 - 45;
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            if (topInView && column < quays.size()) {
+                drawQuay(quays.get(column), column, true, detailed);
+            }
+            if (bottomInView && quaysPerSide + column < quays.size()) {
+                drawQuay(quays.get(quaysPerSide + column), column, false, detailed);
             }
+        }
+    }
 
+    /* Draws a quay and its ship in the given column of the top or bottom side of the port */
+    private void drawQuay(Quay q, int column, boolean topSide, boolean detailed) {
+        GraphicsContext gc = getGraphicsContext2D();
+        double quayStartX = quayShipX(column);
+        if (topSide) {
+            double quayStartY = SHIP_HEIGHT / 3;
+            if (!q.isEmpty()) {
+                drawShip(q.getShip(), quayStartX, quayStartY, detailed);
+            }
+            gc.setFill(Color.MIDNIGHTBLUE);
+            if (!detailed) {
+                gc.fillRect(quayStartX + SHIP_WIDTH / 3 + 20, quayStartY + SHIP_HEIGHT + 5,
+                    SHIP_WIDTH / 3 + 20, 30);
+                return;
+            }
+            for (int j = 0; j < 2; j++) {
+                double x = quayStartX + j * SHIP_WIDTH / 3 + SHIP_WIDTH / 3 + 20;
+                double y = quayStartY + SHIP_HEIGHT + 5;
+                gc.fillRect(x, y, 20, 30);
+                gc.fillRect(x + 6, y - 20, 4, 22);
+            }
+            gc.setFill(Color.BLACK);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setFont(labelFont);
+            gc.fillText(String.format("%s: %d", q.getClass().getSimpleName(), q.getId()),
+                quayStartX + 2 * SHIP_WIDTH / 3 + 10,
+                quayStartY + SHIP_HEIGHT + 50);
+        } else {
+            double quayStartY = PORT_HEIGHT - SHIP_HEIGHT * 3 / 2;
+            if (!q.isEmpty()) {
+                drawShip(q.getShip(), quayStartX, PORT_HEIGHT - SHIP_HEIGHT * 4 / 3, detailed);
+            }
+            gc.setFill(Color.MIDNIGHTBLUE);
+            if (!detailed) {
+                gc.fillRect(quayStartX + SHIP_WIDTH / 3 + 20, quayStartY - 25,
+                    SHIP_WIDTH / 3 + 20, 30);
+                return;
+            }
+            for (int j = 0; j < 2; j++) {
+                double x = quayStartX + j * SHIP_WIDTH / 3 + SHIP_WIDTH / 3 + 20;
+                double y = quayStartY - 25;
+                gc.fillRect(x, y, 20, 30);
+                gc.fillRect(x + 6, y + 25, 4, 22);
+            }
+            gc.setFill(Color.BLACK);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setFont(labelFont);
+            gc.fillText(String.format("Quay: %d", q.getId()),
+                quayStartX + 2 * SHIP_WIDTH / 3 + 10,
+                quayStartY - 30);
         }
     }
 
@@ -1,6 +1,7 @@
 package portsim.display;
 
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.geometry.Insets;
@@ -23,9 +24,8 @@ import portsim.ship.ContainerShip;
 import portsim.ship.NauticalFlag;
 import portsim.ship.Ship;
 
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * View for the Port Simulation GUI.
@@ -54,19 +54,26 @@ public class View {
     private long lastNanoTime;
 
     /**
-     * Time spent un-paused since last minute, in nanoseconds
+     * Simulated minutes owed to the view model since the last frame, including any
+     * fractional part carried over to the next frame
      */
-    private long timeSpentUnpaused = 0;
+    private double pendingMinutes = 0;
 
     /**
-     * Time interval between ticks of the view model
+     * Number of simulated minutes that elapse per real second while un-paused
      */
-    private final IntegerProperty secondsPerMinute = new SimpleIntegerProperty(5);
+    private final DoubleProperty minutesPerSecond = new SimpleDoubleProperty(1.0 / 5);
 
     /**
-     * Maximum number of ports that can be displayed each side
+     * Maximum real time spent elapsing minutes during a single frame, in nanoseconds.
+     * Keeps the GUI responsive when the requested speed exceeds what the model can deliver.
      */
-    private static final int MAX_QUAYS = 8;
+    private static final long FRAME_BUDGET_NANOS = 8_000_000;
+
+    /**
+     * Tolerance used when comparing the current speed against a menu option
+     */
+    private static final double SPEED_EPSILON = 1e-9;
 
     /**
      * Creates a new view for the given view model and adds the associated GUI elements to the given
@@ -113,17 +120,11 @@ public class View {
         buttons.getChildren().add(space);
         buttons.getChildren().add(time);
 
-        var middleInfoBox = createInfoBox(viewModel.getCargoManifestText(), 10);
-        var scroll = new ScrollPane();
-        scroll.setContent(middleInfoBox);
-        scroll.setFitToHeight(true);
-        scroll.setFitToWidth(true);
-
         var leftPanel = new VBox();
         var topInfoBox = createInfoBox(viewModel.getShipInfoText(), 8);
         leftPanel.getChildren().add(topInfoBox);
         leftPanel.getChildren().add(buttons);
-        leftPanel.getChildren().add(scroll);
+        leftPanel.getChildren().add(createManifestBox());
         leftPanel.getChildren().add(space);
         var bottomInfoBox = createInfoBox(viewModel.getEvaluatorsText(), 11);
         var scroll2 = new ScrollPane();
@@ -152,17 +153,10 @@ public class View {
 
         MenuItem save = new MenuItem("_Save");
         save.setMnemonicParsing(true);
-        save.setOnAction(event -> {
-            try {
-                viewModel.save();
-            } catch (IOException e) {
-                viewModel.createErrorDialog("Error saving to file",
-                    e.getMessage());
-                return;
-            }
-            viewModel.createSuccessDialog("Saved successfully",
-                "Saved to default provided file locations successfully.");
-        });
+        save.setOnAction(event -> reportSave(
+            viewModel.saveInBackground(viewModel.getPortSaveLocation()),
+            "Saved successfully",
+            "Saved to default provided file locations successfully."));
 
         MenuItem exit = new MenuItem("_Exit");
         exit.setMnemonicParsing(true);
@@ -213,30 +207,38 @@ public class View {
         pause.textProperty().bind(viewModel.getPauseMenuText());
         pause.setOnAction(event -> viewModel.togglePaused());
         pause.setAccelerator(KeyCombination.keyCombination("Shortcut+P"));
-        MenuItem lowSpeed = new MenuItem("_5 seconds per minute");
-        lowSpeed.setMnemonicParsing(true);
-        lowSpeed.setOnAction(e -> secondsPerMinute.set(5));
-        lowSpeed.disableProperty().bind(secondsPerMinute.isEqualTo(5));
-        MenuItem medSpeed = new MenuItem("_3 seconds per minute");
-        medSpeed.setMnemonicParsing(true);
-        medSpeed.setOnAction(e -> secondsPerMinute.set(3));
-        medSpeed.disableProperty().bind(secondsPerMinute.isEqualTo(3));
-        MenuItem highSpeed = new MenuItem("_1 second per minute");
-        highSpeed.setMnemonicParsing(true);
-        highSpeed.setOnAction(e -> secondsPerMinute.set(1));
-        highSpeed.disableProperty().bind(secondsPerMinute.isEqualTo(1));
         Menu menuSim = new Menu("_Simulation");
         menuSim.setMnemonicParsing(true);
         Menu speed = new Menu("_Speed");
         speed.setMnemonicParsing(true);
-        speed.getItems().add(lowSpeed);
-        speed.getItems().add(medSpeed);
-        speed.getItems().add(highSpeed);
+        speed.getItems().add(createSpeedMenuItem("_5 seconds per minute", 1.0 / 5));
+        speed.getItems().add(createSpeedMenuItem("_3 seconds per minute", 1.0 / 3));
+        speed.getItems().add(createSpeedMenuItem("_1 second per minute", 1));
+        speed.getItems().add(new SeparatorMenuItem());
+        speed.getItems().add(createSpeedMenuItem("1_0 minutes per second", 10));
+        speed.getItems().add(createSpeedMenuItem("1 _hour per second", 60));
+        speed.getItems().add(createSpeedMenuItem("1_2 hours per second", 12 * 60));
+        speed.getItems().add(createSpeedMenuItem("1 _day per second", 24 * 60));
+        speed.getItems().add(createSpeedMenuItem("1 _week per 2 seconds", 7 * 24 * 60 / 2.0));
+        MenuItem resetView = new MenuItem("_Reset view");
+        resetView.setMnemonicParsing(true);
+        resetView.setOnAction(event -> canvas.resetView());
+        resetView.setAccelerator(KeyCombination.keyCombination("Shortcut+0"));
         menuSim.getItems().add(pause);
         menuSim.getItems().add(speed);
+        menuSim.getItems().add(resetView);
         return menuSim;
     }
 
+    /* Creates a menu item that sets the simulation speed to the given minutes per second */
+    private MenuItem createSpeedMenuItem(String label, double minutes) {
+        MenuItem item = new MenuItem(label);
+        item.setMnemonicParsing(true);
+        item.setOnAction(e -> minutesPerSecond.set(minutes));
+        item.disableProperty().bind(minutesPerSecond.isEqualTo(minutes, SPEED_EPSILON));
+        return item;
+    }
+
     /* Creates a menu item that, when clicked, prompts for a new ship to be added */
     private MenuItem createAddShipMenu() {
         MenuItem addShip = new MenuItem("New _ship...");
@@ -426,7 +428,7 @@ public class View {
                 return;
             }
 
-            var defaultQuayNumber = 1 + viewModel.getPort().getQuays().size();
+            var defaultQuayNumber = 1 + viewModel.getPort().getQuayCount();
             var quayNum = getResponse("Add Quay",
                 "Please enter the quay ID",
                 "quay ID:",
@@ -456,8 +458,6 @@ public class View {
             viewModel.getNumQuays().set(viewModel.getNumQuays().get() + 1);
             viewModel.registerChange();
         });
-        addQuay.disableProperty().bind(Bindings.greaterThan(viewModel.getNumQuays(),
-            MAX_QUAYS - 1));
         return addQuay;
     }
 
@@ -535,20 +535,32 @@ public class View {
             if (filename.isEmpty()) {
                 return;
             }
-            try {
-                viewModel.saveAs(new FileWriter(filename.get()));
-            } catch (IOException e) {
-                viewModel.createErrorDialog("Error saving to file",
-                    e.getMessage());
-                return;
-            }
-            viewModel.createSuccessDialog("Saved files successfully",
+            reportSave(viewModel.saveInBackground(filename.get()),
+                "Saved files successfully",
                 "Saved to \"" + filename.get() + "\" successfully.");
         });
         saveAs.setAccelerator(KeyCombination.keyCombination("Shortcut+S"));
         return saveAs;
     }
 
+    /*
+     * Shows a success dialog once the given background save has been written, or an error
+     * dialog if it failed. The simulation keeps running while the save is written.
+     */
+    private void reportSave(CompletableFuture<?> saving, String header, String content) {
+        saving.whenComplete((snapshot, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                viewModel.createSuccessDialog(header, content);
+                return;
+            }
+            Throwable cause = error;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            viewModel.createErrorDialog("Error saving to file", cause.getMessage());
+        }));
+    }
+
     /* Prompts the user to choose a quay from a list of all the port's quays or to add later */
     private Optional<Object> chooseShipLocation(String title, String header, Ship ship) {
         var options = new TreeMap<String, Object>();
@@ -568,6 +580,43 @@ public class View {
     }
 
 
+    /*
+     * Creates the cargo manifest: a summary line, filters by destination and container type,
+     * and a list showing one container per row. The list only creates and formats cells for
+     * the rows on screen, however many containers are on the ship.
+     */
+    private VBox createManifestBox() {
+        var summary = new Text();
+        summary.textProperty().bind(viewModel.getCargoManifestText());
+        summary.setFont(Font.font(14));
+
+        var destination = new ComboBox<>(viewModel.getManifestDestinations());
+        destination.valueProperty().bindBidirectional(viewModel.getManifestDestination());
+        destination.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(destination, Priority.ALWAYS);
+        var type = new ComboBox<>(viewModel.getManifestTypes());
+        type.valueProperty().bindBidirectional(viewModel.getManifestType());
+        var filters = new HBox(destination, type);
+        filters.setSpacing(10);
+
+        var rows = new ListView<>(viewModel.getManifestRows());
+        rows.setFocusTraversable(false);
+        rows.setPrefWidth(200);
+        rows.setPrefHeight(200);
+        rows.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Container container, boolean empty) {
+                super.updateItem(container, empty);
+                setText(empty || container == null ? null : container.toString());
+            }
+        });
+
+        var manifestBox = new VBox(summary, filters, rows);
+        manifestBox.setPadding(new Insets(0, 10, 10, 10));
+        manifestBox.setSpacing(5);
+        return manifestBox;
+    }
+
     /* Creates a non-editable text area to display some text information */
     private TextArea createInfoBox(StringProperty contents, int rowCount) {
         var infoBox = new TextArea();
@@ -640,32 +689,40 @@ public class View {
     }
 
     /**
-     * Initialises the view and begins the timer responsible for performing ticks
+     * Initialises the view and begins the timer responsible for performing ticks.
+     * <p>
+     * Each frame works out how many simulated minutes are owed at the current speed and
+     * elapses them as a single batch, so the GUI text and canvas are refreshed at most once
+     * per frame regardless of how many minutes were simulated. If a batch would take longer
+     * than the frame budget the remaining minutes are carried over, and the backlog is never
+     * allowed to grow beyond one second's worth of simulation.
      *
      * @given
      */
     public void run() {
-        final long nanosPerSecond = 1000000000;
+        final double nanosPerSecond = 1000000000;
 
         new AnimationTimer() {
             @Override
             public void handle(long currentNanoTime) {
-                if (viewModel.isChanged()) {
-                    viewModel.notChanged();
-                    canvas.draw();
-                }
-
                 if (viewModel.getPaused().get()) {
                     lastNanoTime = currentNanoTime;
-                    return;
-                }
+                } else {
+                    double speed = minutesPerSecond.get();
+                    pendingMinutes += (currentNanoTime - lastNanoTime) * speed / nanosPerSecond;
+                    lastNanoTime = currentNanoTime;
 
-                timeSpentUnpaused += currentNanoTime - lastNanoTime;
-                lastNanoTime = currentNanoTime;
+                    int dueMinutes = (int) pendingMinutes;
+                    if (dueMinutes > 0) {
+                        int elapsed = viewModel.elapseMinutes(dueMinutes, FRAME_BUDGET_NANOS);
+                        pendingMinutes = Math.min(pendingMinutes - elapsed,
+                            Math.max(1, speed));
+                    }
+                }
 
-                if (timeSpentUnpaused > secondsPerMinute.get() * nanosPerSecond) {
-                    timeSpentUnpaused = 0;
-                    viewModel.elapseOneMinute();
+                if (viewModel.isChanged()) {
+                    viewModel.notChanged();
+                    canvas.draw();
                 }
             }
         }.start();
@@ -1,6 +1,10 @@
 package portsim.display;
 
 import javafx.beans.property.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.Alert;
@@ -8,17 +12,25 @@ import javafx.scene.control.Alert;
 
 import portsim.evaluators.*;
 import portsim.port.Port;
+import portsim.port.PortSnapshot;
 import portsim.ship.BulkCarrier;
 import portsim.ship.ContainerShip;
 import portsim.ship.Ship;
 import portsim.util.BadEncodingException;
 import portsim.cargo.BulkCargo;
 import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
 import portsim.util.NoSuchCargoException;
 import portsim.util.NoSuchShipException;
 
+import javax.management.JMException;
 import java.io.*;
 import java.util.*;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -69,6 +81,69 @@ public class ViewModel {
     private final StringProperty cargoManifestText = new SimpleStringProperty(
             "Cargo Manifest");
 
+    /**
+     * Option in the manifest destination filter that shows every destination
+     */
+    public static final String ALL_DESTINATIONS = "All destinations";
+
+    /**
+     * Option in the manifest container type filter that shows every type
+     */
+    public static final String ALL_TYPES = "All types";
+
+    /**
+     * Number of containers the manifest filter checks between checks for cancellation
+     */
+    private static final int FILTER_BATCH = 4096;
+
+    /**
+     * Containers shown in the cargo manifest list, after filtering
+     */
+    private final ManifestRows manifestRows = new ManifestRows();
+
+    /**
+     * Options of the manifest destination filter
+     */
+    private final ObservableList<String> manifestDestinations =
+            FXCollections.observableArrayList(ALL_DESTINATIONS);
+
+    /**
+     * Options of the manifest container type filter
+     */
+    private final ObservableList<String> manifestTypes =
+            FXCollections.observableArrayList(ALL_TYPES);
+
+    /**
+     * Selected option of the manifest destination filter
+     */
+    private final StringProperty manifestDestination = new SimpleStringProperty(
+            ALL_DESTINATIONS);
+
+    /**
+     * Selected option of the manifest container type filter
+     */
+    private final StringProperty manifestType = new SimpleStringProperty(ALL_TYPES);
+
+    /**
+     * Containers on the ship when the manifest was last dumped, never modified once taken
+     */
+    private Container[] manifest = new Container[0];
+
+    /**
+     * Filter currently running over {@link #manifest}, or null if none is running
+     */
+    private Task<Container[]> manifestFilter = null;
+
+    /**
+     * Runs manifest filters away from the JavaFX application thread
+     */
+    private final ExecutorService manifestExecutor = Executors.newSingleThreadExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "manifest-filter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     /**
      * Text displayed in the time label
      */
@@ -87,11 +162,49 @@ public class ViewModel {
     private final ObjectProperty<Ship> selectedShip =
             new SimpleObjectProperty<>();
 
+    /**
+     * Evaluator snapshots currently shown in the evaluators text, or null if nothing has been
+     * shown yet
+     */
+    private List<MetricSnapshot> renderedSnapshots = null;
+
     /**
      * File path of the port file that we loaded from
      */
     private final String defaultPortSaveLocation;
 
+    /**
+     * Suffix appended to the path of the port file to give the path of the autosave file
+     */
+    public static final String AUTOSAVE_SUFFIX = ".autosave";
+
+    /**
+     * Real time between autosaves while the simulation runs by default, in nanoseconds
+     */
+    private static final long DEFAULT_AUTOSAVE_INTERVAL = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * Encodes and writes snapshots of the port away from the JavaFX application thread, one
+     * at a time and in the order they were taken
+     */
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "port-save");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Real time between autosaves while the simulation runs, in nanoseconds, or 0 if
+     * autosave is disabled
+     */
+    private long autosaveInterval = DEFAULT_AUTOSAVE_INTERVAL;
+
+    /**
+     * Value of {@link System#nanoTime()} when the port was loaded or last autosaved
+     */
+    private long lastAutosave = System.nanoTime();
+
     /**
      * Creates a new view model and constructs a port by reading from the given filenames.
      *
@@ -105,11 +218,31 @@ public class ViewModel {
      */
     public ViewModel(String filename) throws IOException, BadEncodingException,
             NoSuchShipException, ClassNotFoundException, NoSuchCargoException {
+        this(filename, Port.initialisePort(new FileReader(filename)));
+    }
+
+    /**
+     * Creates a new view model for a port that has already been loaded from the given file.
+     * <p>
+     * This allows the port to be loaded away from the JavaFX application thread, for example
+     * by {@link portsim.Launcher}, and handed to the view model once loading completes.
+     *
+     * @param filename path of the port file the port was loaded from, and is saved to
+     * @param port     port loaded from the file
+     */
+    public ViewModel(String filename, Port port) {
         this.defaultPortSaveLocation = filename;
 
-        this.port = Port.initialisePort(new FileReader(filename));
+        this.port = port;
 
-        this.numQuays.set(port.getQuays().size());
+        this.numQuays.set(port.getQuayCount());
+
+        try {
+            this.port.getMetrics().registerMBean();
+        } catch (JMException e) {
+            System.err.println("Unable to publish port metrics over JMX: "
+                    + e.getMessage());
+        }
 
         this.selectedShip.addListener((observable, oldValue, newValue) -> {
             if (newValue == null) {
@@ -119,75 +252,138 @@ public class ViewModel {
             }
         });
 
+        for (ContainerType type : ContainerType.values()) {
+            this.manifestTypes.add(type.name());
+        }
+        this.manifestDestination.addListener((observable, oldValue, newValue) ->
+                filterManifest());
+        this.manifestType.addListener((observable, oldValue, newValue) ->
+                filterManifest());
+
     }
 
     /**
      * Returns an event handler for when the "Dump Cargo Manifest"
      * button is clicked.
      * <p>
-     * The overall purpose of this event handler is to update the {@code cargoManifestText} string
-     * property with the string representation of the  cargo on the currently selected ship, as
-     * returned by {@link BulkCarrier#getCargo()} or {@link ContainerShip#getCargo()}.
+     * The overall purpose of this event handler is to show the cargo on the currently selected
+     * ship, as returned by {@link BulkCarrier#getCargo()} or {@link ContainerShip#getCargo()}.
      * <p>
      * The event handler should perform the following actions:
      * <ol>
      * <li>If no ship is currently selected (i.e. {@link #getSelectedShip()} ()} is storing
      * null), then the event handler should return immediately without taking any further action.
      * </li>
-     * <li>If calling {@link BulkCarrier#getCargo()} or {@link ContainerShip#getCargo()} for the
-     * currently selected ship returns a value indicating there is no cargo on board , then the
-     * {@code cargoManifestText} property should be set to {@code "No cargo on board."}.</li>
+     * <li>If the currently selected ship has no cargo on board, then the {@code
+     * cargoManifestText} property should be set to {@code "No cargo on board."}.</li>
      * <li>If the ship currently selected  is a {@link BulkCarrier}, the {@code
      * cargoManifestText} property should be set to the {@link BulkCargo#toString()} representation
      * of the cargo onboard. <br> For Example:<pre>BulkCargo 42 to Brazil [OIL - 420]</pre></li>
-     * <li>If the ship currently selected  is a {@link ContainerShip}, the {@code
-     * cargoManifestText} property should be set to a String containing the
-     * {@link Container#toString()} representation of each of the cargo onboard separated by a
-     * comma and {@link System#lineSeparator()}.
-     * <br><b>Note: The last line should not have a
-     * trailing comma</b><br> For Example:
-     * <pre>Container 43 to Australia [OTHER],</pre>
-     * <pre>Container 66 to Australia [OPEN_TOP],</pre>
-     * <pre>Container 92 to Australia [OPEN_TOP]</pre></li>
+     * <li>If the ship currently selected  is a {@link ContainerShip}, the containers on board
+     * are shown one per row in {@link #getManifestRows()}, filtered by the selected
+     * destination and container type, and the {@code cargoManifestText} property should be set
+     * to the number of containers shown. <br> For Example:
+     * <pre>Showing 3 of 3 containers</pre></li>
      * </ol>
+     * The containers are taken when the button is clicked, without formatting them, and are
+     * not updated as the simulation runs. Rows are formatted by the view only when they are
+     * displayed, so the cost of dumping the manifest does not depend on how many lines a
+     * text box would need.
      *
      * @return event handler for "Show Cargo Manifest for Selected Ship" button
-     * @ass2
      */
     public EventHandler<ActionEvent> getShipContentsHandler() {
         return new EventHandler<ActionEvent>() {
             @Override
             public void handle(ActionEvent actionEvent) {
-                if (getSelectedShip() != null) {
-                    ObjectProperty<Ship> shipObjectProperty = getSelectedShip();
-                    if (shipObjectProperty.getValue() instanceof BulkCarrier) {
-                        if (((BulkCarrier) shipObjectProperty.getValue())
-                                .getCargo() == null) {
-                            cargoManifestText.set("No cargo on board.");
-                        }
-                        cargoManifestText.set(((BulkCarrier) shipObjectProperty
-                                .getValue()).getCargo().toString());
-                    } else if (shipObjectProperty.getValue()
-                            instanceof ContainerShip) {
-                        StringBuilder stringBuilder = new StringBuilder();
-                        List<Container> container = ((ContainerShip)
-                                shipObjectProperty.getValue()).getCargo();
-                        if (container.isEmpty()) {
-                            cargoManifestText.set("No cargo on board.");
-                        }
-                        for (int n = 0; n < container.size() - 1; n++) {
-                            stringBuilder.append(container.get(n)).append(",")
-                                    .append(System.lineSeparator());
-                        }
-                        stringBuilder.append(container
-                                .get(container.size() - 1));
-                        cargoManifestText.set(stringBuilder.toString());
+                Ship ship = getSelectedShip().get();
+                if (ship == null) {
+                    return;
+                }
+                if (ship instanceof BulkCarrier) {
+                    manifest = new Container[0];
+                    filterManifest();
+                    BulkCargo cargo = ((BulkCarrier) ship).getCargo();
+                    cargoManifestText.set(cargo == null
+                            ? "No cargo on board." : cargo.toString());
+                } else if (ship instanceof ContainerShip) {
+                    ContainerShip containerShip = (ContainerShip) ship;
+                    List<String> destinations =
+                            new ArrayList<>(containerShip.getHold().getDestinations());
+                    Collections.sort(destinations);
+                    destinations.add(0, ALL_DESTINATIONS);
+                    manifestDestinations.setAll(destinations);
+                    manifest = containerShip.getCargoView().toArray(new Container[0]);
+                    if (destinations.contains(manifestDestination.get())) {
+                        filterManifest();
+                    } else {
+                        manifestDestination.set(ALL_DESTINATIONS);
                     }
                 }
             }
         };
     }
 
+    /*
+     * Shows the dumped containers that match the selected filters. Unless every container
+     * matches, the containers are checked on the manifest executor and shown when the check
+     * completes; a check that is still running when the filters change is cancelled.
+     */
+    private void filterManifest() {
+        if (manifestFilter != null) {
+            manifestFilter.cancel();
+            manifestFilter = null;
+        }
+        final Container[] containers = this.manifest;
+        final String destination = manifestDestination.get() == null
+                || ALL_DESTINATIONS.equals(manifestDestination.get())
+                ? null : manifestDestination.get();
+        final ContainerType type = manifestType.get() == null
+                || ALL_TYPES.equals(manifestType.get())
+                ? null : ContainerType.valueOf(manifestType.get());
+        if (destination == null && type == null) {
+            showManifestRows(containers);
+            return;
+        }
+        Task<Container[]> filter = new Task<>() {
+            @Override
+            protected Container[] call() {
+                List<Container> matches = new ArrayList<>();
+                for (int i = 0; i < containers.length; i++) {
+                    if (i % FILTER_BATCH == 0 && isCancelled()) {
+                        return null;
+                    }
+                    Container container = containers[i];
+                    if ((destination == null
+                            || destination.equals(container.getDestination()))
+                            && (type == null || type == container.getType())) {
+                        matches.add(container);
+                    }
+                }
+                return matches.toArray(new Container[0]);
+            }
+        };
+        filter.setOnSucceeded(event -> {
+            if (manifestFilter == filter) {
+                manifestFilter = null;
+                showManifestRows(filter.getValue());
+            }
+        });
+        manifestFilter = filter;
+        manifestExecutor.execute(filter);
+    }
+
+    /* Shows the given containers as the rows of the manifest list */
+    private void showManifestRows(Container[] rows) {
+        manifestRows.setRows(rows);
+        if (manifest.length > 0) {
+            cargoManifestText.set("Showing " + rows.length + " of " + manifest.length
+                    + " containers");
+        } else if (getSelectedShip().get() instanceof ContainerShip) {
+            cargoManifestText.set("No cargo on board.");
+        }
+    }
+
     /**
      * The purpose of this method is to update the {@code evaluatorsText} string.
      * Called each {@link #elapseOneMinute()}
@@ -246,61 +442,27 @@ public class ViewModel {
      * Container : 7
      * BulkCargo : 12
      * </pre>
+     * The text is built from each evaluator's {@link MetricSnapshot} and is only replaced
+     * when a snapshot differs from the one last displayed.
      *
      * @ass2
      */
     public void updateEvaluatorText() {
-        if (port.getEvaluators().size() == 0) {
-            System.out.println("No Evaluators Present");
+        List<MetricSnapshot> snapshots =
+                EvaluatorSnapshots.snapshotsOf(port.getEvaluators());
+        if (snapshots.equals(renderedSnapshots)) {
+            return;
         }
-        for (StatisticsEvaluator statisticsEvaluator : port.getEvaluators()) {
-            if (statisticsEvaluator instanceof QuayOccupancyEvaluator) {
-                evaluatorsText.set(statisticsEvaluator.getClass()
-                        .getSimpleName());
-                String numQuayOccupied = ((QuayOccupancyEvaluator)
-                        statisticsEvaluator).getQuaysOccupied()
-                        + " Quay(s) currently occupied";
-                evaluatorsText.set(numQuayOccupied);
-            }
-            if (statisticsEvaluator instanceof ShipFlagEvaluator) {
-                evaluatorsText.set(statisticsEvaluator.getClass()
-                        .getSimpleName());
-                StringBuilder stringBuilder = new StringBuilder();
-                List<String> origins = new ArrayList<>();
-                for (Map.Entry<String, Integer> entry
-                        : ((ShipFlagEvaluator) statisticsEvaluator)
-                        .getFlagDistribution().entrySet()) {
-                    origins.add(entry.getKey());
-                }
-                for (String flags : origins) {
-                    stringBuilder.append(flags).append(
-                            ((ShipFlagEvaluator) statisticsEvaluator)
-                                    .getFlagStatistics(flags));
-                    evaluatorsText.set(stringBuilder.toString());
-                }
-            }
-            if (statisticsEvaluator instanceof ShipThroughputEvaluator) {
-                evaluatorsText.set(statisticsEvaluator.getClass()
-                        .getSimpleName());
-                evaluatorsText.set(((ShipThroughputEvaluator)
-                        statisticsEvaluator).getThroughputPerHour()
-                        + " Ships passed in the last hour");
-            }
-            if (statisticsEvaluator instanceof CargoDecompositionEvaluator) {
-                evaluatorsText.set(statisticsEvaluator.getClass()
-                        .getSimpleName());
-                StringBuilder stringBuilder = new StringBuilder();
-                StringBuilder stringBuilder2 = new StringBuilder();
-                stringBuilder.append("Container : ").append(
-                        ((CargoDecompositionEvaluator) statisticsEvaluator)
-                                .getCargoDistribution().get("Container"));
-                stringBuilder2.append("BulkCargo : ").append(
-                        ((CargoDecompositionEvaluator) statisticsEvaluator)
-                                .getCargoDistribution().get("BulkCargo"));
-                evaluatorsText.set(stringBuilder.toString());
-                evaluatorsText.set(stringBuilder2.toString());
-            }
+        renderedSnapshots = snapshots;
+        if (snapshots.isEmpty()) {
+            evaluatorsText.set("No Evaluators Present");
+            return;
+        }
+        StringJoiner lineJoiner = new StringJoiner(System.lineSeparator());
+        for (MetricSnapshot snapshot : snapshots) {
+            lineJoiner.add(snapshot.render());
         }
+        evaluatorsText.set(lineJoiner.toString());
     }
 
     /**
@@ -382,13 +544,52 @@ public class ViewModel {
         return port;
     }
 
+    /**
+     * Returns the path of the port file the port was loaded from, which {@link #save()}
+     * saves to.
+     *
+     * @return path of the port file
+     */
+    public String getPortSaveLocation() {
+        return defaultPortSaveLocation;
+    }
+
     /**
      * Elapses one minute in the model and updates the state of the GUI.
      *
      * @given
      */
     public void elapseOneMinute() {
-        port.elapseOneMinute();
+        elapseMinutes(1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Elapses up to the given number of minutes in the model as a single batch, then updates
+     * the state of the GUI once.
+     * <p>
+     * At least one minute is always elapsed. Elapsing stops early once the given time budget
+     * has been used up, so that a caller running on the JavaFX application thread can keep
+     * frames short; the caller is responsible for carrying over the minutes not elapsed.
+     *
+     * @param minutes     maximum number of minutes to elapse, must be at least 1
+     * @param budgetNanos real time after which no further minutes are started, in nanoseconds
+     * @return number of minutes actually elapsed
+     */
+    public int elapseMinutes(int minutes, long budgetNanos) {
+        final long start = System.nanoTime();
+        int elapsed = 0;
+        do {
+            port.elapseOneMinute();
+            elapsed++;
+        } while (elapsed < minutes && System.nanoTime() - start < budgetNanos);
+
+        if (autosaveInterval > 0 && System.nanoTime() - lastAutosave >= autosaveInterval) {
+            autosave().exceptionally(e -> {
+                System.err.println("Autosave failed: " + e.getMessage());
+                return null;
+            });
+        }
+
         timeText.set(String.format("Time: %02d:%02d", port.getTime()
                 / 60, port.getTime() % 60));
         updateEvaluatorText();
@@ -396,6 +597,7 @@ public class ViewModel {
             this.shipInfoText.set(generateShipInfoText(selectedShip.get()));
         }
         registerChange();
+        return elapsed;
     }
 
     /* Generates the formatted information text for the given ship */
@@ -413,7 +615,7 @@ public class ViewModel {
                     ? "Nothing" : c.getType()));
         } else if (ship instanceof ContainerShip) {
             lineJoiner.add("Carrying:      \t"
-                    + ((ContainerShip) ship).getCargo().size()
+                    + ((ContainerShip) ship).getCargoCount()
                     + " containers");
         }
         return lineJoiner.toString();
@@ -447,6 +649,64 @@ public class ViewModel {
         saveAs(new FileWriter(this.defaultPortSaveLocation));
     }
 
+    /**
+     * Saves a snapshot of the current state of the port simulation to the given file without
+     * waiting for it to be written.
+     * <p>
+     * The snapshot is taken immediately, see {@link Port#snapshot()}; it is then encoded and
+     * written on a background thread while the simulation continues, see
+     * {@link PortSnapshot#save(java.nio.file.Path)}. Saves are written one at a time, in the
+     * order they were requested.
+     *
+     * @param filename path of the file to save to
+     * @return future completed with the snapshot once it has been written, or exceptionally
+     * if writing failed
+     */
+    public CompletableFuture<PortSnapshot> saveInBackground(String filename) {
+        final PortSnapshot snapshot = port.snapshot();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                snapshot.save(Paths.get(filename));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return snapshot;
+        }, saveExecutor);
+    }
+
+    /**
+     * Saves a snapshot of the current state of the port simulation to the autosave file, the
+     * port file's path followed by {@link #AUTOSAVE_SUFFIX}, without waiting for it to be
+     * written.
+     * <p>
+     * This is called periodically while the simulation runs, see
+     * {@link #setAutosaveInterval(long, TimeUnit)}, and may also be called on demand.
+     *
+     * @return future completed with the snapshot once it has been written, or exceptionally
+     * if writing failed
+     */
+    public CompletableFuture<PortSnapshot> autosave() {
+        lastAutosave = System.nanoTime();
+        return saveInBackground(this.defaultPortSaveLocation + AUTOSAVE_SUFFIX);
+    }
+
+    /**
+     * Sets the real time between autosaves while the simulation runs. The next autosave is
+     * due one interval after the last.
+     *
+     * @param interval time between autosaves, or 0 to disable autosave
+     * @param unit     unit of the interval
+     * @throws IllegalArgumentException if interval &lt; 0
+     */
+    public void setAutosaveInterval(long interval, TimeUnit unit)
+            throws IllegalArgumentException {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Autosave interval must not be negative: "
+                    + interval);
+        }
+        this.autosaveInterval = unit.toNanos(interval);
+    }
+
     /**
      * Returns whether or not the state of the model has changed since it was last checked for a
      * change.
@@ -506,6 +766,56 @@ public class ViewModel {
         return cargoManifestText;
     }
 
+    /**
+     * Returns the containers shown in the cargo manifest list.
+     * <p>
+     * The list is read-only and holds the containers themselves, so a list view formats only
+     * the rows it displays.
+     *
+     * @return manifest rows
+     */
+    public ObservableList<Container> getManifestRows() {
+        return manifestRows;
+    }
+
+    /**
+     * Returns the options of the manifest destination filter: {@link #ALL_DESTINATIONS}
+     * followed by the destinations on the ship whose manifest was last dumped.
+     *
+     * @return destination filter options
+     */
+    public ObservableList<String> getManifestDestinations() {
+        return manifestDestinations;
+    }
+
+    /**
+     * Returns the options of the manifest container type filter: {@link #ALL_TYPES}
+     * followed by the name of each {@link ContainerType}.
+     *
+     * @return container type filter options
+     */
+    public ObservableList<String> getManifestTypes() {
+        return manifestTypes;
+    }
+
+    /**
+     * Returns the property storing the selected option of the manifest destination filter.
+     *
+     * @return destination filter property
+     */
+    public StringProperty getManifestDestination() {
+        return manifestDestination;
+    }
+
+    /**
+     * Returns the property storing the selected option of the manifest container type filter.
+     *
+     * @return container type filter property
+     */
+    public StringProperty getManifestType() {
+        return manifestType;
+    }
+
     /**
      * Returns the property storing the contents of the time info text box.
      *
@@ -598,4 +908,43 @@ public class ViewModel {
 
         alert.showAndWait();
     }
+
+    /**
+     * The rows of the cargo manifest list, read from an array that is replaced as a whole.
+     */
+    private static final class ManifestRows extends ObservableListBase<Container> {
+
+        /**
+         * The containers shown, never modified once shown.
+         */
+        private Container[] rows = new Container[0];
+
+        /**
+         * Replaces the containers shown and notifies listeners of the replacement.
+         *
+         * @param rows containers to show
+         */
+        private void setRows(Container[] rows) {
+            List<Container> removed = Arrays.asList(this.rows);
+            this.rows = rows;
+            beginChange();
+            if (!removed.isEmpty()) {
+                nextRemove(0, removed);
+            }
+            if (rows.length > 0) {
+                nextAdd(0, rows.length);
+            }
+            endChange();
+        }
+
+        @Override
+        public Container get(int index) {
+            return rows[index];
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package portsim.evaluators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility methods for capturing {@link MetricSnapshot}s from statistics evaluators.
+ * <p>
+ * Evaluators implementing {@link Reportable} describe themselves; the built-in evaluators
+ * are captured here so that the GUI and headless exporters share a single code path.
+ */
+public final class EvaluatorSnapshots {
+
+    /**
+     * Utility class, not to be instantiated.
+     */
+    private EvaluatorSnapshots() {
+    }
+
+    /**
+     * Returns a snapshot of the statistics currently held by the given evaluator.
+     * <p>
+     * An evaluator with no known statistics produces a snapshot containing only its name.
+     *
+     * @param evaluator evaluator to capture
+     * @return snapshot of the evaluator's statistics
+     */
+    public static MetricSnapshot snapshotOf(StatisticsEvaluator evaluator) {
+        if (evaluator instanceof Reportable) {
+            return ((Reportable) evaluator).getSnapshot();
+        }
+        MetricSnapshot.Builder builder = MetricSnapshot.builder(
+                evaluator.getClass().getSimpleName(), evaluator.getTime());
+        if (evaluator instanceof QuayOccupancyEvaluator) {
+            builder.value("quaysOccupied",
+                    ((QuayOccupancyEvaluator) evaluator).getQuaysOccupied(),
+                    "Quay(s) currently occupied");
+        } else if (evaluator instanceof ShipFlagEvaluator) {
+            for (Map.Entry<String, Integer> entry
+                    : ((ShipFlagEvaluator) evaluator).getFlagDistribution().entrySet()) {
+                builder.count(entry.getKey(), entry.getValue());
+            }
+        } else if (evaluator instanceof ShipThroughputEvaluator) {
+            builder.value("throughputPerHour",
+                    ((ShipThroughputEvaluator) evaluator).getThroughputPerHour(),
+                    "Ships passed in the last hour");
+        } else if (evaluator instanceof CargoDecompositionEvaluator) {
+            Map<String, Integer> distribution =
+                    ((CargoDecompositionEvaluator) evaluator).getCargoDistribution();
+            builder.count("Container", distribution.getOrDefault("Container", 0));
+            builder.count("BulkCargo", distribution.getOrDefault("BulkCargo", 0));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns snapshots of every given evaluator, in the same order.
+     *
+     * @param evaluators evaluators to capture
+     * @return list of snapshots
+     */
+    public static List<MetricSnapshot> snapshotsOf(List<StatisticsEvaluator> evaluators) {
+        List<MetricSnapshot> snapshots = new ArrayList<>(evaluators.size());
+        for (StatisticsEvaluator evaluator : evaluators) {
+            snapshots.add(snapshotOf(evaluator));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,301 @@
+package portsim.evaluators;
+
+import portsim.util.Encodable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * An immutable, typed snapshot of the statistics gathered by a single evaluator
+ * at a point in simulated time.
+ * <p>
+ * A snapshot only stores raw values; no text is produced until {@link #render()} or
+ * {@link #encode()} is called, so snapshots are cheap to take on every tick and may be
+ * compared with {@link #equals(Object)} to find out whether anything needs redrawing.
+ */
+public final class MetricSnapshot implements Encodable {
+
+    /**
+     * Simple class name of the evaluator that produced this snapshot.
+     */
+    private final String evaluatorName;
+
+    /**
+     * The simulation time at which this snapshot was taken, in minutes.
+     */
+    private final long time;
+
+    /**
+     * The metrics captured by this snapshot, in display order.
+     */
+    private final List<Metric> metrics;
+
+    /**
+     * Creates a new snapshot from the given builder.
+     *
+     * @param builder builder containing the snapshot contents
+     */
+    private MetricSnapshot(Builder builder) {
+        this.evaluatorName = builder.evaluatorName;
+        this.time = builder.time;
+        this.metrics = Collections.unmodifiableList(new ArrayList<>(builder.metrics));
+    }
+
+    /**
+     * Returns a builder for a snapshot of the given evaluator at the given time.
+     *
+     * @param evaluatorName simple class name of the evaluator
+     * @param time          simulation time of the snapshot, in minutes
+     * @return new snapshot builder
+     */
+    public static Builder builder(String evaluatorName, long time) {
+        return new Builder(evaluatorName, time);
+    }
+
+    /**
+     * Returns the simple class name of the evaluator that produced this snapshot.
+     *
+     * @return evaluator name
+     */
+    public String getEvaluatorName() {
+        return evaluatorName;
+    }
+
+    /**
+     * Returns the simulation time at which this snapshot was taken.
+     *
+     * @return time in minutes
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the metrics captured by this snapshot, in display order.
+     * <p>
+     * The returned list cannot be modified.
+     *
+     * @return snapshot metrics
+     */
+    public List<Metric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the human-readable representation of this snapshot.
+     * <p>
+     * The first line is the evaluator name, followed by one line per metric formatted
+     * according to that metric's pattern. Lines are separated by
+     * {@link System#lineSeparator()}.
+     *
+     * @return rendered snapshot text
+     */
+    public String render() {
+        StringJoiner lines = new StringJoiner(System.lineSeparator());
+        lines.add(evaluatorName);
+        for (Metric metric : metrics) {
+            lines.add(metric.format());
+        }
+        return lines.toString();
+    }
+
+    /**
+     * Returns true if and only if this snapshot is equal to the other given snapshot.
+     * <p>
+     * For two snapshots to be equal they must come from evaluators with the same name and
+     * contain equal metrics in the same order. The time of the snapshot is deliberately
+     * ignored so that an unchanged evaluator compares equal from one tick to the next.
+     *
+     * @param o other object to check equality
+     * @return true if equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MetricSnapshot other = (MetricSnapshot) o;
+        return evaluatorName.equals(other.evaluatorName) && metrics.equals(other.metrics);
+    }
+
+    /**
+     * Returns the hash code of this snapshot.
+     *
+     * @return hash code of this snapshot
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(evaluatorName, metrics);
+    }
+
+    /**
+     * Returns the machine-readable string representation of this snapshot.
+     * <p>
+     * The format of the string to return is
+     * <pre>MetricSnapshot:EvaluatorName:time:label=value,label=value,...</pre>
+     * For example: <pre>MetricSnapshot:ShipFlagEvaluator:120:Australia=4,Japan=1</pre>
+     *
+     * @return encoded string representation of this snapshot
+     */
+    @Override
+    public String encode() {
+        StringJoiner values = new StringJoiner(",");
+        for (Metric metric : metrics) {
+            values.add(metric.getLabel() + "=" + metric.getValue());
+        }
+        return String.format("%s:%s:%d:%s", getClass().getSimpleName(),
+                evaluatorName, time, values);
+    }
+
+    /**
+     * A single named value within a snapshot.
+     */
+    public static final class Metric {
+
+        /**
+         * The label identifying this metric within its snapshot.
+         */
+        private final String label;
+
+        /**
+         * The value of this metric.
+         */
+        private final long value;
+
+        /**
+         * Format pattern used to render this metric, given the label and value as the
+         * first and second arguments respectively.
+         */
+        private final String pattern;
+
+        /**
+         * Creates a new metric with the given label, value and display pattern.
+         *
+         * @param label   metric label
+         * @param value   metric value
+         * @param pattern format pattern taking the label and value as arguments
+         */
+        private Metric(String label, long value, String pattern) {
+            this.label = label;
+            this.value = value;
+            this.pattern = pattern;
+        }
+
+        /**
+         * Returns the label identifying this metric.
+         *
+         * @return metric label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Returns the value of this metric.
+         *
+         * @return metric value
+         */
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the human-readable representation of this metric.
+         *
+         * @return formatted metric
+         */
+        public String format() {
+            return String.format(pattern, label, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Metric other = (Metric) o;
+            return value == other.value && label.equals(other.label)
+                    && pattern.equals(other.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, value, pattern);
+        }
+    }
+
+    /**
+     * Builder used to assemble a snapshot one metric at a time.
+     */
+    public static final class Builder {
+
+        /**
+         * Simple class name of the evaluator being captured.
+         */
+        private final String evaluatorName;
+
+        /**
+         * The simulation time of the snapshot being built.
+         */
+        private final long time;
+
+        /**
+         * Metrics added so far, in display order.
+         */
+        private final List<Metric> metrics = new ArrayList<>();
+
+        /**
+         * Creates a new builder for the given evaluator and time.
+         *
+         * @param evaluatorName simple class name of the evaluator
+         * @param time          simulation time of the snapshot
+         */
+        private Builder(String evaluatorName, long time) {
+            this.evaluatorName = evaluatorName;
+            this.time = time;
+        }
+
+        /**
+         * Adds a metric rendered as {@code label : value}.
+         *
+         * @param label metric label
+         * @param value metric value
+         * @return this builder
+         */
+        public Builder count(String label, long value) {
+            metrics.add(new Metric(label, value, "%s : %d"));
+            return this;
+        }
+
+        /**
+         * Adds a metric rendered as its value followed by the given suffix.
+         *
+         * @param label  metric label, used when encoding
+         * @param value  metric value
+         * @param suffix text displayed after the value
+         * @return this builder
+         */
+        public Builder value(String label, long value, String suffix) {
+            metrics.add(new Metric(label, value, "%2$d " + suffix.replace("%", "%%")));
+            return this;
+        }
+
+        /**
+         * Creates the snapshot containing the metrics added so far.
+         *
+         * @return new snapshot
+         */
+        public MetricSnapshot build() {
+            return new MetricSnapshot(this);
+        }
+    }
+}
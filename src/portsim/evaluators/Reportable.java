@@ -0,0 +1,16 @@
+package portsim.evaluators;
+
+/**
+ * An evaluator that can describe its current statistics as a typed {@link MetricSnapshot}.
+ * <p>
+ * Evaluators implementing this interface are displayed and exported without the caller
+ * needing to know their concrete type.
+ */
+public interface Reportable {
+    /**
+     * Returns a snapshot of the statistics currently held by this evaluator.
+     *
+     * @return current statistics snapshot
+     */
+    MetricSnapshot getSnapshot();
+}
@@ -0,0 +1,42 @@
+package portsim.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count of events.
+ * <p>
+ * Counters are cheap to update from the simulation thread and safe to read from
+ * monitoring threads at the same time.
+ */
+public class Counter {
+
+    /**
+     * The running total of this counter.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Increments this counter by one.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Increments this counter by the given amount.
+     *
+     * @param amount amount to add, should not be negative
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Returns the current value of this counter.
+     *
+     * @return number of events counted
+     */
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,17 @@
+package portsim.metrics;
+
+/**
+ * A metric whose value is sampled on demand rather than recorded as events occur.
+ * <p>
+ * Gauges are only evaluated when a reporter or monitoring client asks for them, so they
+ * cost nothing while the simulation is running.
+ */
+@FunctionalInterface
+public interface Gauge {
+    /**
+     * Returns the current value of this gauge.
+     *
+     * @return sampled value
+     */
+    long getValue();
+}
@@ -0,0 +1,93 @@
+package portsim.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A named collection of counters, timers and gauges.
+ * <p>
+ * Metrics are created once, typically when the owning component is constructed, and then
+ * updated directly through the returned reference so that no lookup happens on the hot
+ * path. Metrics are kept in the order in which they were created.
+ */
+public class MetricRegistry {
+
+    /**
+     * The counters in this registry, keyed by name.
+     */
+    private final Map<String, Counter> counters = new LinkedHashMap<>();
+
+    /**
+     * The timers in this registry, keyed by name.
+     */
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+
+    /**
+     * The gauges in this registry, keyed by name.
+     */
+    private final Map<String, Gauge> gauges = new LinkedHashMap<>();
+
+    /**
+     * Returns the counter with the given name, creating it if it does not exist.
+     *
+     * @param name counter name
+     * @return counter with the given name
+     */
+    public synchronized Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the timer with the given name, creating it if it does not exist.
+     *
+     * @param name timer name
+     * @return timer with the given name
+     */
+    public synchronized Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Registers a gauge under the given name, replacing any gauge of the same name.
+     *
+     * @param name  gauge name
+     * @param gauge gauge to register
+     */
+    public synchronized void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Returns all counters in this registry, keyed by name.
+     * <p>
+     * The returned map cannot be modified.
+     *
+     * @return counters by name
+     */
+    public synchronized Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(counters));
+    }
+
+    /**
+     * Returns all timers in this registry, keyed by name.
+     * <p>
+     * The returned map cannot be modified.
+     *
+     * @return timers by name
+     */
+    public synchronized Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(timers));
+    }
+
+    /**
+     * Returns all gauges in this registry, keyed by name.
+     * <p>
+     * The returned map cannot be modified.
+     *
+     * @return gauges by name
+     */
+    public synchronized Map<String, Gauge> getGauges() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(gauges));
+    }
+}
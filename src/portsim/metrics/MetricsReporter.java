@@ -0,0 +1,18 @@
+package portsim.metrics;
+
+/**
+ * Receives the contents of a metric registry at regular intervals of simulated time.
+ * <p>
+ * Reporters are called on the simulation thread and should hand any slow work, such as
+ * network I/O, off to another thread.
+ */
+@FunctionalInterface
+public interface MetricsReporter {
+    /**
+     * Reports the current value of every metric in the given registry.
+     *
+     * @param time     simulation time at which the report was taken, in minutes
+     * @param registry registry containing the metrics to report
+     */
+    void report(long time, MetricRegistry registry);
+}
@@ -0,0 +1,50 @@
+package portsim.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * A reporter that prints every metric as a line of {@code name=value} pairs to a stream.
+ * <p>
+ * For example:
+ * <pre>time=120 port.tick.count=120 port.tick.totalNanos=81234 port.queue.length=3</pre>
+ */
+public class StreamReporter implements MetricsReporter {
+
+    /**
+     * The stream reports are printed to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Creates a new reporter that prints to the given stream.
+     *
+     * @param out stream to print reports to
+     */
+    public StreamReporter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void report(long time, MetricRegistry registry) {
+        StringBuilder line = new StringBuilder("time=").append(time);
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            line.append(' ').append(entry.getKey()).append('=')
+                    .append(entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            Timer timer = entry.getValue();
+            line.append(' ').append(entry.getKey()).append(".count=")
+                    .append(timer.getCount())
+                    .append(' ').append(entry.getKey()).append(".totalNanos=")
+                    .append(timer.getTotalNanos())
+                    .append(' ').append(entry.getKey()).append(".maxNanos=")
+                    .append(timer.getMaxNanos());
+        }
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            line.append(' ').append(entry.getKey()).append('=')
+                    .append(entry.getValue().getValue());
+        }
+        out.println(line);
+    }
+}
@@ -0,0 +1,78 @@
+package portsim.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the number and total duration of timed sections of code.
+ * <p>
+ * Durations are supplied by the caller in nanoseconds, typically measured with
+ * {@link System#nanoTime()}.
+ */
+public class Timer {
+
+    /**
+     * Number of durations recorded.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Sum of all durations recorded, in nanoseconds.
+     */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Longest duration recorded, in nanoseconds.
+     */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return number of recordings
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of all durations recorded.
+     *
+     * @return total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     *
+     * @return maximum time in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the mean duration recorded.
+     *
+     * @return mean time in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getMeanNanos() {
+        long recorded = getCount();
+        return recorded == 0 ? 0 : getTotalNanos() / recorded;
+    }
+}
@@ -1,10 +1,17 @@
 package portsim.movement;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * The movement of ships or cargo coming \n
  * into or out of the port from land or sea.
  */
 public abstract class Movement {
+    /**
+     * The sequence number given to the next movement to be scheduled.
+     */
+    private static final AtomicLong NEXT_SEQUENCE = new AtomicLong(1);
+
     /**
      * A number representing the movement time taken \n
      * for the ships or cargos coming out or into the port.
@@ -16,6 +23,12 @@ public abstract class Movement {
      */
     private final MovementDirection direction;
 
+    /**
+     * The order in which this movement was first scheduled \n
+     * relative to other movements, or 0 if it has not been scheduled.
+     */
+    private long sequence;
+
     /**
      * Constructs a new movement with the given action time and direction.
      *
@@ -46,6 +59,29 @@ public abstract class Movement {
         return direction;
     }
 
+    /**
+     * Returns the order in which this movement was first scheduled \n
+     * relative to other movements.
+     * Movements due at the same time are processed in this order.
+     *
+     * @return the sequence number of this movement, \n
+     * or 0 if it has not been scheduled.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gives this movement the next sequence number, \n
+     * unless it was already given one when it was scheduled before.
+     * Called when the movement is added to a port's schedule.
+     */
+    public void markScheduled() {
+        if (sequence == 0) {
+            sequence = NEXT_SEQUENCE.getAndIncrement();
+        }
+    }
+
     /**
      * Creates the string representation of this Movement.
      * The format of the string to return is
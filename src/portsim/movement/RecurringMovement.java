@@ -0,0 +1,202 @@
+package portsim.movement;
+
+import portsim.ship.Ship;
+import portsim.util.BadEncodingException;
+import portsim.util.Encodable;
+import portsim.util.NoSuchShipException;
+
+/**
+ * A template for a ship movement that repeats at a fixed period, such as a weekly liner
+ * service calling at the port.
+ * <p>
+ * Rather than storing every occurrence up front, a recurring movement produces each
+ * concrete {@link ShipMovement} on demand through {@link #nextOccurrence(long)}.
+ */
+public class RecurringMovement implements Encodable {
+
+    /**
+     * The ship undertaking every occurrence of this movement.
+     */
+    private final Ship ship;
+
+    /**
+     * The direction of every occurrence of this movement.
+     */
+    private final MovementDirection direction;
+
+    /**
+     * The time of the first occurrence, in minutes.
+     */
+    private final long start;
+
+    /**
+     * The number of minutes between consecutive occurrences.
+     */
+    private final long period;
+
+    /**
+     * The latest time at which an occurrence may take place, in minutes.
+     */
+    private final long end;
+
+    /**
+     * Creates a new recurring movement.
+     *
+     * @param ship      ship undertaking each occurrence
+     * @param direction direction of each occurrence
+     * @param start     time of the first occurrence
+     * @param period    minutes between occurrences
+     * @param end       latest time an occurrence may take place
+     * @throws IllegalArgumentException if start &lt; 0, period &lt; 1 or end &lt; start
+     */
+    public RecurringMovement(Ship ship, MovementDirection direction, long start,
+                             long period, long end) throws IllegalArgumentException {
+        if (start < 0) {
+            throw new IllegalArgumentException("Start time must be greater than"
+                    + " or equal to 0: " + start);
+        }
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be at least 1: " + period);
+        }
+        if (end < start) {
+            throw new IllegalArgumentException("End time must not be before start time: "
+                    + end);
+        }
+        this.ship = ship;
+        this.direction = direction;
+        this.start = start;
+        this.period = period;
+        this.end = end;
+    }
+
+    /**
+     * Returns the ship undertaking every occurrence of this movement.
+     *
+     * @return ship
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * Returns the direction of every occurrence of this movement.
+     *
+     * @return direction
+     */
+    public MovementDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the time of the first occurrence.
+     *
+     * @return start time in minutes
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the number of minutes between consecutive occurrences.
+     *
+     * @return period in minutes
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the latest time at which an occurrence may take place.
+     *
+     * @return end time in minutes
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the first occurrence taking place at or after the given time.
+     *
+     * @param time earliest time of the occurrence, in minutes
+     * @return the occurrence, or null if there are no occurrences at or after that time
+     */
+    public ShipMovement nextOccurrence(long time) {
+        long occurrenceTime = start;
+        if (time > start) {
+            long periodsElapsed = (time - start + period - 1) / period;
+            occurrenceTime = start + periodsElapsed * period;
+        }
+        if (occurrenceTime > end) {
+            return null;
+        }
+        return new ShipMovement(occurrenceTime, direction, ship);
+    }
+
+    /**
+     * Returns the human-readable string representation of this RecurringMovement.
+     * <p>
+     * For example:
+     * <pre>INBOUND every 10080 minutes from 0 to 525600 involving the ship Glorious</pre>
+     *
+     * @return string representation of this RecurringMovement
+     */
+    @Override
+    public String toString() {
+        return String.format("%s every %d minutes from %d to %d involving the ship %s",
+                direction, period, start, end, ship.getName());
+    }
+
+    /**
+     * Returns the machine-readable string representation of this RecurringMovement.
+     * <p>
+     * The format of the string to return is
+     * <pre>RecurringMovement:start:period:end:DIRECTION:imoNumber</pre>
+     * For example: <pre>RecurringMovement:0:10080:525600:INBOUND:1234567</pre>
+     *
+     * @return encoded string representation of this RecurringMovement
+     */
+    @Override
+    public String encode() {
+        return String.format("%s:%d:%d:%d:%s:%d", getClass().getSimpleName(), start,
+                period, end, direction, ship.getImoNumber());
+    }
+
+    /**
+     * Creates a recurring movement from a string encoding.
+     * <p>
+     * The format of the string should match the encoded representation of a recurring
+     * movement, as described in {@link #encode()}.
+     * <p>
+     * The encoded string is invalid if any of the following conditions are true:
+     * <ul>
+     *     <li>The number of colons (:) detected was more/fewer than expected.</li>
+     *     <li>The string does not start with the literal string "RecurringMovement"</li>
+     *     <li>The start, period or end times are not valid longs, or are rejected by the
+     *     constructor.</li>
+     *     <li>The direction is not one of the valid directions.</li>
+     *     <li>The imoNumber does not correspond to a valid ship in the simulation.</li>
+     * </ul>
+     *
+     * @param string string containing the encoded RecurringMovement
+     * @return decoded recurring movement instance
+     * @throws BadEncodingException if the format of the given string is invalid
+     *                              according to the rules above
+     */
+    public static RecurringMovement fromString(String string) throws BadEncodingException {
+        String[] parts = string.split(":", -1);
+        if (parts.length != 6
+                || !parts[0].equals(RecurringMovement.class.getSimpleName())) {
+            throw new BadEncodingException("Invalid recurring movement: " + string);
+        }
+        try {
+            return new RecurringMovement(
+                    Ship.getShipByImoNumber(Long.parseLong(parts[5])),
+                    MovementDirection.valueOf(parts[4]),
+                    Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | NoSuchShipException e) {
+            throw new BadEncodingException("Invalid recurring movement: " + string, e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package portsim.port;
+
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recommends which waiting ships to dock at which free quays by simulating alternatives.
+ * <p>
+ * The port docks ships greedily: every ten minutes, each queued ship takes the first free
+ * quay it can dock at. The optimiser instead builds a set of candidate assignments of
+ * queued ships to the quays that are free now, simulates each candidate forward over a
+ * fixed horizon on a detached {@link Port#fork() fork} of the port, and recommends the
+ * candidate that leaves ships waiting in the queue for the fewest total minutes. A ship
+ * is waiting while it is queued, not docked and has not departed.
+ * <p>
+ * Candidates are built by a beam search over the ship queue, keeping only the
+ * {@code beamWidth} partial assignments that dock the most ships. The greedy assignment
+ * is always simulated first, so the recommendation is never worse than what the port
+ * would do on its own. The remaining candidates are simulated in parallel; a candidate is
+ * abandoned as soon as its waiting time exceeds that of the best complete candidate, or
+ * when the time budget runs out.
+ * <p>
+ * The time budget covers every simulation, the greedy one included. If it runs out
+ * before the greedy candidate completes, the greedy assignment is recommended with the
+ * waiting time it reached, and no other candidate is simulated.
+ * <p>
+ * The port must not be advanced while {@link #optimise(Port)} is running.
+ */
+public class BerthOptimiser {
+
+    /**
+     * The number of minutes each candidate is simulated for.
+     */
+    private final int horizon;
+
+    /**
+     * The maximum number of candidates kept at each step of the beam search.
+     */
+    private final int beamWidth;
+
+    /**
+     * The wall-clock time allowed for each call to {@link #optimise(Port)}, in nanoseconds.
+     */
+    private final long budgetNanos;
+
+    /**
+     * The executor candidates are simulated on.
+     */
+    private final Executor executor;
+
+    /**
+     * Creates a new optimiser that simulates candidates on the common fork-join pool.
+     *
+     * @param horizon     minutes to simulate each candidate for
+     * @param beamWidth   maximum number of candidates
+     * @param budgetNanos wall-clock time allowed for each optimisation, in nanoseconds
+     * @throws IllegalArgumentException if horizon, beamWidth or budgetNanos &lt; 1
+     */
+    public BerthOptimiser(int horizon, int beamWidth, long budgetNanos)
+            throws IllegalArgumentException {
+        this(horizon, beamWidth, budgetNanos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new optimiser.
+     *
+     * @param horizon     minutes to simulate each candidate for
+     * @param beamWidth   maximum number of candidates
+     * @param budgetNanos wall-clock time allowed for each optimisation, in nanoseconds
+     * @param executor    executor to simulate candidates on
+     * @throws IllegalArgumentException if horizon, beamWidth or budgetNanos &lt; 1
+     */
+    public BerthOptimiser(int horizon, int beamWidth, long budgetNanos, Executor executor)
+            throws IllegalArgumentException {
+        if (horizon < 1 || beamWidth < 1 || budgetNanos < 1) {
+            throw new IllegalArgumentException("Horizon, beam width and budget must be "
+                    + "at least 1");
+        }
+        this.horizon = horizon;
+        this.beamWidth = beamWidth;
+        this.budgetNanos = budgetNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * Recommends an assignment of the given port's queued ships to its free quays.
+     *
+     * @param port port to optimise
+     * @return recommended plan
+     */
+    public BerthPlan optimise(Port port) {
+        final long deadline = System.nanoTime() + budgetNanos;
+        List<Map<Integer, Ship>> candidates = candidates(port);
+        Port base = port.fork();
+
+        /* The greedy plan is returned even if the budget cuts its simulation short */
+        final long[] greedyScore = new long[1];
+        if (simulate(base.fork(), candidates.get(0), new AtomicLong(Long.MAX_VALUE),
+                deadline, greedyScore) < 0) {
+            return new BerthPlan(candidates.get(0), greedyScore[0], 0, 1);
+        }
+        final long greedyWaiting = greedyScore[0];
+        final AtomicLong bestWaiting = new AtomicLong(greedyWaiting);
+        final AtomicInteger evaluated = new AtomicInteger(1);
+        final AtomicInteger pruned = new AtomicInteger();
+
+        List<CompletableFuture<Long>> results = new ArrayList<>();
+        for (int i = 1; i < candidates.size(); i++) {
+            final Map<Integer, Ship> candidate = candidates.get(i);
+            final Port fork = base.fork();
+            results.add(CompletableFuture.supplyAsync(() -> {
+                long waiting = simulate(fork, candidate, bestWaiting, deadline, null);
+                if (waiting < 0) {
+                    pruned.incrementAndGet();
+                } else {
+                    evaluated.incrementAndGet();
+                    bestWaiting.accumulateAndGet(waiting, Math::min);
+                }
+                return waiting;
+            }, executor));
+        }
+        Map<Integer, Ship> bestPlan = candidates.get(0);
+        long chosenWaiting = greedyWaiting;
+        for (int i = 0; i < results.size(); i++) {
+            long waiting = results.get(i).join();
+            if (waiting >= 0 && waiting < chosenWaiting) {
+                chosenWaiting = waiting;
+                bestPlan = candidates.get(i + 1);
+            }
+        }
+        return new BerthPlan(bestPlan, chosenWaiting, evaluated.get(), pruned.get());
+    }
+
+    /**
+     * Builds the candidate assignments for the given port, greedy assignment first.
+     *
+     * @param port port to build candidates for
+     * @return distinct candidate assignments, each keyed by quay ID
+     */
+    List<Map<Integer, Ship>> candidates(Port port) {
+        List<Quay> freeQuays = new ArrayList<>();
+        for (Quay quay : port.getQuays()) {
+            if (quay.isEmpty()) {
+                freeQuays.add(quay);
+            }
+        }
+        List<Ship> ships = port.getShipQueue().getShipQueue();
+        /* Only ships that are queued, not docked and have not departed are assigned */
+        Set<Ship> notWaiting = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Quay quay : port.getQuays()) {
+            if (!quay.isEmpty()) {
+                notWaiting.add(quay.getShip());
+            }
+        }
+        notWaiting.addAll(port.getDepartedShips());
+
+        List<Map<Integer, Ship>> beam = new ArrayList<>();
+        beam.add(new LinkedHashMap<>());
+        for (Ship ship : ships) {
+            if (notWaiting.contains(ship)) {
+                continue;
+            }
+            List<Map<Integer, Ship>> next = new ArrayList<>();
+            for (Map<Integer, Ship> partial : beam) {
+                /* Expanding with the first free quay first keeps the greedy plan at the
+                 * front of the beam */
+                for (Quay quay : freeQuays) {
+                    if (!partial.containsKey(quay.getId()) && ship.canDock(quay)) {
+                        Map<Integer, Ship> extended = new LinkedHashMap<>(partial);
+                        extended.put(quay.getId(), ship);
+                        next.add(extended);
+                    }
+                }
+                next.add(partial);
+            }
+            /* Keep the partial assignments docking the most ships, stable for ties */
+            next.sort((a, b) -> Integer.compare(b.size(), a.size()));
+            beam = next.subList(0, Math.min(beamWidth, next.size()));
+        }
+
+        List<Map<Integer, Ship>> candidates = new ArrayList<>();
+        Set<Map<Integer, Ship>> seen = new HashSet<>();
+        Map<Integer, Ship> greedy = greedy(freeQuays, ships, notWaiting);
+        candidates.add(greedy);
+        seen.add(greedy);
+        for (Map<Integer, Ship> candidate : beam) {
+            if (seen.add(candidate)) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    /* The assignment the port would make itself: each ship takes the first free quay */
+    private static Map<Integer, Ship> greedy(List<Quay> freeQuays, List<Ship> ships,
+                                             Set<Ship> notWaiting) {
+        Map<Integer, Ship> assignment = new LinkedHashMap<>();
+        for (Ship ship : ships) {
+            if (notWaiting.contains(ship)) {
+                continue;
+            }
+            for (Quay quay : freeQuays) {
+                if (!assignment.containsKey(quay.getId()) && ship.canDock(quay)) {
+                    assignment.put(quay.getId(), ship);
+                    break;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Applies the given assignment to the fork and simulates it over the horizon.
+     *
+     * @param fork     detached port to simulate on
+     * @param plan     ship to dock at each quay, keyed by quay ID
+     * @param bound    waiting minutes of the best complete candidate so far; the
+     *                 candidate is abandoned once it waits longer
+     * @param deadline System.nanoTime() after which the candidate is abandoned
+     * @param reached  if not null, receives the ship-minutes spent waiting up to the
+     *                 point the simulation completed or was abandoned
+     * @return ship-minutes spent waiting in the queue, or -1 if abandoned
+     */
+    private long simulate(Port fork, Map<Integer, Ship> plan, AtomicLong bound,
+                          long deadline, long[] reached) {
+        for (Quay quay : fork.getQuays()) {
+            Ship ship = plan.get(quay.getId());
+            if (ship != null) {
+                fork.dockShip(quay, ship);
+            }
+        }
+        List<Quay> quays = fork.getQuayView();
+        List<Ship> queue = fork.getShipQueue().getShipQueueView();
+        List<Ship> departures = fork.getDepartedShips();
+        Set<Ship> departed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Ship> docked = Collections.newSetFromMap(new IdentityHashMap<>());
+        int seenDepartures = 0;
+        long waiting = 0;
+        for (int minute = 0; minute < horizon; minute++) {
+            fork.elapseOneMinute();
+            /* Departures are only ever appended, so only the new ones are added */
+            for (; seenDepartures < departures.size(); seenDepartures++) {
+                departed.add(departures.get(seenDepartures));
+            }
+            docked.clear();
+            for (int i = 0; i < quays.size(); i++) {
+                Quay quay = quays.get(i);
+                if (!quay.isEmpty()) {
+                    docked.add(quay.getShip());
+                }
+            }
+            for (int i = 0; i < queue.size(); i++) {
+                Ship ship = queue.get(i);
+                if (!docked.contains(ship) && !departed.contains(ship)) {
+                    waiting++;
+                }
+            }
+            if (reached != null) {
+                reached[0] = waiting;
+            }
+            if (waiting > bound.get() || System.nanoTime() > deadline) {
+                return -1;
+            }
+        }
+        return waiting;
+    }
+}
@@ -0,0 +1,130 @@
+package portsim.port;
+
+import portsim.ship.Ship;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An assignment of waiting ships to free quays recommended by a {@link BerthOptimiser}.
+ */
+public class BerthPlan {
+
+    /**
+     * The ship to dock at each quay, keyed by quay ID.
+     */
+    private final Map<Integer, Ship> assignments;
+
+    /**
+     * The total number of minutes ships spent waiting in the queue over the optimiser's
+     * horizon when this plan was followed.
+     */
+    private final long waitingMinutes;
+
+    /**
+     * The number of candidate plans simulated to the end of the horizon.
+     */
+    private final int evaluated;
+
+    /**
+     * The number of candidate plans abandoned because they could not beat the best plan,
+     * or because the time budget ran out.
+     */
+    private final int pruned;
+
+    /**
+     * Creates a new plan.
+     *
+     * @param assignments    ship to dock at each quay, keyed by quay ID
+     * @param waitingMinutes ship-minutes spent waiting over the horizon
+     * @param evaluated      number of candidates simulated to the end of the horizon
+     * @param pruned         number of candidates abandoned
+     */
+    BerthPlan(Map<Integer, Ship> assignments, long waitingMinutes, int evaluated,
+              int pruned) {
+        this.assignments = Collections.unmodifiableMap(new LinkedHashMap<>(assignments));
+        this.waitingMinutes = waitingMinutes;
+        this.evaluated = evaluated;
+        this.pruned = pruned;
+    }
+
+    /**
+     * Returns the ship to dock at each quay, keyed by quay ID.
+     * <p>
+     * The returned map cannot be modified.
+     *
+     * @return assignments
+     */
+    public Map<Integer, Ship> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Returns the total number of minutes ships spent waiting in the queue over the
+     * optimiser's horizon when this plan was followed.
+     * <p>
+     * If the time budget ran out before any plan was simulated to the end of the horizon,
+     * this is the greedy plan, and the count only covers the minutes simulated.
+     *
+     * @return waiting ship-minutes
+     */
+    public long getWaitingMinutes() {
+        return waitingMinutes;
+    }
+
+    /**
+     * Returns the number of candidate plans simulated to the end of the horizon.
+     *
+     * @return evaluated candidates
+     */
+    public int getEvaluated() {
+        return evaluated;
+    }
+
+    /**
+     * Returns the number of candidate plans abandoned before the end of the horizon.
+     *
+     * @return pruned candidates
+     */
+    public int getPruned() {
+        return pruned;
+    }
+
+    /**
+     * Docks each assigned ship at its quay in the given port, as if the port had docked
+     * it itself.
+     * <p>
+     * Assignments whose quay no longer exists, is no longer empty, or cannot take the
+     * ship are skipped.
+     *
+     * @param port port to apply the plan to
+     * @return number of ships docked
+     */
+    public int apply(Port port) {
+        int docked = 0;
+        for (Quay quay : port.getQuays()) {
+            Ship ship = assignments.get(quay.getId());
+            if (ship != null && quay.isEmpty() && ship.canDock(quay)) {
+                port.dockShip(quay, ship);
+                docked++;
+            }
+        }
+        return docked;
+    }
+
+    /**
+     * Returns the human-readable string representation of this BerthPlan.
+     * <p>
+     * For example:
+     * <pre>BerthPlan: 3 ships assigned, 1250 waiting minutes (18 evaluated, 6 pruned)</pre>
+     *
+     * @return string representation of this BerthPlan
+     */
+    @Override
+    public String toString() {
+        return String.format("BerthPlan: %d ships assigned, %d waiting minutes "
+                + "(%d evaluated, %d pruned)", assignments.size(), waitingMinutes,
+                evaluated, pruned);
+    }
+}
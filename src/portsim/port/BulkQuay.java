@@ -42,6 +42,18 @@ public class BulkQuay extends Quay implements Encodable {
         return maxTonnage;
     }
 
+    /**
+     * Returns a new BulkQuay with the same ID, max tonnage and docked ship as this quay.
+     *
+     * @return copy of this quay
+     */
+    @Override
+    public BulkQuay copy() {
+        BulkQuay copy = new BulkQuay(getId(), maxTonnage);
+        copy.shipArrives(getShip());
+        return copy;
+    }
+
     /**
      * Returns the human-readable string representation of this BulkQuay.
      * <p>
@@ -41,6 +41,19 @@ public class ContainerQuay extends Quay implements Encodable {
         return maxContainers;
     }
 
+    /**
+     * Returns a new ContainerQuay with the same ID, max containers and docked ship as this
+     * quay.
+     *
+     * @return copy of this quay
+     */
+    @Override
+    public ContainerQuay copy() {
+        ContainerQuay copy = new ContainerQuay(getId(), maxContainers);
+        copy.shipArrives(getShip());
+        return copy;
+    }
+
     /**
      * Returns the human-readable string representation of this ContainerQuay.
      * <p>
@@ -0,0 +1,250 @@
+package portsim.port;
+
+import portsim.metrics.Counter;
+import portsim.movement.Movement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free buffer of movements submitted to a {@link Port} by feed threads.
+ * <p>
+ * Each feed obtains a {@link Producer} and may submit movements from any thread at any
+ * time without blocking the simulation. At the start of every tick the port drains the
+ * buffer into its movement schedule. Drained movements are ordered by action time, then
+ * by the order their producers were created, then by the order each producer submitted
+ * them, and the port processes movements due at the same minute in the order they were
+ * scheduled.
+ * <p>
+ * The order is therefore identical across runs for the movements drained at the same
+ * tick, regardless of how the feed threads were interleaved. Which tick a submission is
+ * drained at depends on when its thread submitted it, so movements due at the same minute
+ * but drained at different ticks are processed in the order they were drained.
+ * <p>
+ * Movements whose action time has already been processed when they are drained, including
+ * those for the port's current minute, are rejected and counted by {@link #getRejected()}.
+ */
+public class MovementIntake {
+
+    /**
+     * Order in which drained movements are added to the schedule.
+     */
+    private static final Comparator<Submission> DRAIN_ORDER =
+            Comparator.comparingLong((Submission s) -> s.movement.getTime())
+                    .thenComparingInt(s -> s.producerId)
+                    .thenComparingLong(s -> s.sequence);
+
+    /**
+     * Movements submitted since the last drain.
+     */
+    private final Queue<Submission> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Identifier given to the next producer created.
+     */
+    private final AtomicInteger nextProducerId = new AtomicInteger();
+
+    /**
+     * Number of movements submitted by all producers.
+     */
+    private final Counter submitted = new Counter();
+
+    /**
+     * Number of drained movements added to the schedule.
+     */
+    private final Counter accepted = new Counter();
+
+    /**
+     * Number of drained movements rejected because their action time had passed.
+     */
+    private final Counter rejected = new Counter();
+
+    /**
+     * Creates a new producer that submits movements to this intake.
+     *
+     * @param name name of the feed, used for diagnostics
+     * @return new producer
+     */
+    public Producer newProducer(String name) {
+        return new Producer(this, name, nextProducerId.getAndIncrement());
+    }
+
+    /**
+     * Returns true if no movements have been submitted since the last drain.
+     *
+     * @return true if the intake is empty
+     */
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Returns the number of movements submitted by all producers.
+     *
+     * @return submitted movements
+     */
+    public long getSubmitted() {
+        return submitted.getCount();
+    }
+
+    /**
+     * Returns the number of drained movements that were added to the schedule.
+     *
+     * @return accepted movements
+     */
+    public long getAccepted() {
+        return accepted.getCount();
+    }
+
+    /**
+     * Returns the number of drained movements rejected because their action time had
+     * already passed.
+     *
+     * @return rejected movements
+     */
+    public long getRejected() {
+        return rejected.getCount();
+    }
+
+    /**
+     * Removes every movement submitted so far and returns those that may still be
+     * scheduled, in deterministic order.
+     * <p>
+     * Should only be called from the simulation thread. Movements submitted while the
+     * intake is being drained are either included or left for the next drain.
+     *
+     * @param time earliest time a movement can still be processed at; movements before it
+     *             are rejected
+     * @return accepted movements ordered by time, producer and submission order
+     */
+    List<Movement> drain(long time) {
+        List<Submission> submissions = new ArrayList<>();
+        Submission submission;
+        while ((submission = pending.poll()) != null) {
+            submissions.add(submission);
+        }
+        submissions.sort(DRAIN_ORDER);
+        List<Movement> movements = new ArrayList<>(submissions.size());
+        for (Submission drained : submissions) {
+            if (drained.movement.getTime() < time) {
+                rejected.increment();
+            } else {
+                movements.add(drained.movement);
+            }
+        }
+        accepted.add(movements.size());
+        return movements;
+    }
+
+    /**
+     * A handle through which one feed submits movements to the intake.
+     * <p>
+     * A producer may be shared between threads, although submissions from different
+     * threads through the same producer are only ordered by when they were submitted.
+     */
+    public static final class Producer {
+
+        /**
+         * The intake movements are submitted to.
+         */
+        private final MovementIntake intake;
+
+        /**
+         * Name of the feed.
+         */
+        private final String name;
+
+        /**
+         * Order in which this producer was created, used to break ties between producers.
+         */
+        private final int id;
+
+        /**
+         * Sequence number given to the next movement submitted.
+         */
+        private final AtomicLong nextSequence = new AtomicLong();
+
+        /**
+         * Creates a new producer.
+         *
+         * @param intake intake to submit to
+         * @param name   name of the feed
+         * @param id     order in which this producer was created
+         */
+        private Producer(MovementIntake intake, String name, int id) {
+            this.intake = intake;
+            this.name = name;
+            this.id = id;
+        }
+
+        /**
+         * Returns the name of the feed.
+         *
+         * @return feed name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Submits a movement to be added to the port's schedule at the start of the next
+         * tick. Never blocks.
+         *
+         * @param movement movement to submit
+         */
+        public void submit(Movement movement) {
+            intake.pending.add(new Submission(movement, id,
+                    nextSequence.getAndIncrement()));
+            intake.submitted.increment();
+        }
+
+        /**
+         * Returns the human-readable string representation of this producer.
+         *
+         * @return string representation of this producer
+         */
+        @Override
+        public String toString() {
+            return String.format("Producer %d (%s)", id, name);
+        }
+    }
+
+    /**
+     * A movement together with where it was submitted from.
+     */
+    private static final class Submission {
+
+        /**
+         * The movement submitted.
+         */
+        private final Movement movement;
+
+        /**
+         * Identifier of the producer that submitted the movement.
+         */
+        private final int producerId;
+
+        /**
+         * Position of the movement among those submitted by the same producer.
+         */
+        private final long sequence;
+
+        /**
+         * Creates a new submission.
+         *
+         * @param movement   movement submitted
+         * @param producerId identifier of the submitting producer
+         * @param sequence   position among that producer's submissions
+         */
+        private Submission(Movement movement, int producerId, long sequence) {
+            this.movement = movement;
+            this.producerId = producerId;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package portsim.port;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event emitted for each movement handled by
+ * {@link Port#processMovement(portsim.movement.Movement)}.
+ * <p>
+ * Events are only created while a recording has this event enabled.
+ */
+@Name("portsim.MovementProcessed")
+@Label("Movement Processed")
+@Category({"Port Simulation"})
+@Description("A ship or cargo movement applied to the port")
+@StackTrace(false)
+@Threshold("100 us")
+class MovementProcessedEvent extends Event {
+
+    /**
+     * The registered type of this event, used to check whether it is enabled.
+     */
+    private static final EventType TYPE =
+            EventType.getEventType(MovementProcessedEvent.class);
+
+    /**
+     * The simple class name of the movement.
+     */
+    @Label("Movement Type")
+    String movementType;
+
+    /**
+     * The direction of the movement.
+     */
+    @Label("Direction")
+    String direction;
+
+    /**
+     * The simulation time at which the movement was scheduled.
+     */
+    @Label("Simulation Time")
+    @Description("Minutes since the simulation started")
+    long simulationTime;
+
+    /**
+     * Number of pieces of cargo moved; 0 for ship movements.
+     */
+    @Label("Cargo Count")
+    int cargoCount;
+
+    /**
+     * Starts timing a movement if this event is enabled in any recording.
+     *
+     * @return the started event, or null if the event is disabled
+     */
+    static MovementProcessedEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        MovementProcessedEvent event = new MovementProcessedEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a movement and commits the event if it passes the threshold.
+     *
+     * @param event          event returned by {@link #start()}, may be null
+     * @param movementType   simple class name of the movement
+     * @param direction      direction of the movement
+     * @param simulationTime time at which the movement was scheduled
+     * @param cargoCount     number of pieces of cargo moved
+     */
+    static void finish(MovementProcessedEvent event, String movementType, String direction,
+                       long simulationTime, int cargoCount) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.movementType = movementType;
+            event.direction = direction;
+            event.simulationTime = simulationTime;
+            event.cargoCount = cargoCount;
+            event.commit();
+        }
+    }
+}
@@ -7,12 +7,17 @@ import portsim.evaluators.*;
 import portsim.movement.CargoMovement;
 import portsim.movement.Movement;
 import portsim.movement.MovementDirection;
+import portsim.movement.RecurringMovement;
 import portsim.movement.ShipMovement;
 import portsim.ship.BulkCarrier;
 import portsim.ship.ContainerShip;
 import portsim.ship.Ship;
 import portsim.util.BadEncodingException;
 import portsim.util.Encodable;
+import portsim.util.ForkableList;
+import portsim.util.ListView;
+import portsim.util.Tickable;
+import portsim.util.TimingWheel;
 
 
 import java.io.BufferedReader;
@@ -42,7 +47,30 @@ public class Port implements Encodable {
      * The cargo currently stored at the port at warehouses. Cargo unloaded from
      * trucks / ships
      */
-    private List<Cargo> storedCargo;
+    private Warehouse storedCargo;
+
+    /**
+     * Containers this port removed from the cargo registry when it unloaded them, in the
+     * order they were removed. They may still be stored at the port or carried by ships,
+     * so they are encoded with the port.
+     */
+    private ForkableList<Cargo> unregisteredCargo = new ForkableList<>();
+
+    /**
+     * Ships that departed from a quay, in the order they departed. Ships are never
+     * removed from the ship queue, so this tells departed ships apart from waiting ones.
+     */
+    private ForkableList<Ship> departedShips = new ForkableList<>();
+
+    /**
+     * Read-only view of the quays, returned by {@link #getQuayView()}.
+     */
+    private final List<Quay> quayView = new ListView<>(() -> this.quays);
+
+    /**
+     * Read-only view of the stored cargo, returned by {@link #getCargoView()}.
+     */
+    private final List<Cargo> cargoView = new ListView<>(() -> this.storedCargo);
 
     /**
      * The list of evaluators at the port.
@@ -57,13 +85,92 @@ public class Port implements Encodable {
     /**
      * The time since simulation started.
      */
-    private Long time;
+    private long time;
 
     /**
      * The shipQueue of the port.
      */
     private ShipQueue shipQueue = new ShipQueue();
 
+    /**
+     * The metrics describing the work done by this port.
+     */
+    private final PortMetrics metrics = new PortMetrics(this);
+
+    /**
+     * The journal every change to this port is written to, or null if not journaling.
+     */
+    private PortJournal journal;
+
+    /**
+     * Whether this port is a fork that must not change the ships or cargo registry it
+     * shares with the port it was forked from.
+     */
+    private boolean detached;
+
+    /**
+     * The history states of this port are recorded to, or null if not recording.
+     */
+    private PortHistory history;
+
+    /**
+     * Bitwise combination of the {@link PortHistory} component flags that changed since
+     * the last state was recorded.
+     */
+    private int historyChanges;
+
+    /**
+     * Bus this port publishes a typed event on for each change it makes.
+     */
+    private final PortEventBus eventBus = new PortEventBus();
+
+    /**
+     * Ring buffer this port writes its events into for asynchronous handlers, or null.
+     */
+    private PortEventRing eventRing;
+
+    /**
+     * Timing wheel running the periodic docking and unloading phases.
+     */
+    private TimingWheel phaseWheel;
+
+    /**
+     * Timing wheel running the components registered with {@link #schedule}.
+     */
+    private TimingWheel componentWheel;
+
+    /**
+     * Buffer of movements submitted by feed threads, drained at the start of each tick.
+     */
+    private final MovementIntake movementIntake = new MovementIntake();
+
+    /**
+     * Encoding of each registered ship as of the last {@link #snapshot()}, reused by the
+     * next snapshot if the ship's cargo has not changed since.
+     */
+    private Map<Ship, EncodedShip> encodedShips = new IdentityHashMap<>();
+
+    /**
+     * Orders movements by their time, then by the order they were scheduled, so movements
+     * due at the same time are processed in a deterministic order. Compares without
+     * boxing, since every processed movement is polled from the queue.
+     */
+    private static final Comparator<Movement> MOVEMENT_ORDER =
+            Comparator.comparingLong(Movement::getTime)
+                    .thenComparingLong(Movement::getSequence);
+
+    /**
+     * The recurring movements scheduled at this port, in the order they were added.
+     */
+    private final List<RecurringMovement> recurringMovements = new ArrayList<>();
+
+    /**
+     * The next pending occurrence of each recurring movement, mapped to the recurring
+     * movement that generated it.
+     */
+    private final Map<Movement, RecurringMovement> pendingOccurrences =
+            new IdentityHashMap<>();
+
     /**
      * Creates a new port with the given name.
      * <p>
@@ -83,10 +190,10 @@ public class Port implements Encodable {
     public Port(String name) {
         this.name = name;
         this.time = (long) 0;
-        this.storedCargo = new ArrayList<>();
-        this.priorityQueue = new PriorityQueue<>(Comparator.comparing(
-                Movement::getTime));
+        this.storedCargo = new Warehouse();
+        this.priorityQueue = new PriorityQueue<>(MOVEMENT_ORDER);
         this.statisticsEvaluators = new ArrayList<>();
+        this.initialiseWheels();
     }
 
     /**
@@ -110,9 +217,8 @@ public class Port implements Encodable {
         this.name = name;
         this.time = time;
         this.quays = quays;
-        this.storedCargo = storedCargo;
-        this.priorityQueue = new PriorityQueue<Movement>(
-                Comparator.comparing(Movement::getTime));
+        this.storedCargo = new Warehouse(storedCargo);
+        this.priorityQueue = new PriorityQueue<Movement>(MOVEMENT_ORDER);
         this.shipQueue = shipQueue;
         this.statisticsEvaluators = new ArrayList<>();
         if (this.time < 0) {
@@ -120,6 +226,7 @@ public class Port implements Encodable {
                     + "start must be greater than"
                     + " or equal to 0: " + this.getTime());
         }
+        this.initialiseWheels();
     }
 
     /**
@@ -161,6 +268,315 @@ public class Port implements Encodable {
         return new ArrayList<>(this.storedCargo);
     }
 
+    /**
+     * Returns a read-only view of the quays associated with this port.
+     * <p>
+     * Unlike {@link #getQuays()}, this does not copy the quays. The view reflects quays
+     * added later, and reading it by index or with {@link List#forEach} does not
+     * allocate.
+     *
+     * @return read-only view of the quays
+     */
+    public List<Quay> getQuayView() {
+        return this.quayView;
+    }
+
+    /**
+     * Returns a read-only view of the cargo stored in warehouses at this port.
+     * <p>
+     * Unlike {@link #getCargo()}, this does not copy the cargo. The view reflects later
+     * changes to the stored cargo, and reading it by index or with {@link List#forEach}
+     * does not allocate.
+     *
+     * @return read-only view of the stored cargo
+     */
+    public List<Cargo> getCargoView() {
+        return this.cargoView;
+    }
+
+    /**
+     * Returns the number of quays associated with this port.
+     *
+     * @return quay count
+     */
+    public int getQuayCount() {
+        return this.quays.size();
+    }
+
+    /**
+     * Returns the number of pieces of cargo stored in warehouses at this port.
+     *
+     * @return stored cargo count
+     */
+    public int getStoredCargoCount() {
+        return this.storedCargo.size();
+    }
+
+    /**
+     * Returns the number of quays at this port that have no ship docked.
+     *
+     * @return number of empty quays
+     */
+    int countFreeQuays() {
+        int free = 0;
+        for (int i = 0; i < this.quays.size(); i++) {
+            if (this.quays.get(i).isEmpty()) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Returns the metrics describing the work done by this port.
+     *
+     * @return port metrics
+     */
+    public PortMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the time since simulation started as tracked by the port itself.
+     *
+     * @return time in minutes
+     */
+    long currentTime() {
+        return this.time;
+    }
+
+    /**
+     * Sets the journal that every subsequent change to this port is written to.
+     * <p>
+     * Passing null stops journaling. The caller remains responsible for closing the journal.
+     *
+     * @param journal journal to write to, or null
+     */
+    public void setJournal(PortJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the journal this port is writing changes to.
+     *
+     * @return journal, or null if not journaling
+     */
+    public PortJournal getJournal() {
+        return journal;
+    }
+
+    /* Creates the timing wheels at the current time and registers the periodic phases */
+    private void initialiseWheels() {
+        this.phaseWheel = new TimingWheel(this.time);
+        this.phaseWheel.schedule(this::dockWaitingShips, 10, 0);
+        this.phaseWheel.schedule(this::unloadDockedShips, 10, 5);
+        this.componentWheel = new TimingWheel(this.time);
+    }
+
+    /**
+     * Registers a component to be called every {@code period} minutes, on each minute
+     * that is a multiple of the period plus the offset.
+     * <p>
+     * Registered components are called in the order they were registered, after the
+     * statistics evaluators, on the minutes they are due. Minutes on which no component
+     * is due cost nothing, so idle components can be registered freely.
+     *
+     * @param component component to call
+     * @param period    minutes between calls
+     * @param offset    minute within the period at which the component is called
+     * @return registration that can be cancelled
+     * @throws IllegalArgumentException if period &lt; 1, or offset &lt; 0 or &gt;= period
+     */
+    public TimingWheel.Registration schedule(Tickable component, long period, long offset)
+            throws IllegalArgumentException {
+        return this.componentWheel.schedule(component, period, offset);
+    }
+
+    /**
+     * Registers a component to be called once, at the given time.
+     *
+     * @param component component to call
+     * @param time      time to call the component at
+     * @return registration that can be cancelled
+     * @throws IllegalArgumentException if the time is not after the current time
+     * @see #schedule(Tickable, long, long)
+     */
+    public TimingWheel.Registration scheduleAt(Tickable component, long time)
+            throws IllegalArgumentException {
+        return this.componentWheel.scheduleAt(component, time);
+    }
+
+    /**
+     * Creates an independent copy of this port for exploring what-if scenarios.
+     * <p>
+     * The fork starts at the same time as this port, with copies of its quays, ship
+     * queue, stored cargo, movements and recurring movements. Stored cargo is shared with
+     * this port until either port changes it, so forking does not copy the warehouses.
+     * The quays, ship queue and movement queue are copied, which copies references only
+     * and does not re-order the movements. Processed movements are removed from the queue
+     * at every tick, so copying it costs time proportional to the movements still pending.
+     * The fork has no statistics evaluators, journal, history, pending movement intake or
+     * scheduled components, and its own metrics.
+     * <p>
+     * Ships, cargo and the ship and cargo registries are shared by every fork. To keep
+     * them unchanged, a fork is detached: outbound ships do not load cargo and unloaded
+     * containers are not removed from the cargo registry. A fork is therefore only an
+     * approximation of this port: ships that would have loaded cargo before leaving do
+     * not carry it in the fork, so Ship.canLoad(Cargo), departures and anything else that
+     * depends on the cargo on board may differ from what this port would simulate.
+     *
+     * @return new detached port
+     */
+    public Port fork() {
+        Port fork = new Port(this.name);
+        fork.time = this.time;
+        fork.phaseWheel.reset(this.time);
+        fork.componentWheel.reset(this.time);
+        fork.detached = true;
+        fork.storedCargo = this.storedCargo.fork();
+        fork.unregisteredCargo = this.unregisteredCargo.fork();
+        fork.departedShips = this.departedShips.fork();
+        List<Quay> quayCopies = new ArrayList<>(this.quays.size());
+        for (Quay quay : this.quays) {
+            quayCopies.add(quay.copy());
+        }
+        fork.quays = quayCopies;
+        fork.shipQueue = this.shipQueue.copy();
+        fork.priorityQueue = new PriorityQueue<>(this.priorityQueue);
+        fork.recurringMovements.addAll(this.recurringMovements);
+        fork.pendingOccurrences.putAll(this.pendingOccurrences);
+        return fork;
+    }
+
+    /**
+     * Returns the port's warehouses. Callers must not change the stored cargo.
+     *
+     * @return the port's warehouses
+     */
+    Warehouse getWarehouse() {
+        return this.storedCargo;
+    }
+
+    /**
+     * Returns whether this port is a fork created by {@link #fork()}.
+     * <p>
+     * A detached port never changes the ships or cargo registry it shares with the port
+     * it was forked from.
+     *
+     * @return true if this port is detached
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * Sets the history that the state of this port is recorded to at the end of every
+     * minute in which it changes.
+     * <p>
+     * The current state is recorded immediately. Passing null stops recording. Changes
+     * made directly to the objects returned by {@link #getShipQueue()} or
+     * {@link #getQuays()} are only captured the next time the simulation changes the same
+     * component.
+     *
+     * @param history history to record to, or null
+     */
+    public void setHistory(PortHistory history) {
+        this.history = history;
+        if (history != null) {
+            history.record(this, PortHistory.ALL);
+        }
+        this.historyChanges = 0;
+    }
+
+    /**
+     * Returns the history the state of this port is recorded to.
+     *
+     * @return history, or null if not recording
+     */
+    public PortHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Sets the simulation time while replaying a journal.
+     * <p>
+     * Periodic phases and scheduled components resume on their next minute after the
+     * new time.
+     *
+     * @param time time in minutes
+     */
+    void restoreTime(long time) {
+        if (this.time != time) {
+            this.phaseWheel.reset(time);
+            this.componentWheel.reset(time);
+        }
+        this.time = time;
+    }
+
+    /**
+     * Adds cargo to the port's warehouses while replaying a journal.
+     *
+     * @param cargo cargo to store
+     */
+    void restoreStoredCargo(Cargo cargo) {
+        this.storedCargo.add(cargo);
+        this.historyChanges |= PortHistory.STORED_CARGO;
+    }
+
+    /**
+     * Removes the cargo with the given ID from the port's warehouses while replaying a
+     * journal.
+     *
+     * @param cargoId ID of the cargo to remove
+     */
+    void restoreRemovedCargo(int cargoId) {
+        if (this.storedCargo.remove(Cargo.getCargoRegistry().get(cargoId))) {
+            this.historyChanges |= PortHistory.STORED_CARGO;
+        }
+    }
+
+    /**
+     * Records a container removed from the cargo registry while replaying a journal.
+     *
+     * @param cargo cargo that was removed from the registry
+     */
+    void restoreUnregisteredCargo(Cargo cargo) {
+        this.unregisteredCargo.add(cargo);
+    }
+
+    /**
+     * Returns the containers this port removed from the cargo registry when it unloaded
+     * them, in the order they were removed.
+     *
+     * @return unmodifiable view of the unregistered containers
+     */
+    List<Cargo> getUnregisteredCargo() {
+        return Collections.unmodifiableList(this.unregisteredCargo);
+    }
+
+    /**
+     * Makes the ship docked at the given quay depart while replaying a journal.
+     *
+     * @param quay quay the ship departed from
+     */
+    void restoreDeparture(Quay quay) {
+        Ship ship = quay.shipDeparts();
+        if (ship != null) {
+            this.departedShips.add(ship);
+        }
+        this.historyChanges |= PortHistory.QUAYS;
+    }
+
+    /**
+     * Returns the ships that departed from a quay since this port was created or loaded,
+     * in the order they departed. A ship that docks and departs again appears again.
+     *
+     * @return unmodifiable view of the departed ships
+     */
+    List<Ship> getDepartedShips() {
+        return Collections.unmodifiableList(this.departedShips);
+    }
+
     /**
      * Adds a quay to the ports control.
      *
@@ -169,6 +585,7 @@ public class Port implements Encodable {
      */
     public void addQuay(Quay quay) {
         this.quays.add(quay);
+        this.historyChanges |= PortHistory.QUAYS;
     }
 
     /**
@@ -197,7 +614,218 @@ public class Port implements Encodable {
         if (movement.getTime() < this.time) {
             throw new IllegalArgumentException();
         }
+        movement.markScheduled();
         this.priorityQueue.add(movement);
+        if (journal != null) {
+            journal.scheduled(this.time, movement);
+        }
+    }
+
+    /**
+     * Adds every movement in the given collection to the PriorityQueue of movements.
+     * <p>
+     * All movements are validated before any is added, so if an IllegalArgumentException
+     * is thrown the queue of movements is left unchanged. Large batches are merged with
+     * the movements already queued by rebuilding the queue in linear time, rather than
+     * sifting each movement into it individually.
+     *
+     * @param movements movements to add
+     * @throws IllegalArgumentException If any given movement's action time is
+     *                                  less than the current number of minutes elapsed
+     */
+    public void addMovements(Collection<? extends Movement> movements)
+            throws IllegalArgumentException {
+        addMovements(movements.iterator());
+    }
+
+    /**
+     * Adds every movement produced by the given iterator to the PriorityQueue of
+     * movements.
+     * <p>
+     * The iterator is consumed in a single pass. All movements are validated before any
+     * is added, so if an IllegalArgumentException is thrown the queue of movements is
+     * left unchanged.
+     *
+     * @param movements iterator over the movements to add
+     * @throws IllegalArgumentException If any given movement's action time is
+     *                                  less than the current number of minutes elapsed
+     * @see #addMovements(Collection)
+     */
+    public void addMovements(Iterator<? extends Movement> movements)
+            throws IllegalArgumentException {
+        List<Movement> batch = new ArrayList<>();
+        while (movements.hasNext()) {
+            Movement movement = movements.next();
+            if (movement.getTime() < this.time) {
+                throw new IllegalArgumentException("Movement time must not be before "
+                        + "the current time " + this.time + ": " + movement.getTime());
+            }
+            batch.add(movement);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).markScheduled();
+        }
+        final int queued = this.priorityQueue.size();
+        final int total = queued + batch.size();
+        /* Inserting costs about log2(total) sifts per movement, rebuilding about 3 * total */
+        if ((long) batch.size() * (32 - Integer.numberOfLeadingZeros(total))
+                < 3L * total) {
+            this.priorityQueue.addAll(batch);
+        } else {
+            Movement[] merged = this.priorityQueue.toArray(new Movement[total]);
+            for (int i = 0; i < batch.size(); i++) {
+                merged[queued + i] = batch.get(i);
+            }
+            /* Added in heap order, each movement is already below its parent and stays put */
+            Comparator<? super Movement> order = this.priorityQueue.comparator();
+            heapify(merged, order);
+            PriorityQueue<Movement> rebuilt = new PriorityQueue<>(total, order);
+            rebuilt.addAll(Arrays.asList(merged));
+            this.priorityQueue = rebuilt;
+        }
+        if (journal != null) {
+            for (Movement movement : batch) {
+                journal.scheduled(this.time, movement);
+            }
+        }
+    }
+
+    /*
+     * Arranges the given movements into a binary heap under the given ordering, in linear
+     * time, by sifting down each parent from the last to the root.
+     */
+    private static void heapify(Movement[] heap, Comparator<? super Movement> order) {
+        for (int parent = (heap.length >>> 1) - 1; parent >= 0; parent--) {
+            Movement movement = heap[parent];
+            int hole = parent;
+            int child;
+            while ((child = 2 * hole + 1) < heap.length) {
+                if (child + 1 < heap.length
+                        && order.compare(heap[child + 1], heap[child]) < 0) {
+                    child++;
+                }
+                if (order.compare(movement, heap[child]) <= 0) {
+                    break;
+                }
+                heap[hole] = heap[child];
+                hole = child;
+            }
+            heap[hole] = movement;
+        }
+    }
+
+    /**
+     * Returns the bus this port publishes a typed event on for each change it makes.
+     *
+     * @return event bus
+     */
+    public PortEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Sets the ring buffer this port writes every event into, and the end of every tick,
+     * for handlers running on their own threads.
+     * <p>
+     * Passing null stops writing to the ring. The caller remains responsible for starting
+     * and closing the ring, and must start it before the port next publishes an event.
+     *
+     * @param eventRing ring to write to, or null
+     */
+    public void setEventRing(PortEventRing eventRing) {
+        this.eventRing = eventRing;
+    }
+
+    /**
+     * Returns the ring buffer this port writes its events into.
+     *
+     * @return event ring, or null if none is set
+     */
+    public PortEventRing getEventRing() {
+        return eventRing;
+    }
+
+    /* Publishes an event at the current time to the ring and any subscribers of its type */
+    private void publish(PortEventType type, Ship ship, Quay quay,
+                         List<? extends Cargo> cargo, Movement movement) {
+        publishToRing(type, ship, quay, cargo == null ? 0 : cargo.size());
+        if (eventBus.hasSubscribers(type)) {
+            eventBus.publish(new PortEvent(type, this.time, ship, quay, cargo, movement));
+        }
+    }
+
+    /* Writes the values describing an event at the current time into the ring, if set */
+    private void publishToRing(PortEventType type, Ship ship, Quay quay, int cargoCount) {
+        if (eventRing != null) {
+            eventRing.publish(type, this.time, ship == null ? -1 : ship.getImoNumber(),
+                    quay == null ? -1 : quay.getId(), cargoCount);
+        }
+    }
+
+    /**
+     * Returns the intake through which other threads submit movements to this port.
+     * <p>
+     * Movements submitted to the intake are added to the queue of movements at the
+     * start of the next call to {@link #elapseOneMinute()}.
+     *
+     * @return movement intake
+     */
+    public MovementIntake getMovementIntake() {
+        return movementIntake;
+    }
+
+    /**
+     * Adds a recurring movement to this port.
+     * <p>
+     * Only the next occurrence of the recurring movement is added to the queue of
+     * movements. Each time an occurrence is processed, the occurrence following it is
+     * added in its place.
+     *
+     * @param recurringMovement recurring movement to add
+     */
+    public void addRecurringMovement(RecurringMovement recurringMovement) {
+        this.recurringMovements.add(recurringMovement);
+        scheduleNextOccurrence(recurringMovement);
+        if (journal != null) {
+            journal.recurring(this.time, recurringMovement);
+        }
+    }
+
+    /**
+     * Returns the recurring movements scheduled at this port.
+     * <p>
+     * Adding or removing elements from the returned list should not affect
+     * the original list.
+     *
+     * @return recurring movements
+     */
+    public List<RecurringMovement> getRecurringMovements() {
+        return new ArrayList<>(recurringMovements);
+    }
+
+    /* Queues the first occurrence of the given recurring movement after the current time */
+    private void scheduleNextOccurrence(RecurringMovement recurringMovement) {
+        ShipMovement occurrence = recurringMovement.nextOccurrence(this.time + 1);
+        if (occurrence != null) {
+            occurrence.markScheduled();
+            this.priorityQueue.add(occurrence);
+            this.pendingOccurrences.put(occurrence, recurringMovement);
+        }
+    }
+
+    /**
+     * Discards the pending occurrences of every recurring movement and schedules them
+     * again from the current time, after the time has been moved by a journal replay.
+     */
+    void rescheduleRecurringMovements() {
+        this.priorityQueue.removeIf(this.pendingOccurrences::containsKey);
+        this.pendingOccurrences.clear();
+        for (RecurringMovement recurringMovement : this.recurringMovements) {
+            scheduleNextOccurrence(recurringMovement);
+        }
     }
 
     /**
@@ -227,42 +855,107 @@ public class Port implements Encodable {
      * @param movement movement to execute
      */
     public void processMovement(Movement movement) {
+        final MovementProcessedEvent movementEvent = MovementProcessedEvent.start();
+        int cargoMoved = 0;
+        if (journal != null) {
+            journal.processed(this.time, movement);
+        }
         if (movement instanceof ShipMovement) {
             Ship shipTakenThisMovement = ((ShipMovement) movement).getShip();
             if (movement.getDirection().equals(MovementDirection.INBOUND)) {
                 this.getShipQueue().add(shipTakenThisMovement);
+                metrics.shipsQueued.increment();
+                this.historyChanges |= PortHistory.QUEUE;
+                publish(PortEventType.SHIP_INBOUND, shipTakenThisMovement, null, null,
+                        movement);
+                if (journal != null) {
+                    journal.queued(this.time, shipTakenThisMovement);
+                }
             } else if (movement.getDirection().equals(
                     MovementDirection.OUTBOUND)) {
-                for (Cargo cargos : this.storedCargo) {
+                for (int i = 0; i < this.storedCargo.size(); i++) {
+                    Cargo cargos = this.storedCargo.get(i);
                     if (cargos.getDestination().equals(
                             shipTakenThisMovement.getOriginFlag())) {
                         if (shipTakenThisMovement.canLoad(cargos)) {
-                            shipTakenThisMovement.loadCargo(cargos);
-                            for (Quay quay : this.getQuays()) {
+                            if (!this.detached) {
+                                shipTakenThisMovement.loadCargo(cargos);
+                            }
+                            if (journal != null) {
+                                journal.loaded(this.time, shipTakenThisMovement, cargos);
+                            }
+                            for (int j = 0; j < this.quays.size(); j++) {
+                                Quay quay = this.quays.get(j);
                                 if (quay.getShip() == shipTakenThisMovement) {
                                     quay.shipDeparts();
+                                    this.departedShips.add(shipTakenThisMovement);
+                                    metrics.shipsDeparted.increment();
+                                    this.historyChanges |= PortHistory.QUAYS;
+                                    publish(PortEventType.DEPART,
+                                            shipTakenThisMovement, quay, null, null);
+                                    if (journal != null) {
+                                        journal.departed(this.time, quay);
+                                    }
                                 }
                             }
                         }
                     }
                 }
+                publish(PortEventType.SHIP_OUTBOUND, shipTakenThisMovement, null, null,
+                        movement);
             }
         } else if (movement instanceof CargoMovement) {
             List<Cargo> cargoTakenThisMovement = (
                     (CargoMovement) movement).getCargo();
+            cargoMoved = cargoTakenThisMovement.size();
             if (movement.getDirection().equals(MovementDirection.INBOUND)) {
-                this.storedCargo.addAll(cargoTakenThisMovement);
+                if (this.storedCargo.storeAll(cargoTakenThisMovement) > 0) {
+                    this.historyChanges |= PortHistory.STORED_CARGO;
+                }
+                publish(PortEventType.CARGO_INBOUND, null, null,
+                        cargoTakenThisMovement, movement);
+                if (journal != null) {
+                    journal.stored(this.time, cargoTakenThisMovement);
+                }
             } else if (movement.getDirection().equals(
                     MovementDirection.OUTBOUND)) {
+                List<Cargo> batch = new ArrayList<>(cargoTakenThisMovement.size());
                 for (Cargo cargo : cargoTakenThisMovement) {
-                    int cargoId = cargo.getId();
-                    this.storedCargo.remove(
-                            Cargo.getCargoRegistry().get(cargoId));
+                    batch.add(Cargo.getCargoRegistry().get(cargo.getId()));
+                }
+                if (this.storedCargo.removeAll(batch)) {
+                    this.historyChanges |= PortHistory.STORED_CARGO;
+                }
+                publish(PortEventType.CARGO_OUTBOUND, null, null,
+                        cargoTakenThisMovement, movement);
+                if (journal != null) {
+                    journal.removed(this.time, cargoTakenThisMovement);
                 }
             }
         }
-        for (StatisticsEvaluator evaluator : statisticsEvaluators) {
-            evaluator.onProcessMovement(movement);
+        for (int i = 0; i < statisticsEvaluators.size(); i++) {
+            statisticsEvaluators.get(i).onProcessMovement(movement);
+        }
+        metrics.movementsProcessed.increment();
+        MovementProcessedEvent.finish(movementEvent,
+                movement.getClass().getSimpleName(),
+                movement.getDirection().name(), movement.getTime(), cargoMoved);
+    }
+
+    /**
+     * Docks the given ship at the given quay, recording the change in the port's
+     * metrics, history and journal.
+     *
+     * @param quay quay to dock at
+     * @param ship ship to dock
+     */
+    void dockShip(Quay quay, Ship ship) {
+        quay.shipArrives(ship);
+        metrics.shipsDocked.increment();
+        this.historyChanges |= PortHistory.QUAYS;
+        publish(PortEventType.DOCK, ship, quay, null, null);
+        if (journal != null) {
+            journal.docked(this.time, quay, ship);
         }
     }
 
@@ -316,6 +1009,8 @@ public class Port implements Encodable {
      * On each call to elapseOneMinute(), the following actions should be completed
      * by the port in order:
      * <ol>
+     *     <li>Add any movements submitted to the movement intake since the previous
+     *     call to the queue of movements</li>
      *     <li>Advance the simulation time by 1</li>
      *     <li>If the time is a multiple of 10, attempt to bring a ship from the ship
      *     queue to any empty quay that matches the requirements from Ship.canDock(Quay).
@@ -324,48 +1019,158 @@ public class Port implements Encodable {
      *     docked (if any) and add it to warehouses at the port
      *     (the Port's list of stored cargo)</li>
      *     <li>All movements stored in the queue whose action time is equal to the
-     *     current time should be processed by processMovement(Movement)</li>
+     *     current time should be processed by processMovement(Movement) and removed from
+     *     the queue, along with any movements whose action time has already passed</li>
      *     <li>Call StatisticsEvaluator.elapseOneMinute() on all statistics
      *     evaluators</li>
+     *     <li>Call every component registered with
+     *     {@link #schedule(Tickable, long, long)} or {@link #scheduleAt(Tickable, long)}
+     *     that is due at the current time</li>
      * </ol>
      */
     public void elapseOneMinute() {
+        final long tickStart = System.nanoTime();
+        if (!this.movementIntake.isEmpty()) {
+            addMovements(this.movementIntake.drain(this.time + 1));
+        }
         this.time++;
-        if (this.time % 10 == 0) {
-            for (Ship ship : this.shipQueue.getShipQueue()) {
-                for (Quay quay : this.quays) {
-                    if (quay.isEmpty()) {
-                        if (ship.canDock(quay)) {
-                            quay.shipArrives(ship);
-                        }
+        this.phaseWheel.advance();
+        final long movementStart = System.nanoTime();
+        final SimulationPhaseEvent movementPhaseEvent = SimulationPhaseEvent.start();
+        int processed = 0;
+        List<RecurringMovement> recurred = null;
+        while (!this.priorityQueue.isEmpty()
+                && this.priorityQueue.peek().getTime() <= this.time) {
+            Movement movements = this.priorityQueue.poll();
+            /* movements added for a minute that had already elapsed are never processed */
+            if (movements.getTime() == this.time) {
+                this.processMovement(movements);
+                processed++;
+            }
+            if (!this.pendingOccurrences.isEmpty()) {
+                RecurringMovement recurringMovement =
+                        this.pendingOccurrences.remove(movements);
+                if (recurringMovement != null) {
+                    if (recurred == null) {
+                        recurred = new ArrayList<>();
                     }
+                    recurred.add(recurringMovement);
                 }
             }
-        } else if (this.time % 5 == 0) {
-            for (Quay quay : this.quays) {
-                Ship ship = quay.getShip();
-                if (ship instanceof BulkCarrier) {
-                    BulkCargo bulkCargo = ((BulkCarrier) ship).getCargo();
-                    this.storedCargo.add(bulkCargo);
-                } else if (ship instanceof ContainerShip) {
-                    this.storedCargo.addAll(((ContainerShip) ship).getCargo());
-                    for (Container container : (
-                            (ContainerShip) ship).getCargo()) {
-                        int containerId = container.getId();
-                        Cargo.getCargoRegistry().remove(containerId);
+        }
+        if (recurred != null) {
+            for (RecurringMovement recurringMovement : recurred) {
+                scheduleNextOccurrence(recurringMovement);
+            }
+        }
+        final long evaluatorStart = System.nanoTime();
+        SimulationPhaseEvent.finish(movementPhaseEvent, SimulationPhaseEvent.MOVEMENTS,
+                this.time, processed);
+        metrics.movements.record(evaluatorStart - movementStart);
+        for (int i = 0; i < this.statisticsEvaluators.size(); i++) {
+            this.statisticsEvaluators.get(i).elapseOneMinute();
+        }
+        this.componentWheel.advance();
+        final long tickEnd = System.nanoTime();
+        metrics.evaluators.record(tickEnd - evaluatorStart);
+        metrics.tick.record(tickEnd - tickStart);
+        metrics.onTick(this.time);
+        eventBus.flush(this.time);
+        if (eventRing != null) {
+            eventRing.publishTick(this.time);
+        }
+        if (history != null) {
+            history.record(this, this.historyChanges);
+            this.historyChanges = 0;
+        }
+        if (journal != null) {
+            journal.onTick(this);
+        }
+    }
+
+    /**
+     * Attempts to bring each ship in the ship queue to any empty quay that matches the
+     * requirements from Ship.canDock(Quay). Called every 10 minutes.
+     */
+    private void dockWaitingShips() {
+        final long phaseStart = System.nanoTime();
+        final SimulationPhaseEvent phaseEvent = SimulationPhaseEvent.start();
+        int docked = 0;
+        List<Ship> waiting = this.shipQueue.getShipQueueView();
+        for (int i = 0; i < waiting.size(); i++) {
+            Ship ship = waiting.get(i);
+            for (int j = 0; j < this.quays.size(); j++) {
+                Quay quay = this.quays.get(j);
+                if (quay.isEmpty()) {
+                    if (ship.canDock(quay)) {
+                        dockShip(quay, ship);
+                        docked++;
                     }
                 }
             }
         }
-        for (Movement movements : this.priorityQueue) {
-            if (movements.getTime() == this.time) {
-                this.processMovement(movements);
+        metrics.docking.record(System.nanoTime() - phaseStart);
+        SimulationPhaseEvent.finish(phaseEvent, SimulationPhaseEvent.DOCKING,
+                this.time, docked);
+    }
+
+    /**
+     * Unloads the cargo from every ship docked at a quay into the port's stored cargo.
+     * Called every 10 minutes, 5 minutes after docking.
+     */
+    private void unloadDockedShips() {
+        final long phaseStart = System.nanoTime();
+        final SimulationPhaseEvent phaseEvent = SimulationPhaseEvent.start();
+        int unloaded = 0;
+        for (int i = 0; i < this.quays.size(); i++) {
+            Quay quay = this.quays.get(i);
+            Ship ship = quay.getShip();
+            if (ship != null) {
+                unloaded++;
+            }
+            if (ship instanceof BulkCarrier) {
+                BulkCargo bulkCargo = ((BulkCarrier) ship).getCargo();
+                if (bulkCargo != null) {
+                    this.storedCargo.add(bulkCargo);
+                    this.historyChanges |= PortHistory.STORED_CARGO;
+                    publishToRing(PortEventType.UNLOAD, ship, quay, 1);
+                    if (eventBus.hasSubscribers(PortEventType.UNLOAD)) {
+                        eventBus.publish(new PortEvent(PortEventType.UNLOAD, this.time,
+                                ship, quay, List.of(bulkCargo), null));
+                    }
+                    if (journal != null) {
+                        journal.stored(this.time, List.of(bulkCargo));
+                    }
+                }
+            } else if (ship instanceof ContainerShip) {
+                List<Container> containers = ((ContainerShip) ship).getCargoView();
+                if (this.storedCargo.storeAll(containers) > 0) {
+                    this.historyChanges |= PortHistory.STORED_CARGO;
+                }
+                publishToRing(PortEventType.UNLOAD, ship, quay, containers.size());
+                if (eventBus.hasSubscribers(PortEventType.UNLOAD)) {
+                    /* The view follows the ship's hold, so events get their own copy */
+                    eventBus.publish(new PortEvent(PortEventType.UNLOAD, this.time, ship,
+                            quay, new ArrayList<>(containers), null));
+                }
+                if (!this.detached) {
+                    for (int j = 0; j < containers.size(); j++) {
+                        Cargo removed = Cargo.getCargoRegistry().remove(
+                                containers.get(j).getId());
+                        if (removed != null) {
+                            this.unregisteredCargo.add(removed);
+                        }
+                    }
+                }
+                if (journal != null) {
+                    journal.stored(this.time, containers);
+                    journal.unregistered(this.time, containers);
+                }
             }
         }
-        for (StatisticsEvaluator statisticsEvaluator
-                : this.statisticsEvaluators) {
-            statisticsEvaluator.elapseOneMinute();
-        }
+        metrics.unloading.record(System.nanoTime() - phaseStart);
+        SimulationPhaseEvent.finish(phaseEvent, SimulationPhaseEvent.UNLOADING,
+                this.time, unloaded);
     }
 
     /**
@@ -390,8 +1195,15 @@ public class Port implements Encodable {
      * <pre>EncodedMovement</pre>
      * <pre>EncodedMovement...</pre>
      * <pre>Evaluators:numEvaluators:EvaluatorSimpleName,EvaluatorSimpleName</pre>
+     * <pre>RecurringMovements:numRecurringMovements (optional)</pre>
+     * <pre>EncodedRecurringMovement</pre>
+     * <pre>EncodedRecurringMovement...</pre>
+     * <pre>UnregisteredCargo:numCargo:cargoID,cargoID (optional)</pre>
      * <p>
-     * As specified by encode()
+     * As specified by encode(). Movements whose action time is before the port's time
+     * have already been processed and are not added to the loaded port. Cargo listed as
+     * unregistered is read with the rest of the cargo, so that stored cargo and ships can
+     * refer to it, and is then removed from the cargo registry.
      *
      * @param reader reader from which to load all info
      * @return port created by reading from given reader
@@ -401,6 +1213,8 @@ public class Port implements Encodable {
      */
     public static Port initialisePort(Reader reader) throws
             IOException, BadEncodingException {
+        final long loadStart = System.nanoTime();
+        final PortPersistenceEvent loadEvent = PortPersistenceEvent.start();
         BufferedReader bufferedReader = new BufferedReader(reader);
         final String line = bufferedReader.readLine();
         String line2 = bufferedReader.readLine();
@@ -535,27 +1349,31 @@ public class Port implements Encodable {
         } catch (NumberFormatException e) {
             throw new BadEncodingException();
         }
+        List<Movement> movementList = new ArrayList<>();
         int counter4 = 0;
         while (counter4 < Integer.parseInt(numMovements)) {
             String lines = bufferedReader.readLine();
             ArrayList<String> encodedMovement = new ArrayList<>(
                     Arrays.asList(lines.split(":")));
+            Movement movement = null;
             if (encodedMovement.get(0).equals(ShipMovement.class
                     .getSimpleName())) {
                 try {
-                    ShipMovement shipMovement = ShipMovement.fromString(lines);
+                    movement = ShipMovement.fromString(lines);
                 } catch (BadEncodingException e) {
                     throw new BadEncodingException();
                 }
             } else if (encodedMovement.get(0).equals(CargoMovement.class
                     .getSimpleName())) {
                 try {
-                    CargoMovement cargoMovement =
-                            CargoMovement.fromString(lines);
+                    movement = CargoMovement.fromString(lines);
                 } catch (BadEncodingException e) {
                     throw new BadEncodingException();
                 }
             }
+            if (movement != null && movement.getTime() >= timeElapsedPort) {
+                movementList.add(movement);
+            }
             counter4++;
         }
         String evaluatorsLine = bufferedReader.readLine();
@@ -588,8 +1406,60 @@ public class Port implements Encodable {
                 }
             }
         }
-        return new Port(line, timeElapsedPort, shipQueue, quayInPort,
+        List<RecurringMovement> recurringMovementList = new ArrayList<>();
+        List<Integer> unregisteredIds = new ArrayList<>();
+        String sectionLine;
+        while ((sectionLine = bufferedReader.readLine()) != null
+                && !sectionLine.isEmpty()) {
+            String[] sectionElements = sectionLine.split(":");
+            if (sectionElements.length == 2 && sectionElements[0]
+                    .equals("RecurringMovements")) {
+                int numRecurring;
+                try {
+                    numRecurring = Integer.parseInt(sectionElements[1]);
+                } catch (NumberFormatException e) {
+                    throw new BadEncodingException();
+                }
+                for (int i = 0; i < numRecurring; i++) {
+                    String lines = bufferedReader.readLine();
+                    if (lines == null) {
+                        throw new BadEncodingException();
+                    }
+                    recurringMovementList.add(RecurringMovement.fromString(lines));
+                }
+            } else if (sectionElements.length == 3 && sectionElements[0]
+                    .equals("UnregisteredCargo")) {
+                try {
+                    for (String cargoId : sectionElements[2].split(",")) {
+                        unregisteredIds.add(Integer.parseInt(cargoId));
+                    }
+                    if (unregisteredIds.size() != Integer.parseInt(sectionElements[1])) {
+                        throw new BadEncodingException();
+                    }
+                } catch (NumberFormatException e) {
+                    throw new BadEncodingException();
+                }
+            } else {
+                throw new BadEncodingException();
+            }
+        }
+        Port port = new Port(line, timeElapsedPort, shipQueue, quayInPort,
                 storedCargoList);
+        port.addMovements(movementList);
+        for (RecurringMovement recurringMovement : recurringMovementList) {
+            port.addRecurringMovement(recurringMovement);
+        }
+        for (int cargoId : unregisteredIds) {
+            Cargo cargo = Cargo.getCargoRegistry().remove(cargoId);
+            if (cargo == null) {
+                throw new BadEncodingException();
+            }
+            port.unregisteredCargo.add(cargo);
+        }
+        port.metrics.publishGauges();
+        port.metrics.load.record(System.nanoTime() - loadStart);
+        PortPersistenceEvent.finish(loadEvent, PortPersistenceEvent.LOAD, port);
+        return port;
     }
 
     /**
@@ -613,6 +1483,10 @@ public class Port implements Encodable {
      * <pre>EncodedMovement</pre>
      * <pre>EncodedMovement...</pre>
      * <pre>Evaluators:numEvaluators:EvaluatorSimpleName,EvaluatorSimpleName</pre>
+     * <pre>RecurringMovements:numRecurringMovements</pre>
+     * <pre>EncodedRecurringMovement</pre>
+     * <pre>EncodedRecurringMovement...</pre>
+     * <pre>UnregisteredCargo:numCargo:cargoID,cargoID</pre>
      * <p>
      *
      * </p>
@@ -620,7 +1494,8 @@ public class Port implements Encodable {
      * <ul>
      *     <li>Name is the name of the Port</li>
      *     <li>Time is the time elapsed since the simulation started</li>
-     *     <li>numCargo is the total number of cargo in the simulation</li>
+     *     <li>numCargo is the total number of cargo in the simulation, including the
+     *     containers listed in the UnregisteredCargo section</li>
      *     <li>If present (numCargo > 0): EncodedCargo is the encoded representation
      *     of each individual cargo in the simulation</li>
      *     <li>numShips is the total number of ships in the simulation</li>
@@ -637,7 +1512,7 @@ public class Port implements Encodable {
      *     <li>If present (numCargo > 0): cargoID is each cargo's ID in the stored
      *     cargo list of Port</li>
      *     <li>numMovements is the number of movements in the list of movements
-     *     in Port</li>
+     *     in Port, excluding the pending occurrences of recurring movements</li>
      *     <li>If present (numMovements > 0): EncodedMovement is the encoded
      *     representation of each individual Movement in the
      *     aforementioned list</li>
@@ -646,6 +1521,14 @@ public class Port implements Encodable {
      *     <li>If present (numEvaluators > 0): EvaluatorSimpleName is the
      *     name given by Class.getSimpleName() for each evaluator in the aforementioned
      *     list separated by a comma</li>
+     *     <li>The RecurringMovements section is only present if the Port has at
+     *     least one recurring movement. numRecurringMovements is the number of
+     *     recurring movements and EncodedRecurringMovement is the encoded
+     *     representation of each of them</li>
+     *     <li>The UnregisteredCargo section is only present if the Port removed
+     *     containers from the cargo registry when unloading them and their IDs have not
+     *     been registered again. numCargo is the number of such containers and cargoID
+     *     is each of their IDs</li>
      *     <li>Each line is separated by a System.lineSeparator()</li>
      * </ul>
      * For example the minimum / default encoding would be:
@@ -663,11 +1546,73 @@ public class Port implements Encodable {
      */
     @Override
     public String encode() {
-        int numCargo = Cargo.getCargoRegistry().size();
-        int numShip = Ship.getShipRegistry().size();
+        final long saveStart = System.nanoTime();
+        final PortPersistenceEvent saveEvent = PortPersistenceEvent.start();
+        final String result = encode(Cargo.getCargoRegistry().values(),
+                encodeShips(), this.time, this.statisticsEvaluators);
+        metrics.save.record(System.nanoTime() - saveStart);
+        PortPersistenceEvent.finish(saveEvent, PortPersistenceEvent.SAVE, this);
+        return result;
+    }
+
+    /**
+     * Takes a snapshot of this port that can be encoded and saved later, on another thread,
+     * while the simulation continues.
+     * <p>
+     * The snapshot holds a {@link #fork() fork} of this port, which shares the stored cargo
+     * until either port changes it, and copies of the references in the cargo registry and
+     * evaluators. Nothing is encoded until the snapshot is, except for ships: their cargo
+     * is the only part of the encoding that the simulation changes in place, so a ship is
+     * encoded when the snapshot is taken if its cargo changed since the previous snapshot,
+     * and its previous encoding is reused otherwise.
+     *
+     * @return snapshot of this port
+     */
+    public PortSnapshot snapshot() {
+        Map<Ship, EncodedShip> encoded = new IdentityHashMap<>();
+        List<String> shipEncodings = new ArrayList<>(Ship.getShipRegistry().size());
+        for (Ship ship : Ship.getShipRegistry().values()) {
+            EncodedShip encodedShip = this.encodedShips.get(ship);
+            long cargoVersion = ship.getCargoVersion();
+            if (encodedShip == null || encodedShip.cargoVersion != cargoVersion) {
+                encodedShip = new EncodedShip(cargoVersion, ship.encode());
+            }
+            encoded.put(ship, encodedShip);
+            shipEncodings.add(encodedShip.encoding);
+        }
+        this.encodedShips = encoded;
+        return new PortSnapshot(fork(), new ArrayList<>(Cargo.getCargoRegistry().values()),
+                shipEncodings, this.time, new ArrayList<>(this.statisticsEvaluators));
+    }
+
+    /* Returns the encoding of each ship in the ship registry, in registry order */
+    private static List<String> encodeShips() {
+        List<String> encodedShips = new ArrayList<>(Ship.getShipRegistry().size());
+        for (Ship ship : Ship.getShipRegistry().values()) {
+            encodedShips.add(ship.encode());
+        }
+        return encodedShips;
+    }
+
+    /**
+     * Returns the encoded representation of this port's quays, ship queue, stored cargo and
+     * movements together with the given cargo, ships, time and evaluators, in the format of
+     * {@link #encode()}.
+     *
+     * @param cargo        cargo to encode, in order
+     * @param encodedShips encodings of the ships, in order
+     * @param time         time to encode
+     * @param evaluators   evaluators whose names are encoded
+     * @return encoded string representation of the port
+     */
+    String encode(Collection<Cargo> cargo, List<String> encodedShips, long time,
+                  List<StatisticsEvaluator> evaluators) {
+        final List<Cargo> unregistered = unregisteredCargo(cargo);
+        int numCargo = cargo.size() + unregistered.size();
+        int numShip = encodedShips.size();
         int numQuays = this.quays.size();
-        final int numMovements = this.priorityQueue.size();
-        final ShipQueue shipQueue = new ShipQueue();
+        final int numMovements = this.priorityQueue.size()
+                - this.pendingOccurrences.size();
         final StringBuilder finalResult = new StringBuilder();
         StringBuilder encodedCargo = new StringBuilder();
         StringBuilder encodedShip = new StringBuilder();
@@ -676,19 +1621,18 @@ public class Port implements Encodable {
         StringBuilder encodedMovement = new StringBuilder();
         StringBuilder evaluatorsName = new StringBuilder();
         if (numCargo > 0) {
-            for (Map.Entry<Integer, Cargo> cargoEntry
-                    : Cargo.getCargoRegistry().entrySet()) {
-                String cargoString = cargoEntry.getValue().encode()
+            for (Cargo cargoEntry : cargo) {
+                String cargoString = cargoEntry.encode()
                         + System.lineSeparator();
                 encodedCargo.append(cargoString);
             }
+            for (Cargo cargoEntry : unregistered) {
+                encodedCargo.append(cargoEntry.encode()).append(System.lineSeparator());
+            }
         }
         if (numShip > 0) {
-            for (Map.Entry<Long, Ship> shipEntry
-                    : Ship.getShipRegistry().entrySet()) {
-                String shipString = shipEntry.getValue().encode()
-                        + System.lineSeparator();
-                encodedShip.append(shipString);
+            for (String shipString : encodedShips) {
+                encodedShip.append(shipString).append(System.lineSeparator());
             }
         }
         if (numQuays > 0) {
@@ -697,45 +1641,115 @@ public class Port implements Encodable {
                 encodedQuays.append(quayString);
             }
         }
-        if (numCargo > 0) {
+        if (!this.storedCargo.isEmpty()) {
             for (int n = 0; n < this.storedCargo.size() - 1; n++) {
-                cargoIds.append(this.storedCargo.get(n)).append(",");
+                cargoIds.append(this.storedCargo.get(n).getId()).append(",");
             }
-            cargoIds.append(this.storedCargo.get(this.storedCargo.size() - 1));
+            cargoIds.append(this.storedCargo.get(this.storedCargo.size() - 1).getId());
         }
         String encodedStoredCargo = "StoredCargo:" + this.storedCargo.size()
                 + ":" + cargoIds;
         String numMovementsString = "Movements:" + numMovements;
         if (numMovements > 0) {
             for (Movement movement : this.priorityQueue) {
+                if (this.pendingOccurrences.containsKey(movement)) {
+                    continue;
+                }
                 String movementString = movement.encode()
                         + System.lineSeparator();
                 encodedMovement.append(movementString);
             }
         }
-        if (statisticsEvaluators.size() > 0) {
-            for (int n = 0; n < this.statisticsEvaluators.size() - 1; n++) {
-                evaluatorsName.append(this.statisticsEvaluators.get(n)
+        if (evaluators.size() > 0) {
+            for (int n = 0; n < evaluators.size() - 1; n++) {
+                evaluatorsName.append(evaluators.get(n)
                         .getClass().getSimpleName()).append(",");
             }
-            evaluatorsName.append(this.statisticsEvaluators.get(
-                            this.statisticsEvaluators.size() - 1).getClass()
+            evaluatorsName.append(evaluators.get(
+                            evaluators.size() - 1).getClass()
                     .getSimpleName());
         }
         String encodedEvaluators = "Evaluators:"
-                + this.statisticsEvaluators.size() + ":" + evaluatorsName;
+                + evaluators.size() + ":" + evaluatorsName;
         finalResult.append(this.name).append(System.lineSeparator())
-                .append(this.getTime()).append(System.lineSeparator())
+                .append(time).append(System.lineSeparator())
                 .append(numCargo).append(System.lineSeparator())
                 .append(encodedCargo).append(numShip)
                 .append(System.lineSeparator()).append(encodedShip)
                 .append(numQuays).append(System.lineSeparator())
-                .append(encodedQuays).append(shipQueue.encode())
+                .append(encodedQuays).append(this.shipQueue.encode())
                 .append(System.lineSeparator()).append(encodedStoredCargo)
                 .append(System.lineSeparator())
                 .append(numMovementsString)
                 .append(System.lineSeparator()).append(encodedMovement)
                 .append(encodedEvaluators);
+        if (!this.recurringMovements.isEmpty()) {
+            finalResult.append(System.lineSeparator()).append("RecurringMovements:")
+                    .append(this.recurringMovements.size());
+            for (RecurringMovement recurringMovement : this.recurringMovements) {
+                finalResult.append(System.lineSeparator())
+                        .append(recurringMovement.encode());
+            }
+        }
+        if (!unregistered.isEmpty()) {
+            finalResult.append(System.lineSeparator()).append("UnregisteredCargo:")
+                    .append(unregistered.size()).append(":");
+            for (int n = 0; n < unregistered.size(); n++) {
+                if (n > 0) {
+                    finalResult.append(",");
+                }
+                finalResult.append(unregistered.get(n).getId());
+            }
+        }
         return finalResult.toString();
     }
+
+    /*
+     * Returns the containers this port removed from the registry whose IDs are not used by
+     * the given registered cargo, without duplicates
+     */
+    private List<Cargo> unregisteredCargo(Collection<Cargo> registered) {
+        if (this.unregisteredCargo.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (Cargo cargo : registered) {
+            ids.add(cargo.getId());
+        }
+        List<Cargo> unregistered = new ArrayList<>();
+        for (int i = 0; i < this.unregisteredCargo.size(); i++) {
+            Cargo cargo = this.unregisteredCargo.get(i);
+            if (ids.add(cargo.getId())) {
+                unregistered.add(cargo);
+            }
+        }
+        return unregistered;
+    }
+
+    /**
+     * The encoding of a ship together with the version of its cargo when it was encoded.
+     */
+    private static class EncodedShip {
+
+        /**
+         * The ship's cargo version when it was encoded.
+         */
+        private final long cargoVersion;
+
+        /**
+         * The encoded ship.
+         */
+        private final String encoding;
+
+        /**
+         * Creates a new encoded ship.
+         *
+         * @param cargoVersion the ship's cargo version
+         * @param encoding     the encoded ship
+         */
+        private EncodedShip(long cargoVersion, String encoding) {
+            this.cargoVersion = cargoVersion;
+            this.encoding = encoding;
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package portsim.port;
+
+import portsim.cargo.Cargo;
+import portsim.movement.Movement;
+import portsim.ship.Ship;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable record of one change to a {@link Port}, published on its
+ * {@link PortEventBus}.
+ * <p>
+ * Which properties are set depends on the {@link PortEventType}:
+ * <ul>
+ *     <li>{@code SHIP_INBOUND}, {@code SHIP_OUTBOUND}: ship and movement</li>
+ *     <li>{@code CARGO_INBOUND}, {@code CARGO_OUTBOUND}: cargo and movement</li>
+ *     <li>{@code DOCK}, {@code DEPART}: ship and quay</li>
+ *     <li>{@code UNLOAD}: ship, quay and cargo</li>
+ * </ul>
+ * Properties that are not set are null, or an empty list for cargo.
+ */
+public class PortEvent implements PortNotification {
+
+    /**
+     * The kind of change.
+     */
+    private final PortEventType type;
+
+    /**
+     * The simulation time of the change, in minutes.
+     */
+    private final long time;
+
+    /**
+     * The ship involved, or null.
+     */
+    private final Ship ship;
+
+    /**
+     * The quay involved, or null.
+     */
+    private final Quay quay;
+
+    /**
+     * The cargo involved.
+     */
+    private final List<Cargo> cargo;
+
+    /**
+     * The movement that caused the change, or null.
+     */
+    private final Movement movement;
+
+    /**
+     * Creates a new event.
+     *
+     * @param type     kind of change
+     * @param time     simulation time of the change
+     * @param ship     ship involved, or null
+     * @param quay     quay involved, or null
+     * @param cargo    cargo involved, or null for none
+     * @param movement movement that caused the change, or null
+     */
+    PortEvent(PortEventType type, long time, Ship ship, Quay quay,
+              List<? extends Cargo> cargo, Movement movement) {
+        this.type = type;
+        this.time = time;
+        this.ship = ship;
+        this.quay = quay;
+        this.cargo = cargo == null ? Collections.emptyList()
+                : Collections.unmodifiableList(cargo);
+        this.movement = movement;
+    }
+
+    /**
+     * Returns the kind of change.
+     *
+     * @return event type
+     */
+    public PortEventType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the simulation time of the change.
+     *
+     * @return time in minutes
+     */
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the ship involved in the change.
+     *
+     * @return ship, or null if no ship was involved
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * Returns the quay involved in the change.
+     *
+     * @return quay, or null if no quay was involved
+     */
+    public Quay getQuay() {
+        return quay;
+    }
+
+    /**
+     * Returns the cargo involved in the change.
+     * <p>
+     * The returned list cannot be modified.
+     *
+     * @return cargo, empty if no cargo was involved
+     */
+    public List<Cargo> getCargo() {
+        return cargo;
+    }
+
+    /**
+     * Returns the movement that caused the change.
+     *
+     * @return movement, or null if the change was not caused by a movement
+     */
+    public Movement getMovement() {
+        return movement;
+    }
+
+    /**
+     * Returns the human-readable string representation of this PortEvent.
+     * <p>
+     * For example:
+     * <pre>DOCK at 120 involving the ship Glorious</pre>
+     *
+     * @return string representation of this PortEvent
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(type).append(" at ").append(time);
+        if (ship != null) {
+            result.append(" involving the ship ").append(ship.getName());
+        }
+        if (!cargo.isEmpty()) {
+            result.append(" with ").append(cargo.size()).append(" cargo");
+        }
+        return result.toString();
+    }
+}
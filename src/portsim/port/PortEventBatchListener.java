@@ -0,0 +1,20 @@
+package portsim.port;
+
+import java.util.List;
+
+/**
+ * Receives the events published by a {@link PortEventBus} in one batch per tick.
+ */
+@FunctionalInterface
+public interface PortEventBatchListener {
+    /**
+     * Called on the simulation thread at the end of each tick in which at least one event
+     * of a subscribed type was published.
+     * <p>
+     * The list is reused by the bus and is only valid for the duration of the call.
+     *
+     * @param time   simulation time of the tick, in minutes
+     * @param events events published during the tick, in the order they were published
+     */
+    void onEvents(long time, List<PortEvent> events);
+}
@@ -0,0 +1,211 @@
+package portsim.port;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Delivers typed {@link PortEvent}s from a {@link Port} to the subscribers interested in
+ * them.
+ * <p>
+ * Subscribers register for the {@link PortEventType}s they need, so publishing an event
+ * only costs a call per interested subscriber, and nothing at all (not even creating the
+ * event) when no subscriber wants that type. Subscribers either receive each event
+ * immediately through a {@link PortEventListener}, or every event of a tick together at
+ * the end of that tick through a {@link PortEventBatchListener}.
+ * <p>
+ * The bus is used on the simulation thread only.
+ */
+public class PortEventBus {
+
+    /**
+     * Subscribers to each event type, indexed by ordinal. Replaced rather than modified
+     * when subscribers change, so publishing never needs to copy.
+     */
+    private Subscription[][] subscribers =
+            new Subscription[PortEventType.values().length][];
+
+    /**
+     * Batch subscribers with at least one event buffered since the last flush.
+     */
+    private final List<Subscription> pendingBatches = new ArrayList<>();
+
+    /**
+     * Creates a new bus with no subscribers.
+     */
+    public PortEventBus() {
+        Arrays.fill(subscribers, new Subscription[0]);
+    }
+
+    /**
+     * Subscribes a listener to receive each event of the given types as soon as it is
+     * published.
+     *
+     * @param types    event types to receive
+     * @param listener listener to call
+     * @return subscription that can be cancelled
+     */
+    public Subscription subscribe(Set<PortEventType> types, PortEventListener listener) {
+        return add(new Subscription(copyOf(types), listener, null));
+    }
+
+    /**
+     * Subscribes a listener to receive the events of the given types published during
+     * each tick together at the end of that tick.
+     *
+     * @param types    event types to receive
+     * @param listener listener to call
+     * @return subscription that can be cancelled
+     */
+    public Subscription subscribeBatched(Set<PortEventType> types,
+                                         PortEventBatchListener listener) {
+        return add(new Subscription(copyOf(types), null, listener));
+    }
+
+    /**
+     * Returns whether any subscriber wants events of the given type.
+     * <p>
+     * Publishers check this before creating an event.
+     *
+     * @param type event type
+     * @return true if publishing an event of the type would reach a subscriber
+     */
+    public boolean hasSubscribers(PortEventType type) {
+        return subscribers[type.ordinal()].length > 0;
+    }
+
+    /**
+     * Delivers the given event to every subscriber of its type.
+     *
+     * @param event event to publish
+     */
+    public void publish(PortEvent event) {
+        for (Subscription subscription : subscribers[event.getType().ordinal()]) {
+            if (subscription.listener != null) {
+                subscription.listener.onEvent(event);
+            } else {
+                if (subscription.batch.isEmpty()) {
+                    pendingBatches.add(subscription);
+                }
+                subscription.batch.add(event);
+            }
+        }
+    }
+
+    /**
+     * Delivers the events buffered for each batch subscriber since the last flush.
+     *
+     * @param time simulation time of the tick that is ending
+     */
+    public void flush(long time) {
+        if (pendingBatches.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < pendingBatches.size(); i++) {
+            Subscription subscription = pendingBatches.get(i);
+            if (subscription.active) {
+                subscription.batchListener.onEvents(time, subscription.batch);
+            }
+            subscription.batch.clear();
+        }
+        pendingBatches.clear();
+    }
+
+    /* Copies the given types into a new EnumSet, which may be empty */
+    private static Set<PortEventType> copyOf(Set<PortEventType> types) {
+        Set<PortEventType> copy = EnumSet.noneOf(PortEventType.class);
+        copy.addAll(types);
+        return copy;
+    }
+
+    /* Adds the subscription to the table of every type it subscribes to */
+    private Subscription add(Subscription subscription) {
+        Subscription[][] updated = subscribers.clone();
+        for (PortEventType type : subscription.types) {
+            Subscription[] current = updated[type.ordinal()];
+            Subscription[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = subscription;
+            updated[type.ordinal()] = extended;
+        }
+        subscribers = updated;
+        return subscription;
+    }
+
+    /* Removes the subscription from the table of every type it subscribes to */
+    private void remove(Subscription subscription) {
+        Subscription[][] updated = subscribers.clone();
+        for (PortEventType type : subscription.types) {
+            updated[type.ordinal()] = Arrays.stream(updated[type.ordinal()])
+                    .filter(s -> s != subscription)
+                    .toArray(Subscription[]::new);
+        }
+        subscribers = updated;
+    }
+
+    /**
+     * A listener's registration with a bus.
+     */
+    public final class Subscription {
+
+        /**
+         * The event types subscribed to.
+         */
+        private final Set<PortEventType> types;
+
+        /**
+         * The listener receiving each event, or null for a batch subscription.
+         */
+        private final PortEventListener listener;
+
+        /**
+         * The listener receiving batches of events, or null.
+         */
+        private final PortEventBatchListener batchListener;
+
+        /**
+         * Events buffered since the last flush, for a batch subscription.
+         */
+        private final List<PortEvent> batch = new ArrayList<>();
+
+        /**
+         * Whether this subscription has not been cancelled.
+         */
+        private boolean active = true;
+
+        /**
+         * Creates a new subscription.
+         *
+         * @param types         event types subscribed to
+         * @param listener      listener receiving each event, or null
+         * @param batchListener listener receiving batches of events, or null
+         */
+        private Subscription(Set<PortEventType> types, PortEventListener listener,
+                             PortEventBatchListener batchListener) {
+            this.types = types;
+            this.listener = listener;
+            this.batchListener = batchListener;
+        }
+
+        /**
+         * Returns the event types subscribed to.
+         *
+         * @return event types
+         */
+        public Set<PortEventType> getTypes() {
+            return copyOf(types);
+        }
+
+        /**
+         * Stops delivering events to the listener. Events already buffered for a batch
+         * subscription are discarded.
+         */
+        public void cancel() {
+            if (active) {
+                active = false;
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package portsim.port;
+
+/**
+ * Receives events from a {@link PortEventBus} as soon as they are published.
+ */
+@FunctionalInterface
+public interface PortEventListener {
+    /**
+     * Called on the simulation thread for each event of a subscribed type.
+     *
+     * @param event event published
+     */
+    void onEvent(PortEvent event);
+}
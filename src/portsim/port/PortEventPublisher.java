@@ -0,0 +1,423 @@
+package portsim.port;
+
+import portsim.util.TimingWheel;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Publisher} of a {@link Port}'s events and per-tick summaries, for
+ * consumers that run on their own threads.
+ * <p>
+ * Once created, the publisher receives every {@link PortEvent} published on the port's
+ * {@link PortEventBus} and, at the end of every simulated minute, a
+ * {@link PortTickSummary}. Each subscriber receives these items, in order, on the
+ * publisher's executor, only as fast as it requests them.
+ * <p>
+ * Each subscriber has a buffer of a fixed size. When a subscriber falls behind far enough
+ * to fill its buffer, its {@link Overflow} policy decides what happens:
+ * <ul>
+ *     <li>{@link Overflow#THROTTLE}: the simulation waits until the subscriber has
+ *     made room, so a headless run proceeds at the pace of its slowest consumer and no
+ *     item is lost.</li>
+ *     <li>{@link Overflow#COALESCE}: the simulation carries on. The subscriber misses
+ *     individual events until it catches up, and its summaries are coalesced into a
+ *     single summary covering every minute it missed, which records how many events it
+ *     did not receive.</li>
+ * </ul>
+ * Nothing is buffered beyond the buffer size and one coalesced summary per subscriber.
+ * <p>
+ * The publisher must be created and closed on the simulation thread.
+ */
+public class PortEventPublisher implements Flow.Publisher<PortNotification>, Closeable {
+
+    /**
+     * What happens when a subscriber's buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * The simulation waits for the subscriber.
+         */
+        THROTTLE,
+        /**
+         * The subscriber misses events and receives coalesced summaries.
+         */
+        COALESCE
+    }
+
+    /**
+     * The port whose events are published.
+     */
+    private final Port port;
+
+    /**
+     * The maximum number of items buffered for each subscriber.
+     */
+    private final int bufferCapacity;
+
+    /**
+     * The executor items are delivered to subscribers on.
+     */
+    private final Executor executor;
+
+    /**
+     * The current subscriptions.
+     */
+    private final CopyOnWriteArrayList<PortSubscription> subscriptions =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of events of each type since the last summary, indexed by ordinal.
+     */
+    private final int[] counts = new int[PortEventType.values().length];
+
+    /**
+     * The subscription to the port's event bus.
+     */
+    private final PortEventBus.Subscription busSubscription;
+
+    /**
+     * The registration that produces a summary at the end of each minute.
+     */
+    private final TimingWheel.Registration summaryRegistration;
+
+    /**
+     * Whether the publisher has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a new publisher of the given port's events that delivers items on the
+     * common fork-join pool.
+     *
+     * @param port           port whose events are published
+     * @param bufferCapacity maximum number of items buffered for each subscriber
+     * @throws IllegalArgumentException if bufferCapacity &lt; 1
+     */
+    public PortEventPublisher(Port port, int bufferCapacity)
+            throws IllegalArgumentException {
+        this(port, bufferCapacity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new publisher of the given port's events.
+     *
+     * @param port           port whose events are published
+     * @param bufferCapacity maximum number of items buffered for each subscriber
+     * @param executor       executor to deliver items on
+     * @throws IllegalArgumentException if bufferCapacity &lt; 1
+     */
+    public PortEventPublisher(Port port, int bufferCapacity, Executor executor)
+            throws IllegalArgumentException {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 1: "
+                    + bufferCapacity);
+        }
+        this.port = port;
+        this.bufferCapacity = bufferCapacity;
+        this.executor = executor;
+        this.busSubscription = port.getEventBus().subscribe(
+                EnumSet.allOf(PortEventType.class), this::onEvent);
+        this.summaryRegistration = port.schedule(this::onTick, 1, 0);
+    }
+
+    /**
+     * Subscribes the given subscriber with the {@link Overflow#THROTTLE} policy.
+     *
+     * @param subscriber subscriber to receive events and summaries
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super PortNotification> subscriber) {
+        subscribe(subscriber, Overflow.THROTTLE);
+    }
+
+    /**
+     * Subscribes the given subscriber with the given overflow policy.
+     * <p>
+     * If the publisher has been closed, the subscriber is completed immediately.
+     *
+     * @param subscriber subscriber to receive events and summaries
+     * @param overflow   what happens when the subscriber's buffer is full
+     */
+    public void subscribe(Flow.Subscriber<? super PortNotification> subscriber,
+                          Overflow overflow) {
+        PortSubscription subscription = new PortSubscription(subscriber, overflow);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+            return;
+        }
+        subscriptions.add(subscription);
+        /* A subscriber may cancel during onSubscribe, before it was added */
+        if (subscription.done) {
+            subscriptions.remove(subscription);
+        }
+    }
+
+    /**
+     * Returns the number of current subscribers.
+     *
+     * @return subscribers that have not cancelled or completed
+     */
+    public int getNumberOfSubscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops publishing the port's events and completes every subscriber once it has
+     * received the items already buffered for it.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        busSubscription.cancel();
+        summaryRegistration.cancel();
+        for (PortSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+    }
+
+    /* Passes an event from the bus to every subscriber */
+    private void onEvent(PortEvent event) {
+        counts[event.getType().ordinal()]++;
+        for (PortSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /* Passes a summary of the minute that is ending to every subscriber */
+    private void onTick() {
+        long time = port.currentTime();
+        PortTickSummary summary = new PortTickSummary(time, time, counts.clone(),
+                port.getShipQueue().size(), port.getStoredCargoCount(),
+                port.countFreeQuays(), 0);
+        Arrays.fill(counts, 0);
+        for (PortSubscription subscription : subscriptions) {
+            subscription.offerSummary(summary);
+        }
+    }
+
+    /**
+     * One subscriber's buffer and outstanding demand.
+     */
+    private final class PortSubscription implements Flow.Subscription, Runnable {
+
+        /**
+         * The subscriber receiving items.
+         */
+        private final Flow.Subscriber<? super PortNotification> subscriber;
+
+        /**
+         * What happens when the buffer is full.
+         */
+        private final Overflow overflow;
+
+        /**
+         * Items waiting to be delivered, guarded by this subscription.
+         */
+        private final ArrayDeque<PortNotification> buffer = new ArrayDeque<>();
+
+        /**
+         * A coalesced summary waiting for room in the buffer, guarded by this
+         * subscription. While it is set, events are dropped so that the subscriber never
+         * receives an event after a summary of a later minute.
+         */
+        private PortTickSummary pendingSummary;
+
+        /**
+         * Events dropped since the last summary was buffered, guarded by this
+         * subscription.
+         */
+        private long dropped;
+
+        /**
+         * Number of items requested and not yet delivered.
+         */
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * Number of times delivery has been requested while it was running; delivery
+         * runs on at most one thread at a time.
+         */
+        private final AtomicInteger work = new AtomicInteger();
+
+        /**
+         * Whether the subscriber should be completed once its buffer is empty.
+         */
+        private volatile boolean completing;
+
+        /**
+         * Whether the subscription has been cancelled or completed.
+         */
+        private volatile boolean done;
+
+        /**
+         * An error waiting to be passed to the subscriber by {@link #run()}, so that it is
+         * never signalled while the subscriber is receiving an item on another thread.
+         */
+        private volatile Throwable pendingError;
+
+        /**
+         * Creates a new subscription.
+         *
+         * @param subscriber subscriber receiving items
+         * @param overflow   what happens when the buffer is full
+         */
+        private PortSubscription(Flow.Subscriber<? super PortNotification> subscriber,
+                                 Overflow overflow) {
+            this.subscriber = subscriber;
+            this.overflow = overflow;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (pendingError == null) {
+                    pendingError = new IllegalArgumentException(
+                            "Requested items must be positive: " + n);
+                }
+                deliver();
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            deliver();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+                pendingSummary = null;
+                notifyAll();
+            }
+        }
+
+        /* Buffers an event, waiting for room or dropping it if the buffer is full */
+        private void offer(PortEvent event) {
+            synchronized (this) {
+                if (!awaitRoom() || pendingSummary != null) {
+                    dropped++;
+                    return;
+                }
+                buffer.add(event);
+            }
+            deliver();
+        }
+
+        /* Buffers a summary, waiting for room or coalescing it if the buffer is full */
+        private void offerSummary(PortTickSummary summary) {
+            synchronized (this) {
+                PortTickSummary merged = pendingSummary == null ? summary
+                        : pendingSummary.coalesce(summary);
+                merged = merged.withDroppedEvents(dropped);
+                dropped = 0;
+                if (awaitRoom()) {
+                    buffer.add(merged);
+                    pendingSummary = null;
+                } else {
+                    pendingSummary = merged;
+                }
+            }
+            deliver();
+        }
+
+        /**
+         * Waits until the buffer has room if the subscriber throttles the simulation.
+         * Must be called while holding this subscription's lock.
+         *
+         * @return true if the buffer has room, false if the item should be dropped
+         */
+        private boolean awaitRoom() {
+            if (overflow == Overflow.THROTTLE) {
+                while (buffer.size() >= bufferCapacity && !done) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+            return !done && buffer.size() < bufferCapacity;
+        }
+
+        /* Completes the subscriber once every buffered item has been delivered */
+        private void complete() {
+            completing = true;
+            deliver();
+        }
+
+        /* Starts delivery on the executor unless it is already running */
+        private void deliver() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Delivers buffered items while the subscriber has demand, then any pending error
+         * or completion. Every signal to the subscriber after onSubscribe is made here, so
+         * signals are never concurrent.
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                while (!done && pendingError == null && demand.get() > 0) {
+                    PortNotification next;
+                    synchronized (this) {
+                        next = buffer.poll();
+                        if (next == null && pendingSummary != null) {
+                            next = pendingSummary.withDroppedEvents(dropped);
+                            pendingSummary = null;
+                            dropped = 0;
+                        }
+                        notifyAll();
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(next);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        subscriber.onError(e);
+                    }
+                }
+                if (pendingError != null && !done) {
+                    cancel();
+                    subscriber.onError(pendingError);
+                }
+                if (completing && !done) {
+                    boolean drained;
+                    synchronized (this) {
+                        drained = buffer.isEmpty() && pendingSummary == null;
+                    }
+                    if (drained) {
+                        done = true;
+                        subscriber.onComplete();
+                    }
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
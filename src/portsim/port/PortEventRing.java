@@ -0,0 +1,478 @@
+package portsim.port;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A preallocated single-producer ring buffer that carries a {@link Port}'s events to
+ * handlers running on their own threads.
+ * <p>
+ * Attached with {@link Port#setEventRing(PortEventRing)}, the port writes each event
+ * into the next free slot of the ring and marks the end of every tick, so publishing
+ * costs a handful of field stores and no allocation. Each handler added with
+ * {@link #addHandler(String, Handler)} gets its own consumer thread that reads every
+ * slot in order. If the slowest handler falls a full ring behind, the simulation waits
+ * for it rather than dropping events.
+ * <p>
+ * {@link #awaitTime(long, long)} is a barrier for queries: once it returns true, every
+ * handler has processed every event up to and including the end of the given simulated
+ * minute, so the results it exposes are consistent up to that time.
+ * <p>
+ * Ships, quays and cargo keep changing on the simulation thread while handlers run, so
+ * the ring never hands them to handlers. Each slot instead holds immutable values copied
+ * when the event was published: the ship's IMO number, the quay's ID and the number of
+ * pieces of cargo involved. Handlers must not look these up in the ship registry or the
+ * port and read the objects found, as nothing orders those reads with the simulation.
+ */
+public class PortEventRing implements Closeable {
+
+    /**
+     * Number of times a waiting thread spins before parking.
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * Nanoseconds a waiting thread parks for between checks.
+     */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * The preallocated slots of the ring.
+     */
+    private final Slot[] slots;
+
+    /**
+     * Mask mapping a sequence number to its slot index.
+     */
+    private final int mask;
+
+    /**
+     * Sequence number of the last slot published by the producer.
+     */
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    /**
+     * The consumers reading the ring.
+     */
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    /**
+     * Sequence number of the next slot to be written, only used by the producer.
+     */
+    private long next;
+
+    /**
+     * The lowest sequence processed by every consumer when last checked, only used by the
+     * producer.
+     */
+    private long cachedMinimum = -1;
+
+    /**
+     * Whether the consumer threads have been started.
+     */
+    private volatile boolean started;
+
+    /**
+     * Whether the ring has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a new ring with the given number of slots.
+     *
+     * @param capacity number of slots, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity &lt; 1
+     */
+    public PortEventRing(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the number of slots in the ring.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Adds a handler that will read every event on its own thread.
+     * <p>
+     * Handlers must be added before {@link #start()}.
+     *
+     * @param name    name of the handler's thread
+     * @param handler handler to call
+     * @throws IllegalStateException if the ring has already been started
+     */
+    public void addHandler(String name, Handler handler) throws IllegalStateException {
+        if (started) {
+            throw new IllegalStateException("Handlers must be added before the ring starts");
+        }
+        consumers.add(new Consumer(name, handler));
+    }
+
+    /**
+     * Starts a daemon thread for each handler.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (Consumer consumer : consumers) {
+            Thread thread = new Thread(consumer, consumer.name);
+            thread.setDaemon(true);
+            consumer.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Writes an event into the next slot. Called by the port on the simulation thread.
+     * <p>
+     * Events cannot be published before the ring is started, as no consumer would free the
+     * slots they are written to.
+     *
+     * @param type       kind of change
+     * @param time       simulation time of the change
+     * @param imoNumber  IMO number of the ship involved, or -1 if no ship was involved
+     * @param quayId     ID of the quay involved, or -1 if no quay was involved
+     * @param cargoCount number of pieces of cargo involved
+     * @throws IllegalStateException if the ring has not been started
+     */
+    void publish(PortEventType type, long time, long imoNumber, int quayId,
+                 int cargoCount) {
+        Slot slot = claim();
+        slot.type = type;
+        slot.time = time;
+        slot.imoNumber = imoNumber;
+        slot.quayId = quayId;
+        slot.cargoCount = cargoCount;
+        cursor.lazySet(next++);
+    }
+
+    /**
+     * Marks the end of the given simulated minute. Called by the port on the simulation
+     * thread.
+     *
+     * @param time simulation time of the tick that ended
+     * @throws IllegalStateException if the ring has not been started
+     */
+    void publishTick(long time) {
+        Slot slot = claim();
+        slot.type = null;
+        slot.time = time;
+        slot.imoNumber = -1;
+        slot.quayId = -1;
+        slot.cargoCount = 0;
+        cursor.lazySet(next++);
+    }
+
+    /* Waits until the next slot is no longer being read by any consumer */
+    private Slot claim() {
+        if (!started) {
+            throw new IllegalStateException("The ring must be started before events are "
+                    + "published");
+        }
+        long wrapPoint = next - slots.length;
+        if (wrapPoint > cachedMinimum && !consumers.isEmpty()) {
+            int tries = 0;
+            while (wrapPoint > (cachedMinimum = minimumSequence())) {
+                if (closed) {
+                    break;
+                }
+                tries = idle(tries);
+            }
+        }
+        return slots[(int) (next & mask)];
+    }
+
+    /* Returns the lowest sequence processed by every consumer */
+    private long minimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    /* Spins, then parks briefly; returns the updated number of tries */
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * Waits until every handler has processed every event up to the end of the given
+     * simulated minute.
+     *
+     * @param time         simulation time in minutes
+     * @param timeoutNanos maximum time to wait, in nanoseconds
+     * @return true if every handler reached the time, false if the wait timed out or the
+     * ring was closed first
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public boolean awaitTime(long time, long timeoutNanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        int tries = 0;
+        while (true) {
+            boolean reached = true;
+            for (Consumer consumer : consumers) {
+                if (consumer.processedTime < time) {
+                    reached = false;
+                    break;
+                }
+            }
+            if (reached) {
+                return true;
+            }
+            if (closed || System.nanoTime() > deadline) {
+                return false;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            tries = idle(tries);
+        }
+    }
+
+    /**
+     * Returns the number of exceptions and errors thrown by handlers. A handler that throws
+     * keeps receiving later events.
+     *
+     * @return handler failures
+     */
+    public long getFailures() {
+        long failures = 0;
+        for (Consumer consumer : consumers) {
+            failures += consumer.failures;
+        }
+        return failures;
+    }
+
+    /**
+     * Stops the consumer threads once they have processed every event published so far,
+     * waiting up to one second for each.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Consumer consumer : consumers) {
+            if (consumer.thread != null) {
+                try {
+                    consumer.thread.join(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives the events read from a ring on the handler's own thread.
+     */
+    public interface Handler {
+        /**
+         * Called for each event, in the order the port published them.
+         * <p>
+         * The slot is reused once the call returns, so its values must be copied if they
+         * are needed later.
+         *
+         * @param event slot holding the event
+         */
+        void onEvent(Slot event);
+
+        /**
+         * Called after every event of a simulated minute has been passed to
+         * {@link #onEvent(Slot)}.
+         *
+         * @param time simulation time of the tick that ended, in minutes
+         */
+        default void onTick(long time) {
+        }
+    }
+
+    /**
+     * A reusable slot of the ring holding one event.
+     */
+    public static final class Slot {
+
+        /**
+         * The kind of change, or null if this slot marks the end of a tick.
+         */
+        private PortEventType type;
+
+        /**
+         * The simulation time of the change, in minutes.
+         */
+        private long time;
+
+        /**
+         * The IMO number of the ship involved, or -1.
+         */
+        private long imoNumber;
+
+        /**
+         * The ID of the quay involved, or -1.
+         */
+        private int quayId;
+
+        /**
+         * The number of pieces of cargo involved.
+         */
+        private int cargoCount;
+
+        /**
+         * Creates an empty slot.
+         */
+        private Slot() {
+        }
+
+        /**
+         * Returns the kind of change.
+         *
+         * @return event type
+         */
+        public PortEventType getType() {
+            return type;
+        }
+
+        /**
+         * Returns the simulation time of the change.
+         *
+         * @return time in minutes
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Returns the IMO number of the ship involved in the change.
+         *
+         * @return IMO number, or -1 if no ship was involved
+         */
+        public long getImoNumber() {
+            return imoNumber;
+        }
+
+        /**
+         * Returns the ID of the quay involved in the change.
+         *
+         * @return quay ID, or -1 if no quay was involved
+         */
+        public int getQuayId() {
+            return quayId;
+        }
+
+        /**
+         * Returns the number of pieces of cargo involved in the change.
+         *
+         * @return cargo count, or 0 if no cargo was involved
+         */
+        public int getCargoCount() {
+            return cargoCount;
+        }
+    }
+
+    /**
+     * A handler together with its thread and progress through the ring.
+     */
+    private final class Consumer implements Runnable {
+
+        /**
+         * Name of the consumer's thread.
+         */
+        private final String name;
+
+        /**
+         * The handler called for each event.
+         */
+        private final Handler handler;
+
+        /**
+         * Sequence number of the last slot this consumer finished with.
+         */
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        /**
+         * The last simulated minute whose events this consumer has fully processed.
+         */
+        private volatile long processedTime = Long.MIN_VALUE;
+
+        /**
+         * Number of exceptions and errors thrown by the handler.
+         */
+        private volatile long failures;
+
+        /**
+         * The consumer's thread, once started.
+         */
+        private Thread thread;
+
+        /**
+         * Creates a new consumer.
+         *
+         * @param name    name of the consumer's thread
+         * @param handler handler called for each event
+         */
+        private Consumer(String name, Handler handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            long nextSequence = sequence.get() + 1;
+            int tries = 0;
+            while (true) {
+                long available = cursor.get();
+                if (available < nextSequence) {
+                    if (closed) {
+                        return;
+                    }
+                    tries = idle(tries);
+                    continue;
+                }
+                tries = 0;
+                for (; nextSequence <= available; nextSequence++) {
+                    Slot slot = slots[(int) (nextSequence & mask)];
+                    try {
+                        if (slot.type == null) {
+                            handler.onTick(slot.time);
+                        } else {
+                            handler.onEvent(slot);
+                        }
+                    } catch (Throwable e) {
+                        /* An escaping error would end the thread and stall the producer */
+                        failures++;
+                    }
+                    if (slot.type == null) {
+                        processedTime = slot.time;
+                    }
+                }
+                sequence.lazySet(available);
+            }
+        }
+    }
+}
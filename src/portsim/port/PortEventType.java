@@ -0,0 +1,41 @@
+package portsim.port;
+
+/**
+ * The kinds of change a {@link Port} publishes on its {@link PortEventBus}.
+ */
+public enum PortEventType {
+    /**
+     * A ship arrived at the port and joined the ship queue.
+     */
+    SHIP_INBOUND,
+
+    /**
+     * A ship left the port, loading any cargo bound for its origin.
+     */
+    SHIP_OUTBOUND,
+
+    /**
+     * Cargo arrived at the port's warehouses.
+     */
+    CARGO_INBOUND,
+
+    /**
+     * Cargo left the port's warehouses.
+     */
+    CARGO_OUTBOUND,
+
+    /**
+     * A ship docked at a quay.
+     */
+    DOCK,
+
+    /**
+     * A ship departed from a quay.
+     */
+    DEPART,
+
+    /**
+     * The cargo of a docked ship was unloaded into the port's warehouses.
+     */
+    UNLOAD
+}
@@ -0,0 +1,360 @@
+package portsim.port;
+
+import portsim.cargo.Cargo;
+import portsim.ship.Ship;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A bounded, time-indexed record of the states a {@link Port} has been in.
+ * <p>
+ * Once attached with {@link Port#setHistory(PortHistory)}, the port records a new
+ * {@link PortState} at the end of every minute in which its quays, ship queue or stored
+ * cargo changed. Minutes in which nothing changed cost nothing. States are indexed by
+ * time, so {@link #getStateAt(long)} answers "what did the port look like at this time?"
+ * in logarithmic time.
+ * <p>
+ * At most {@code capacity} states are retained; once full, the oldest state is discarded
+ * for each new one recorded.
+ * <p>
+ * A changed component is recorded as the difference from the previous state. The ship
+ * queue and stored cargo only grow while the simulation runs, so each state holds a prefix
+ * of a shared log that new ships and cargo are appended to; only a state recorded after a
+ * ship was polled from the queue, or cargo removed from the port, copies that component.
+ * Docked ships are recorded as the quays whose ship changed, with a complete record
+ * written once the changes outnumber the quays.
+ */
+public class PortHistory {
+
+    /**
+     * Flag marking that the ship queue changed.
+     */
+    static final int QUEUE = 1;
+
+    /**
+     * Flag marking that a ship docked at or departed from a quay, or a quay was added.
+     */
+    static final int QUAYS = 1 << 1;
+
+    /**
+     * Flag marking that the port's stored cargo changed.
+     */
+    static final int STORED_CARGO = 1 << 2;
+
+    /**
+     * Every component flag combined.
+     */
+    static final int ALL = QUEUE | QUAYS | STORED_CARGO;
+
+    /**
+     * The recorded states, keyed by the time they were recorded at.
+     */
+    private final TreeMap<Long, PortState> states = new TreeMap<>();
+
+    /**
+     * The maximum number of states retained.
+     */
+    private final int capacity;
+
+    /**
+     * The most recently recorded state, or null if none has been recorded.
+     */
+    private PortState latest;
+
+    /**
+     * The port the most recent state was recorded from, or null if none has been recorded.
+     */
+    private Port recordedPort;
+
+    /**
+     * The ship docked at each of the recorded port's quays as of the most recent state,
+     * keyed by quay ID in the port's quay order.
+     */
+    private final Map<Integer, Ship> docked = new LinkedHashMap<>();
+
+    /**
+     * The log the recorded ship queues are prefixes of.
+     */
+    private Log<Ship> queueLog;
+
+    /**
+     * The log the recorded stored cargo lists are prefixes of.
+     */
+    private Log<Cargo> cargoLog;
+
+    /**
+     * Creates a new, empty history retaining at most the given number of states.
+     *
+     * @param capacity maximum number of states retained
+     * @throws IllegalArgumentException if capacity &lt; 1
+     */
+    public PortHistory(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the current state of the given port, sharing every component not flagged as
+     * changed with the previously recorded state.
+     *
+     * @param port    port to record
+     * @param changed bitwise combination of the component flags that changed since the
+     *                previous state was recorded
+     */
+    void record(Port port, int changed) {
+        if (changed == 0 && latest != null) {
+            return;
+        }
+        if (latest == null || port != recordedPort) {
+            changed = ALL;
+            recordedPort = port;
+            queueLog = null;
+            cargoLog = null;
+        }
+        PortState.DockedShips dockedShips = latest == null ? null : latest.dockedShips();
+        Set<Integer> quayIds = latest == null ? null : latest.quayIds();
+        if ((changed & QUAYS) != 0) {
+            Map<Integer, Ship> changes = changedQuays(port, quayIds != null);
+            if (changes == null) {
+                quayIds = Collections.unmodifiableSet(new LinkedHashSet<>(docked.keySet()));
+                dockedShips = completeRecord();
+            } else if (!changes.isEmpty()) {
+                dockedShips = dockedShips.getRecorded() + changes.size() > docked.size()
+                        ? completeRecord() : new PortState.DockedShips(dockedShips, changes);
+            }
+        }
+        List<Ship> shipQueue = latest == null ? null : latest.getShipQueue();
+        if ((changed & QUEUE) != 0) {
+            ShipQueue queue = port.getShipQueue();
+            queueLog = Log.follow(queueLog, queue, queue.getPolledCount(),
+                    queue.getShipQueueView());
+            shipQueue = queueLog.prefix();
+        }
+        List<Cargo> storedCargo = latest == null ? null : latest.getStoredCargo();
+        if ((changed & STORED_CARGO) != 0) {
+            Warehouse warehouse = port.getWarehouse();
+            cargoLog = Log.follow(cargoLog, warehouse, warehouse.getRemovalCount(),
+                    warehouse);
+            storedCargo = cargoLog.prefix();
+        }
+        latest = new PortState(port.currentTime(), quayIds, dockedShips, shipQueue,
+                storedCargo);
+        states.put(latest.getTime(), latest);
+        while (states.size() > capacity) {
+            states.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Returns the state the port was in at the given time.
+     *
+     * @param time simulation time, in minutes
+     * @return the latest state recorded at or before the time, or null if the time is
+     * before the earliest retained state
+     */
+    public PortState getStateAt(long time) {
+        Map.Entry<Long, PortState> entry = states.floorEntry(time);
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Returns the most recently recorded state.
+     *
+     * @return latest state, or null if none has been recorded
+     */
+    public PortState getLatestState() {
+        return latest;
+    }
+
+    /**
+     * Returns the time of the earliest retained state; queries before this time cannot
+     * be answered.
+     *
+     * @return earliest time in minutes, or -1 if no state has been recorded
+     */
+    public long getEarliestTime() {
+        return states.isEmpty() ? -1 : states.firstKey();
+    }
+
+    /**
+     * Returns the number of states currently retained.
+     *
+     * @return retained states
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /*
+     * Updates the docked ships to match the port's quays and returns the quays whose ship
+     * changed, or null if the port's quays themselves changed and must be recorded again
+     */
+    private Map<Integer, Ship> changedQuays(Port port, boolean known) {
+        List<Quay> quays = port.getQuayView();
+        Map<Integer, Ship> changes = new HashMap<>();
+        if (known && quays.size() == docked.size()) {
+            Iterator<Map.Entry<Integer, Ship>> entries = docked.entrySet().iterator();
+            for (int i = 0; i < quays.size(); i++) {
+                Quay quay = quays.get(i);
+                Map.Entry<Integer, Ship> entry = entries.next();
+                if (entry.getKey() != quay.getId()) {
+                    changes = null;
+                    break;
+                }
+                if (entry.getValue() != quay.getShip()) {
+                    entry.setValue(quay.getShip());
+                    changes.put(quay.getId(), quay.getShip());
+                }
+            }
+            if (changes != null) {
+                return changes;
+            }
+        }
+        docked.clear();
+        for (int i = 0; i < quays.size(); i++) {
+            docked.put(quays.get(i).getId(), quays.get(i).getShip());
+        }
+        return null;
+    }
+
+    /* Returns a complete record of the docked ships */
+    private PortState.DockedShips completeRecord() {
+        return new PortState.DockedShips(null,
+                Collections.unmodifiableMap(new HashMap<>(docked)));
+    }
+
+    /**
+     * A list that is only appended to, following a source list that has only been
+     * appended to since the log last caught up with it. Prefixes of the log are shared
+     * between states as immutable lists.
+     *
+     * @param <E> type of the elements logged
+     */
+    private static final class Log<E> {
+
+        /**
+         * The object whose elements are logged.
+         */
+        private final Object source;
+
+        /**
+         * The number of elements the source had had removed when the log was created.
+         */
+        private final long removals;
+
+        /**
+         * The elements logged, in the order they were appended to the source.
+         */
+        private final List<E> elements;
+
+        /**
+         * The most recently returned prefix, or null if none has been returned.
+         */
+        private Prefix<E> prefix;
+
+        /**
+         * Creates a new log holding a copy of the source's elements.
+         *
+         * @param source   object whose elements are logged
+         * @param removals number of elements removed from the source so far
+         * @param elements the source's elements
+         */
+        private Log(Object source, long removals, List<? extends E> elements) {
+            this.source = source;
+            this.removals = removals;
+            this.elements = new ArrayList<>(elements);
+        }
+
+        /**
+         * Returns a log that has caught up with the given source. The given log is
+         * extended if the source has only been appended to since, and a new log is
+         * created otherwise.
+         *
+         * @param log      log following the source, or null
+         * @param source   object whose elements are logged
+         * @param removals number of elements removed from the source so far
+         * @param elements the source's elements
+         * @param <E>      type of the elements logged
+         * @return log holding the source's elements
+         */
+        private static <E> Log<E> follow(Log<E> log, Object source, long removals,
+                                         List<? extends E> elements) {
+            if (log == null || log.source != source || log.removals != removals
+                    || elements.size() < log.elements.size()) {
+                return new Log<>(source, removals, elements);
+            }
+            for (int i = log.elements.size(); i < elements.size(); i++) {
+                log.elements.add(elements.get(i));
+            }
+            return log;
+        }
+
+        /**
+         * Returns an immutable list of the elements logged so far, which later appends
+         * do not change.
+         *
+         * @return prefix of the log
+         */
+        private List<E> prefix() {
+            if (prefix == null || prefix.size != elements.size()) {
+                prefix = new Prefix<>(elements, elements.size());
+            }
+            return prefix;
+        }
+    }
+
+    /**
+     * An immutable view of the first elements of a list that is only appended to.
+     *
+     * @param <E> type of the elements
+     */
+    private static final class Prefix<E> extends AbstractList<E> implements RandomAccess {
+
+        /**
+         * The list this is a prefix of.
+         */
+        private final List<E> elements;
+
+        /**
+         * The number of elements in the prefix.
+         */
+        private final int size;
+
+        /**
+         * Creates a new prefix.
+         *
+         * @param elements list this is a prefix of
+         * @param size     number of elements in the prefix
+         */
+        private Prefix(List<E> elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,651 @@
+package portsim.port;
+
+import portsim.cargo.Cargo;
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.RecurringMovement;
+import portsim.movement.ShipMovement;
+import portsim.ship.Ship;
+import portsim.util.BadEncodingException;
+import portsim.util.NoSuchShipException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An append-only journal of every change a {@link Port} applies to its state.
+ * <p>
+ * Together with a periodic snapshot written by {@link #checkpoint(Port, Path)}, the journal
+ * allows a long-running simulation to be recovered after a crash with
+ * {@link #recover(Path, Path)}: the snapshot is loaded and the journal tail is replayed on
+ * top of it. Entries are buffered and forced to disk once every {@code syncInterval}
+ * entries, so at most that many entries can be lost in a crash.
+ * <p>
+ * Each journal file is identified by the {@code Journal} entry it starts with. A snapshot
+ * is the port's encoding followed by a {@code Checkpoint:journalID} line naming the
+ * journal whose entries it already holds. If a crash leaves that journal in place after the
+ * snapshot is written, recovery skips it rather than applying its entries a second time.
+ * <p>
+ * Each entry is written on its own line in one of the following formats:
+ * <ul>
+ *     <li>{@code Journal:journalID} - identifies the journal file</li>
+ *     <li>{@code Time:time} - the simulation time of the entries that follow</li>
+ *     <li>{@code Schedule:EncodedMovement} - a movement was added to the port</li>
+ *     <li>{@code Movement:EncodedMovement} - a movement was processed</li>
+ *     <li>{@code Recurring:EncodedRecurringMovement} - a recurring movement was added to
+ *     the port</li>
+ *     <li>{@code Queue:imoNumber} - a ship joined the ship queue</li>
+ *     <li>{@code Dock:quayId:imoNumber} - a ship docked at a quay</li>
+ *     <li>{@code Depart:quayId} - the ship at a quay departed</li>
+ *     <li>{@code Load:imoNumber:cargoID} - stored cargo was loaded onto a ship</li>
+ *     <li>{@code Store:cargoID,cargoID} - cargo was added to the port's warehouses</li>
+ *     <li>{@code Remove:cargoID,cargoID} - cargo was removed from the port's warehouses</li>
+ *     <li>{@code Unregister:cargoID,cargoID} - cargo was removed from the cargo registry</li>
+ * </ul>
+ * Processed movements are recorded for auditing only; their effects are replayed from the
+ * entries that follow them.
+ */
+public class PortJournal implements Closeable {
+
+    /**
+     * Default number of entries written between each flush to disk.
+     */
+    public static final int DEFAULT_SYNC_INTERVAL = 1024;
+
+    /**
+     * Prefix of the line naming the journal a snapshot supersedes.
+     */
+    private static final String CHECKPOINT_PREFIX = "Checkpoint:";
+
+    /**
+     * Prefix of the entry identifying a journal file.
+     */
+    private static final String JOURNAL_PREFIX = "Journal:";
+
+    /**
+     * The file this journal is written to.
+     */
+    private final Path file;
+
+    /**
+     * Identifier of the journal file currently being written to.
+     */
+    private String id;
+
+    /**
+     * Number of entries written between each flush to disk.
+     */
+    private final int syncInterval;
+
+    /**
+     * Stream the journal file is written through.
+     */
+    private FileOutputStream stream;
+
+    /**
+     * Buffered writer over {@link #stream}.
+     */
+    private Writer writer;
+
+    /**
+     * Number of entries written since the last flush to disk.
+     */
+    private int unsynced;
+
+    /**
+     * Simulation time of the most recent {@code Time} entry, or -1 if none has been written.
+     */
+    private long writtenTime = -1;
+
+    /**
+     * Number of simulated minutes between automatic checkpoints, or 0 if disabled.
+     */
+    private long checkpointInterval;
+
+    /**
+     * File automatic checkpoints are written to, or null if disabled.
+     */
+    private Path checkpointFile;
+
+    /**
+     * Opens the journal at the given file for appending, flushing to disk every
+     * {@link #DEFAULT_SYNC_INTERVAL} entries.
+     *
+     * @param file journal file, created if it does not exist
+     * @throws IOException if the file could not be opened
+     */
+    public PortJournal(Path file) throws IOException {
+        this(file, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Opens the journal at the given file for appending.
+     *
+     * @param file         journal file, created if it does not exist
+     * @param syncInterval number of entries written between each flush to disk
+     * @throws IOException              if the file could not be opened
+     * @throws IllegalArgumentException if syncInterval &lt; 1
+     */
+    public PortJournal(Path file, int syncInterval) throws IOException {
+        if (syncInterval < 1) {
+            throw new IllegalArgumentException("Sync interval must be at least 1: "
+                    + syncInterval);
+        }
+        this.file = file;
+        this.syncInterval = syncInterval;
+        open(true);
+    }
+
+    /*
+     * Opens the journal file, either appending to or truncating any existing contents. A
+     * new or truncated file is given a new identifier, written as its first entry.
+     */
+    private void open(boolean append) throws IOException {
+        String existingId = null;
+        boolean empty = true;
+        if (append && Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file,
+                    StandardCharsets.UTF_8)) {
+                String first = reader.readLine();
+                empty = first == null;
+                if (!empty && first.startsWith(JOURNAL_PREFIX)) {
+                    existingId = first.substring(JOURNAL_PREFIX.length());
+                }
+            }
+        }
+        this.stream = new FileOutputStream(file.toFile(), append);
+        this.writer = new BufferedWriter(new OutputStreamWriter(stream,
+                StandardCharsets.UTF_8));
+        this.unsynced = 0;
+        this.writtenTime = -1;
+        this.id = existingId != null ? existingId : UUID.randomUUID().toString();
+        if (empty) {
+            try {
+                writer.write(JOURNAL_PREFIX + id);
+                writer.write(System.lineSeparator());
+                unsynced++;
+            } catch (IOException e) {
+                writer.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the file this journal is written to.
+     *
+     * @return journal file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Takes a checkpoint every {@code minutes} minutes of simulated time, writing the
+     * snapshot to the given file.
+     * <p>
+     * Passing 0 minutes disables automatic checkpoints.
+     *
+     * @param minutes  number of simulated minutes between checkpoints
+     * @param snapshot file each snapshot is written to
+     * @throws IllegalArgumentException if minutes &lt; 0
+     */
+    public void setCheckpointInterval(long minutes, Path snapshot)
+            throws IllegalArgumentException {
+        if (minutes < 0) {
+            throw new IllegalArgumentException("Checkpoint interval must not be negative: "
+                    + minutes);
+        }
+        this.checkpointInterval = minutes;
+        this.checkpointFile = minutes == 0 ? null : snapshot;
+    }
+
+    /**
+     * Called by the port once it has finished elapsing a minute, taking a checkpoint if one
+     * is due.
+     *
+     * @param port port that elapsed a minute
+     */
+    void onTick(Port port) {
+        if (checkpointFile != null && port.currentTime() % checkpointInterval == 0) {
+            try {
+                checkpoint(port, checkpointFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write checkpoint "
+                        + checkpointFile, e);
+            }
+        }
+    }
+
+    /**
+     * Records that a movement was added to the port's schedule.
+     *
+     * @param time     current simulation time
+     * @param movement movement that was added
+     */
+    void scheduled(long time, Movement movement) {
+        append(time, "Schedule:" + movement.encode());
+    }
+
+    /**
+     * Records that a recurring movement was added to the port.
+     *
+     * @param time              current simulation time
+     * @param recurringMovement recurring movement that was added
+     */
+    void recurring(long time, RecurringMovement recurringMovement) {
+        append(time, "Recurring:" + recurringMovement.encode());
+    }
+
+    /**
+     * Records that a movement was processed.
+     *
+     * @param time     current simulation time
+     * @param movement movement that was processed
+     */
+    void processed(long time, Movement movement) {
+        append(time, "Movement:" + movement.encode());
+    }
+
+    /**
+     * Records that a ship joined the ship queue.
+     *
+     * @param time current simulation time
+     * @param ship ship that joined the queue
+     */
+    void queued(long time, Ship ship) {
+        append(time, "Queue:" + ship.getImoNumber());
+    }
+
+    /**
+     * Records that a ship docked at a quay.
+     *
+     * @param time current simulation time
+     * @param quay quay the ship docked at
+     * @param ship ship that docked
+     */
+    void docked(long time, Quay quay, Ship ship) {
+        append(time, "Dock:" + quay.getId() + ":" + ship.getImoNumber());
+    }
+
+    /**
+     * Records that the ship at a quay departed.
+     *
+     * @param time current simulation time
+     * @param quay quay the ship departed from
+     */
+    void departed(long time, Quay quay) {
+        append(time, "Depart:" + quay.getId());
+    }
+
+    /**
+     * Records that stored cargo was loaded onto a ship.
+     *
+     * @param time  current simulation time
+     * @param ship  ship the cargo was loaded onto
+     * @param cargo cargo that was loaded
+     */
+    void loaded(long time, Ship ship, Cargo cargo) {
+        append(time, "Load:" + ship.getImoNumber() + ":" + cargo.getId());
+    }
+
+    /**
+     * Records that cargo was added to the port's warehouses.
+     *
+     * @param time  current simulation time
+     * @param cargo cargo that was stored
+     */
+    void stored(long time, List<? extends Cargo> cargo) {
+        if (!cargo.isEmpty()) {
+            append(time, "Store:" + joinIds(cargo));
+        }
+    }
+
+    /**
+     * Records that cargo was removed from the port's warehouses.
+     *
+     * @param time  current simulation time
+     * @param cargo cargo that was removed
+     */
+    void removed(long time, List<? extends Cargo> cargo) {
+        if (!cargo.isEmpty()) {
+            append(time, "Remove:" + joinIds(cargo));
+        }
+    }
+
+    /**
+     * Records that cargo was removed from the global cargo registry.
+     *
+     * @param time  current simulation time
+     * @param cargo cargo that was unregistered
+     */
+    void unregistered(long time, List<? extends Cargo> cargo) {
+        if (!cargo.isEmpty()) {
+            append(time, "Unregister:" + joinIds(cargo));
+        }
+    }
+
+    /* Joins the IDs of the given cargo with commas */
+    private static String joinIds(List<? extends Cargo> cargo) {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < cargo.size(); i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append(cargo.get(i).getId());
+        }
+        return ids.toString();
+    }
+
+    /* Appends a single entry, preceded by a Time entry if the time has changed */
+    private void append(long time, String entry) {
+        try {
+            if (time != writtenTime) {
+                writer.write("Time:" + time);
+                writer.write(System.lineSeparator());
+                writtenTime = time;
+                unsynced++;
+            }
+            writer.write(entry);
+            writer.write(System.lineSeparator());
+            if (++unsynced >= syncInterval) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to journal " + file, e);
+        }
+    }
+
+    /**
+     * Flushes all buffered entries and forces them to disk.
+     *
+     * @throws IOException if the entries could not be written
+     */
+    public void sync() throws IOException {
+        writer.flush();
+        stream.getChannel().force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Writes a snapshot of the given port and then starts a new, empty journal.
+     * <p>
+     * The snapshot is written to a temporary file which is moved over the given snapshot
+     * file once it is on disk, so a crash part way through leaves the previous snapshot in
+     * place. The snapshot names the journal it supersedes, so a crash after it is moved into
+     * place but before the new journal is started does not cause the old journal to be
+     * replayed on top of it. Checkpoints should be taken between calls to
+     * {@link Port#elapseOneMinute()}.
+     *
+     * @param port     port to snapshot, should be the port writing to this journal
+     * @param snapshot file the snapshot is written to
+     * @throws IOException if the snapshot or journal could not be written
+     */
+    public void checkpoint(Port port, Path snapshot) throws IOException {
+        sync();
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile());
+             Writer snapshotWriter = new BufferedWriter(new OutputStreamWriter(out,
+                     StandardCharsets.UTF_8))) {
+            snapshotWriter.write(port.encode());
+            snapshotWriter.write(System.lineSeparator());
+            snapshotWriter.write(CHECKPOINT_PREFIX + id);
+            snapshotWriter.flush();
+            out.getChannel().force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        writer.close();
+        open(false);
+        sync();
+    }
+
+    /**
+     * Flushes any buffered entries to disk and closes the journal.
+     *
+     * @throws IOException if the entries could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        sync();
+        writer.close();
+    }
+
+    /**
+     * Recovers a port by loading the given snapshot and replaying the given journal on top
+     * of it.
+     * <p>
+     * The journal is not replayed if the snapshot names it as already checkpointed.
+     *
+     * @param snapshot snapshot written by {@link #checkpoint(Port, Path)}
+     * @param journal  journal written after the snapshot was taken
+     * @return recovered port
+     * @throws IOException          if either file could not be read
+     * @throws BadEncodingException if either file is not valid
+     */
+    public static Port recover(Path snapshot, Path journal)
+            throws IOException, BadEncodingException {
+        String encoded = Files.readString(snapshot, StandardCharsets.UTF_8);
+        String checkpointedJournal = null;
+        int marker = encoded.lastIndexOf(System.lineSeparator() + CHECKPOINT_PREFIX);
+        if (marker >= 0) {
+            checkpointedJournal = encoded.substring(marker + System.lineSeparator().length()
+                    + CHECKPOINT_PREFIX.length()).trim();
+            encoded = encoded.substring(0, marker);
+        }
+        Port port = Port.initialisePort(new StringReader(encoded));
+        if (Files.exists(journal)) {
+            try (Reader journalReader = Files.newBufferedReader(journal,
+                    StandardCharsets.UTF_8)) {
+                replay(port, journalReader, checkpointedJournal);
+            }
+        }
+        return port;
+    }
+
+    /**
+     * Applies every entry read from the given reader to the given port.
+     * <p>
+     * Entries timestamped before the port's current time are skipped.
+     *
+     * @param port   port to apply the entries to
+     * @param reader reader to read journal entries from
+     * @return number of entries applied
+     * @throws IOException          if an IOException is encountered when reading
+     * @throws BadEncodingException if an entry is malformed or refers to an unknown ship,
+     *                              quay or cargo
+     */
+    public static long replay(Port port, Reader reader)
+            throws IOException, BadEncodingException {
+        return replay(port, reader, null);
+    }
+
+    /**
+     * Applies every entry read from the given reader to the given port, unless the journal
+     * is the one named by the snapshot the port was loaded from.
+     * <p>
+     * Entries timestamped before the port's current time are skipped. Skipping by time alone
+     * is not enough, as entries for the snapshot's own minute may have been written before
+     * it was taken; a journal superseded by the snapshot is therefore skipped entirely.
+     *
+     * @param port                port to apply the entries to
+     * @param reader              reader to read journal entries from
+     * @param checkpointedJournal identifier of the journal whose entries the port already
+     *                            holds, or null if none
+     * @return number of entries applied
+     * @throws IOException          if an IOException is encountered when reading
+     * @throws BadEncodingException if an entry is malformed or refers to an unknown ship,
+     *                              quay or cargo
+     */
+    public static long replay(Port port, Reader reader, String checkpointedJournal)
+            throws IOException, BadEncodingException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader
+                ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<Integer, Quay> quaysById = new HashMap<>();
+        for (Quay quay : port.getQuays()) {
+            quaysById.put(quay.getId(), quay);
+        }
+        Map<Integer, Cargo> unregistered = new HashMap<>();
+        for (Cargo cargo : port.getUnregisteredCargo()) {
+            unregistered.put(cargo.getId(), cargo);
+        }
+        final long startTime = port.currentTime();
+        long time = startTime;
+        long applied = 0;
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                throw new BadEncodingException("Malformed journal entry: " + line);
+            }
+            String type = line.substring(0, colon);
+            String body = line.substring(colon + 1);
+            if (type.equals("Time")) {
+                time = parseLong(body);
+                continue;
+            }
+            if (type.equals("Journal")) {
+                if (body.equals(checkpointedJournal)) {
+                    return 0;
+                }
+                continue;
+            }
+            if (time < startTime || type.equals("Movement")) {
+                continue;
+            }
+            port.restoreTime(time);
+            try {
+                switch (type) {
+                    case "Schedule":
+                        port.getMovements().add(scheduled(decodeMovement(body)));
+                        break;
+                    case "Recurring":
+                        port.addRecurringMovement(RecurringMovement.fromString(body));
+                        break;
+                    case "Queue":
+                        port.getShipQueue().add(Ship.getShipByImoNumber(parseLong(body)));
+                        break;
+                    case "Dock": {
+                        int split = body.indexOf(':');
+                        quayById(quaysById, body.substring(0, split)).shipArrives(
+                                Ship.getShipByImoNumber(parseLong(body.substring(split + 1))));
+                        break;
+                    }
+                    case "Depart":
+                        port.restoreDeparture(quayById(quaysById, body));
+                        break;
+                    case "Load": {
+                        int split = body.indexOf(':');
+                        Ship.getShipByImoNumber(parseLong(body.substring(0, split)))
+                                .loadCargo(cargoById(unregistered,
+                                        body.substring(split + 1)));
+                        break;
+                    }
+                    case "Store":
+                        for (String id : body.split(",")) {
+                            port.restoreStoredCargo(cargoById(unregistered, id));
+                        }
+                        break;
+                    case "Remove":
+                        for (String id : body.split(",")) {
+                            port.restoreRemovedCargo(parseInt(id));
+                        }
+                        break;
+                    case "Unregister":
+                        for (String id : body.split(",")) {
+                            Cargo removed = Cargo.getCargoRegistry().remove(parseInt(id));
+                            if (removed != null) {
+                                port.restoreUnregisteredCargo(removed);
+                                unregistered.put(removed.getId(), removed);
+                            }
+                        }
+                        break;
+                    default:
+                        throw new BadEncodingException("Unknown journal entry: " + line);
+                }
+            } catch (NoSuchShipException | IndexOutOfBoundsException e) {
+                throw new BadEncodingException("Invalid journal entry: " + line, e);
+            }
+            applied++;
+        }
+        port.restoreTime(time);
+        port.rescheduleRecurringMovements();
+        return applied;
+    }
+
+    /* Decodes a movement written by Movement.encode() */
+    private static Movement decodeMovement(String encoded) throws BadEncodingException {
+        if (encoded.startsWith(ShipMovement.class.getSimpleName() + ":")) {
+            return ShipMovement.fromString(encoded);
+        } else if (encoded.startsWith(CargoMovement.class.getSimpleName() + ":")) {
+            return CargoMovement.fromString(encoded);
+        }
+        throw new BadEncodingException("Unknown movement in journal: " + encoded);
+    }
+
+    /* Gives a decoded movement its sequence number before it is queued */
+    private static Movement scheduled(Movement movement) {
+        movement.markScheduled();
+        return movement;
+    }
+
+    /* Looks up a quay by its encoded ID */
+    private static Quay quayById(Map<Integer, Quay> quaysById, String id)
+            throws BadEncodingException {
+        Quay quay = quaysById.get(parseInt(id));
+        if (quay == null) {
+            throw new BadEncodingException("No quay with ID " + id);
+        }
+        return quay;
+    }
+
+    /*
+     * Looks up a cargo by its encoded ID in the cargo registry, then among the containers
+     * the port removed from the registry
+     */
+    private static Cargo cargoById(Map<Integer, Cargo> unregistered, String id)
+            throws BadEncodingException {
+        Cargo cargo = Cargo.getCargoRegistry().get(parseInt(id));
+        if (cargo == null) {
+            cargo = unregistered.get(parseInt(id));
+        }
+        if (cargo == null) {
+            throw new BadEncodingException("No cargo with ID " + id);
+        }
+        return cargo;
+    }
+
+    /* Parses a long, converting failures into BadEncodingExceptions */
+    private static long parseLong(String value) throws BadEncodingException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadEncodingException(e);
+        }
+    }
+
+    /* Parses an int, converting failures into BadEncodingExceptions */
+    private static int parseInt(String value) throws BadEncodingException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadEncodingException(e);
+        }
+    }
+}
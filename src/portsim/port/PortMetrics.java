@@ -0,0 +1,389 @@
+package portsim.port;
+
+import portsim.metrics.Counter;
+import portsim.metrics.MetricRegistry;
+import portsim.metrics.MetricsReporter;
+import portsim.metrics.Timer;
+import portsim.movement.Movement;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Counters, timers and gauges describing the work done by a {@link Port}.
+ * <p>
+ * The port updates these metrics as it runs. They can be read directly, sent to any
+ * number of {@link MetricsReporter}s at a fixed interval of simulated time, or published
+ * to the platform MBean server with {@link #registerMBean()}.
+ * <p>
+ * The port's collections are not thread-safe, so gauges describing them do not read them
+ * directly. Instead the port publishes their values at the end of every minute, and the
+ * gauges return the values as of the most recent minute. Counters and timers are updated
+ * as the port runs. All metrics are safe to read from any thread.
+ */
+public class PortMetrics implements PortMetricsMXBean {
+
+    /**
+     * The registry holding every metric of the port.
+     */
+    private final MetricRegistry registry = new MetricRegistry();
+
+    /**
+     * Time spent in each call to elapseOneMinute.
+     */
+    final Timer tick = registry.timer("port.tick");
+
+    /**
+     * Time spent docking ships on 10 minute ticks.
+     */
+    final Timer docking = registry.timer("port.docking");
+
+    /**
+     * Time spent unloading ships on 5 minute ticks.
+     */
+    final Timer unloading = registry.timer("port.unloading");
+
+    /**
+     * Time spent processing the movements due on each tick.
+     */
+    final Timer movements = registry.timer("port.movements");
+
+    /**
+     * Time spent updating statistics evaluators on each tick.
+     */
+    final Timer evaluators = registry.timer("port.evaluators");
+
+    /**
+     * Time spent in each call to encode.
+     */
+    final Timer save = registry.timer("port.save");
+
+    /**
+     * Time spent in initialisePort creating the port.
+     */
+    final Timer load = registry.timer("port.load");
+
+    /**
+     * Number of movements processed.
+     */
+    final Counter movementsProcessed = registry.counter("port.movements.processed");
+
+    /**
+     * Number of ships added to the ship queue.
+     */
+    final Counter shipsQueued = registry.counter("port.queue.added");
+
+    /**
+     * Number of ships docked from the ship queue.
+     */
+    final Counter shipsDocked = registry.counter("port.quays.docked");
+
+    /**
+     * Number of ships that departed from a quay.
+     */
+    final Counter shipsDeparted = registry.counter("port.quays.departed");
+
+    /**
+     * The port these metrics describe.
+     */
+    private final Port port;
+
+    /**
+     * Reporters to notify, each paired with its reporting period in minutes.
+     */
+    private final List<ScheduledReporter> reporters = new ArrayList<>();
+
+    /**
+     * Name under which these metrics are registered with the MBean server, if any.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Number of ships in the ship queue as of the end of the most recent minute.
+     */
+    private volatile long queueLength;
+
+    /**
+     * Number of quays with no ship docked as of the end of the most recent minute.
+     */
+    private volatile long freeQuays;
+
+    /**
+     * Number of pieces of cargo stored at the port as of the end of the most recent minute.
+     */
+    private volatile long storedCargo;
+
+    /**
+     * Number of movements due after the end of the most recent minute.
+     */
+    private volatile long movementsPending;
+
+    /**
+     * The port's ship queue as of the end of the most recent minute, whose counters are
+     * safe to read from any thread.
+     */
+    private volatile ShipQueue shipQueue = new ShipQueue();
+
+    /**
+     * Creates the metrics for the given port and registers its gauges.
+     *
+     * @param port port to measure
+     */
+    PortMetrics(Port port) {
+        this.port = port;
+        registry.gauge("port.queue.length", this::getQueueLength);
+        registry.gauge("port.quays.free", this::getFreeQuays);
+        registry.gauge("port.cargo.stored", this::getStoredCargoCount);
+        registry.gauge("port.movements.pending", this::getMovementsPending);
+        registry.gauge("port.queue.adds", this::getQueueAdds);
+        registry.gauge("port.queue.polls", this::getQueuePolls);
+    }
+
+    /**
+     * Returns the registry containing all of the port's metrics.
+     *
+     * @return metric registry
+     */
+    public MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Adds a reporter that is called every {@code periodMinutes} minutes of simulated time.
+     *
+     * @param reporter      reporter to add
+     * @param periodMinutes number of simulated minutes between reports
+     * @throws IllegalArgumentException if periodMinutes &lt; 1
+     */
+    public void addReporter(MetricsReporter reporter, long periodMinutes)
+            throws IllegalArgumentException {
+        if (periodMinutes < 1) {
+            throw new IllegalArgumentException("Reporting period must be at least"
+                    + " one minute: " + periodMinutes);
+        }
+        reporters.add(new ScheduledReporter(reporter, periodMinutes));
+    }
+
+    /**
+     * Removes a reporter previously added with {@link #addReporter(MetricsReporter, long)}.
+     *
+     * @param reporter reporter to remove
+     */
+    public void removeReporter(MetricsReporter reporter) {
+        reporters.removeIf(scheduled -> scheduled.reporter == reporter);
+    }
+
+    /**
+     * Publishes the current values of the gauges. Called by the port on the simulation
+     * thread, and does not allocate.
+     * <p>
+     * Each gauge is published separately, so a reader on another thread may see some
+     * gauges from one minute and the rest from the next.
+     */
+    void publishGauges() {
+        this.queueLength = port.getShipQueue().size();
+        this.freeQuays = port.countFreeQuays();
+        this.storedCargo = port.getStoredCargoCount();
+        this.movementsPending = countPendingMovements();
+        this.shipQueue = port.getShipQueue();
+    }
+
+    /*
+     * Counts the movements due after the current time. At the end of a minute every
+     * movement up to the current time has been removed from the queue, so only a port
+     * that has just been loaded needs to look through it.
+     */
+    private long countPendingMovements() {
+        PriorityQueue<Movement> movements = port.getMovements();
+        Movement next = movements.peek();
+        if (next == null || next.getTime() > port.currentTime()) {
+            return movements.size();
+        }
+        long pending = 0;
+        for (Movement movement : movements) {
+            if (movement.getTime() > port.currentTime()) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Publishes the current values of the gauges, then notifies every reporter whose
+     * period divides the given time.
+     *
+     * @param time current simulation time, in minutes
+     */
+    void onTick(long time) {
+        publishGauges();
+        for (int i = 0; i < reporters.size(); i++) {
+            ScheduledReporter scheduled = reporters.get(i);
+            if (time % scheduled.periodMinutes == 0) {
+                scheduled.reporter.report(time, registry);
+            }
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server so that they can be monitored
+     * with JMX clients such as JConsole.
+     * <p>
+     * The MBean is named {@code portsim:type=Port,name="PortName"}. Calling this method
+     * again has no effect.
+     *
+     * @return the name the MBean was registered under
+     * @throws JMException if the MBean could not be registered
+     */
+    public synchronized ObjectName registerMBean() throws JMException {
+        if (objectName == null) {
+            ObjectName name = new ObjectName("portsim:type=Port,name="
+                    + ObjectName.quote(port.getName()));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+        }
+        return objectName;
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if they were registered.
+     *
+     * @throws JMException if the MBean could not be unregistered
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public long getQueueLength() {
+        return queueLength;
+    }
+
+    @Override
+    public long getFreeQuays() {
+        return freeQuays;
+    }
+
+    @Override
+    public long getStoredCargoCount() {
+        return storedCargo;
+    }
+
+    @Override
+    public long getMovementsPending() {
+        return movementsPending;
+    }
+
+    @Override
+    public long getQueueAdds() {
+        return shipQueue.getAddedCount();
+    }
+
+    @Override
+    public long getQueuePolls() {
+        return shipQueue.getPolledCount();
+    }
+
+    @Override
+    public long getTicks() {
+        return tick.getCount();
+    }
+
+    @Override
+    public long getTickNanos() {
+        return tick.getTotalNanos();
+    }
+
+    @Override
+    public long getMaxTickNanos() {
+        return tick.getMaxNanos();
+    }
+
+    @Override
+    public long getDockingNanos() {
+        return docking.getTotalNanos();
+    }
+
+    @Override
+    public long getUnloadingNanos() {
+        return unloading.getTotalNanos();
+    }
+
+    @Override
+    public long getMovementNanos() {
+        return movements.getTotalNanos();
+    }
+
+    @Override
+    public long getEvaluatorNanos() {
+        return evaluators.getTotalNanos();
+    }
+
+    @Override
+    public long getMovementsProcessed() {
+        return movementsProcessed.getCount();
+    }
+
+    @Override
+    public long getShipsQueued() {
+        return shipsQueued.getCount();
+    }
+
+    @Override
+    public long getShipsDocked() {
+        return shipsDocked.getCount();
+    }
+
+    @Override
+    public long getShipsDeparted() {
+        return shipsDeparted.getCount();
+    }
+
+    @Override
+    public long getSaveNanos() {
+        return save.getTotalNanos();
+    }
+
+    @Override
+    public long getLoadNanos() {
+        return load.getTotalNanos();
+    }
+
+    /**
+     * A reporter paired with the number of simulated minutes between its reports.
+     */
+    private static class ScheduledReporter {
+
+        /**
+         * The reporter to notify.
+         */
+        private final MetricsReporter reporter;
+
+        /**
+         * Number of simulated minutes between reports.
+         */
+        private final long periodMinutes;
+
+        /**
+         * Creates a new scheduled reporter.
+         *
+         * @param reporter      reporter to notify
+         * @param periodMinutes minutes between reports
+         */
+        private ScheduledReporter(MetricsReporter reporter, long periodMinutes) {
+            this.reporter = reporter;
+            this.periodMinutes = periodMinutes;
+        }
+    }
+}
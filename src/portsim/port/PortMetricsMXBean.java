@@ -0,0 +1,142 @@
+package portsim.port;
+
+/**
+ * Management interface exposing the metrics of a {@link Port} through JMX.
+ * <p>
+ * All durations are reported in nanoseconds. Values describing the port's quays, ship
+ * queue, stored cargo and movements are as of the end of the most recent minute.
+ */
+public interface PortMetricsMXBean {
+    /**
+     * Returns the number of ships waiting in the port's ship queue.
+     *
+     * @return ship queue length
+     */
+    long getQueueLength();
+
+    /**
+     * Returns the number of quays with no ship docked.
+     *
+     * @return number of free quays
+     */
+    long getFreeQuays();
+
+    /**
+     * Returns the number of pieces of cargo stored at the port.
+     *
+     * @return stored cargo count
+     */
+    long getStoredCargoCount();
+
+    /**
+     * Returns the number of movements due after the current time.
+     *
+     * @return pending movement count
+     */
+    long getMovementsPending();
+
+    /**
+     * Returns the number of ships added to the port's current ship queue.
+     *
+     * @return ship queue additions
+     */
+    long getQueueAdds();
+
+    /**
+     * Returns the number of ships polled from the port's current ship queue.
+     *
+     * @return ship queue polls
+     */
+    long getQueuePolls();
+
+    /**
+     * Returns the number of minutes elapsed since the metrics were created.
+     *
+     * @return number of ticks
+     */
+    long getTicks();
+
+    /**
+     * Returns the total time spent in {@link Port#elapseOneMinute()}.
+     *
+     * @return total tick time
+     */
+    long getTickNanos();
+
+    /**
+     * Returns the longest time spent in a single call to {@link Port#elapseOneMinute()}.
+     *
+     * @return maximum tick time
+     */
+    long getMaxTickNanos();
+
+    /**
+     * Returns the total time spent docking ships from the ship queue.
+     *
+     * @return total docking phase time
+     */
+    long getDockingNanos();
+
+    /**
+     * Returns the total time spent unloading docked ships.
+     *
+     * @return total unloading phase time
+     */
+    long getUnloadingNanos();
+
+    /**
+     * Returns the total time spent processing movements.
+     *
+     * @return total movement processing time
+     */
+    long getMovementNanos();
+
+    /**
+     * Returns the total time spent updating statistics evaluators.
+     *
+     * @return total evaluator time
+     */
+    long getEvaluatorNanos();
+
+    /**
+     * Returns the number of movements processed.
+     *
+     * @return processed movement count
+     */
+    long getMovementsProcessed();
+
+    /**
+     * Returns the number of ships added to the ship queue.
+     *
+     * @return ships queued
+     */
+    long getShipsQueued();
+
+    /**
+     * Returns the number of ships docked at a quay from the ship queue.
+     *
+     * @return ships docked
+     */
+    long getShipsDocked();
+
+    /**
+     * Returns the number of ships that departed from a quay.
+     *
+     * @return ships departed
+     */
+    long getShipsDeparted();
+
+    /**
+     * Returns the total time spent encoding the port for saving.
+     *
+     * @return total save time
+     */
+    long getSaveNanos();
+
+    /**
+     * Returns the time spent loading the port from its save file.
+     *
+     * @return total load time
+     */
+    long getLoadNanos();
+}
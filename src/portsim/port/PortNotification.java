@@ -0,0 +1,14 @@
+package portsim.port;
+
+/**
+ * An item published to subscribers of a {@link PortEventPublisher}: either a single
+ * {@link PortEvent} or a {@link PortTickSummary}.
+ */
+public interface PortNotification {
+    /**
+     * Returns the simulation time the notification describes.
+     *
+     * @return time in minutes
+     */
+    long getTime();
+}
@@ -0,0 +1,106 @@
+package portsim.port;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event emitted when a port is loaded with
+ * {@link Port#initialisePort(java.io.Reader)} or saved with {@link Port#encode()}.
+ * <p>
+ * Events are only created while a recording has this event enabled.
+ */
+@Name("portsim.PortPersistence")
+@Label("Port Load/Save")
+@Category({"Port Simulation"})
+@Description("Reading or encoding the full state of a port")
+@Threshold("0 ms")
+class PortPersistenceEvent extends Event {
+
+    /**
+     * Operation name for loading a port.
+     */
+    static final String LOAD = "initialisePort";
+
+    /**
+     * Operation name for encoding a port.
+     */
+    static final String SAVE = "encode";
+
+    /**
+     * The registered type of this event, used to check whether it is enabled.
+     */
+    private static final EventType TYPE = EventType.getEventType(PortPersistenceEvent.class);
+
+    /**
+     * The operation performed.
+     */
+    @Label("Operation")
+    String operation;
+
+    /**
+     * The name of the port.
+     */
+    @Label("Port")
+    String portName;
+
+    /**
+     * Number of quays in the port.
+     */
+    @Label("Quays")
+    int quayCount;
+
+    /**
+     * Number of movements waiting to be processed.
+     */
+    @Label("Movements")
+    int movementCount;
+
+    /**
+     * Number of pieces of cargo stored at the port.
+     */
+    @Label("Stored Cargo")
+    int storedCargoCount;
+
+    /**
+     * Starts timing a load or save if this event is enabled in any recording.
+     *
+     * @return the started event, or null if the event is disabled
+     */
+    static PortPersistenceEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        PortPersistenceEvent event = new PortPersistenceEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a load or save and commits the event if it passes the threshold.
+     *
+     * @param event     event returned by {@link #start()}, may be null
+     * @param operation the operation performed
+     * @param port      the port that was loaded or saved, may be null if loading failed
+     */
+    static void finish(PortPersistenceEvent event, String operation, Port port) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            if (port != null) {
+                event.portName = port.getName();
+                event.quayCount = port.getQuays().size();
+                event.movementCount = port.getMovements().size();
+                event.storedCargoCount = port.getStoredCargoCount();
+            }
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package portsim.port;
+
+import portsim.cargo.Cargo;
+import portsim.evaluators.StatisticsEvaluator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A copy of a {@link Port} as it was at one point in simulation time, taken by
+ * {@link Port#snapshot()} so it can be encoded and saved without stopping the simulation.
+ * <p>
+ * A snapshot holds a detached fork of the port together with copies of the cargo registry,
+ * the encodings of every registered ship and the port's evaluators, so later changes to the
+ * port, its ships or the registries do not show in it. Once taken, a snapshot may be
+ * encoded and saved on any thread, one thread at a time.
+ */
+public class PortSnapshot {
+
+    /**
+     * Detached fork of the port holding its quays, ship queue, stored cargo and movements.
+     */
+    private final Port fork;
+
+    /**
+     * The cargo in the cargo registry, in registry order.
+     */
+    private final List<Cargo> cargo;
+
+    /**
+     * The encoding of each ship in the ship registry, in registry order.
+     */
+    private final List<String> encodedShips;
+
+    /**
+     * The simulation time of the port, in minutes.
+     */
+    private final long time;
+
+    /**
+     * The port's statistics evaluators.
+     */
+    private final List<StatisticsEvaluator> evaluators;
+
+    /**
+     * Creates a new snapshot from copies of a port's state.
+     *
+     * @param fork         detached fork of the port
+     * @param cargo        copy of the cargo registry's cargo
+     * @param encodedShips encodings of the registered ships
+     * @param time         simulation time of the port
+     * @param evaluators   copy of the port's evaluators
+     */
+    PortSnapshot(Port fork, List<Cargo> cargo, List<String> encodedShips, long time,
+                 List<StatisticsEvaluator> evaluators) {
+        this.fork = fork;
+        this.cargo = cargo;
+        this.encodedShips = encodedShips;
+        this.time = time;
+        this.evaluators = evaluators;
+    }
+
+    /**
+     * Returns the simulation time of the port when the snapshot was taken.
+     *
+     * @return time in minutes
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the encoded representation of the port as it was when the snapshot was
+     * taken, in the format of {@link Port#encode()}.
+     *
+     * @return encoded string representation of the port
+     */
+    public String encode() {
+        return fork.encode(cargo, encodedShips, time,
+                Collections.unmodifiableList(evaluators));
+    }
+
+    /**
+     * Writes the encoded snapshot to the given file, replacing it.
+     * <p>
+     * The encoding is written to a temporary file in the same directory, which is then
+     * moved over the given file, atomically where the file system supports it. A reader of
+     * the file therefore sees either the previous contents or the whole snapshot, and a
+     * failed save leaves the previous contents in place.
+     *
+     * @param file file to save to
+     * @throws IOException if the snapshot cannot be written or moved into place
+     */
+    public void save(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(),
+                target.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary,
+                    StandardCharsets.UTF_8)) {
+                writer.write(encode());
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
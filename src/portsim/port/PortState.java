@@ -0,0 +1,205 @@
+package portsim.port;
+
+import portsim.cargo.Cargo;
+import portsim.ship.Ship;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable view of a {@link Port}'s quays, ship queue and stored cargo at one point
+ * in simulation time, as recorded by {@link PortHistory}.
+ * <p>
+ * Consecutive states share any component that did not change between them, and a changed
+ * component is recorded as the difference from the previous state wherever possible
+ * rather than copied. See {@link PortHistory} for how each component is recorded.
+ */
+public class PortState {
+
+    /**
+     * The simulation time this state was recorded at, in minutes.
+     */
+    private final long time;
+
+    /**
+     * The IDs of the port's quays, in the port's quay order.
+     */
+    private final Set<Integer> quayIds;
+
+    /**
+     * The ship docked at each quay.
+     */
+    private final DockedShips dockedShips;
+
+    /**
+     * The ships waiting in the ship queue, in queue order.
+     */
+    private final List<Ship> shipQueue;
+
+    /**
+     * The cargo stored in the port's warehouses.
+     */
+    private final List<Cargo> storedCargo;
+
+    /**
+     * Creates a new state from already immutable components.
+     *
+     * @param time        time the state was recorded at
+     * @param quayIds     IDs of the port's quays
+     * @param dockedShips ship docked at each quay
+     * @param shipQueue   ships in the ship queue
+     * @param storedCargo cargo stored at the port
+     */
+    PortState(long time, Set<Integer> quayIds, DockedShips dockedShips,
+              List<Ship> shipQueue, List<Cargo> storedCargo) {
+        this.time = time;
+        this.quayIds = quayIds;
+        this.dockedShips = dockedShips;
+        this.shipQueue = shipQueue;
+        this.storedCargo = storedCargo;
+    }
+
+    /**
+     * Returns the IDs of the quays as of this state, shared with later states until the
+     * port's quays are added or removed.
+     *
+     * @return quay IDs
+     */
+    Set<Integer> quayIds() {
+        return quayIds;
+    }
+
+    /**
+     * Returns the ships docked at the quays as of this state.
+     *
+     * @return docked ships
+     */
+    DockedShips dockedShips() {
+        return dockedShips;
+    }
+
+    /**
+     * Returns the simulation time this state was recorded at.
+     *
+     * @return time in minutes
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the IDs of the port's quays, in the port's quay order.
+     *
+     * @return quay IDs
+     */
+    public Set<Integer> getQuayIds() {
+        return quayIds;
+    }
+
+    /**
+     * Returns the ship that was docked at the quay with the given ID.
+     *
+     * @param quayId ID of the quay
+     * @return docked ship, or null if the quay was empty or did not exist
+     */
+    public Ship getDockedShip(int quayId) {
+        return quayIds.contains(quayId) ? dockedShips.get(quayId) : null;
+    }
+
+    /**
+     * Returns the ships that were waiting in the ship queue, in queue order.
+     * <p>
+     * The returned list cannot be modified.
+     *
+     * @return queued ships
+     */
+    public List<Ship> getShipQueue() {
+        return shipQueue;
+    }
+
+    /**
+     * Returns the cargo that was stored in the port's warehouses.
+     * <p>
+     * The returned list cannot be modified.
+     *
+     * @return stored cargo
+     */
+    public List<Cargo> getStoredCargo() {
+        return storedCargo;
+    }
+
+    /**
+     * Returns the human-readable string representation of this PortState.
+     * <p>
+     * For example:
+     * <pre>PortState at 2310: 3 quays, 2 ships queued, 14 cargo stored</pre>
+     *
+     * @return string representation of this PortState
+     */
+    @Override
+    public String toString() {
+        return String.format("PortState at %d: %d quays, %d ships queued, %d cargo stored",
+                time, quayIds.size(), shipQueue.size(), storedCargo.size());
+    }
+
+    /**
+     * The ship docked at each quay, recorded as the quays whose ship changed since an
+     * earlier record, which is complete at the end of the chain.
+     */
+    static final class DockedShips {
+
+        /**
+         * The earlier record this one changes, or null if this record is complete.
+         */
+        private final DockedShips base;
+
+        /**
+         * The ship docked at each quay that changed, or at every quay if this record is
+         * complete, keyed by quay ID. A null ship means the quay was empty.
+         */
+        private final Map<Integer, Ship> ships;
+
+        /**
+         * The number of quays recorded in this record and the records it changes since the
+         * last complete one.
+         */
+        private final int recorded;
+
+        /**
+         * Creates a new record of docked ships.
+         *
+         * @param base  the record this one changes, or null if complete
+         * @param ships the ship docked at each quay recorded
+         */
+        DockedShips(DockedShips base, Map<Integer, Ship> ships) {
+            this.base = base;
+            this.ships = ships;
+            this.recorded = ships.size() + (base == null ? 0 : base.recorded);
+        }
+
+        /**
+         * Returns the number of quays recorded in this chain of records.
+         *
+         * @return quays recorded
+         */
+        int getRecorded() {
+            return recorded;
+        }
+
+        /**
+         * Returns the ship that was docked at the quay with the given ID.
+         *
+         * @param quayId ID of the quay
+         * @return docked ship, or null if the quay was empty or is not recorded
+         */
+        Ship get(int quayId) {
+            for (DockedShips record = this; record != null; record = record.base) {
+                if (record.ships.containsKey(quayId)) {
+                    return record.ships.get(quayId);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package portsim.port;
+
+import java.util.Arrays;
+
+/**
+ * An immutable summary of one or more consecutive ticks of a {@link Port}, published by a
+ * {@link PortEventPublisher}.
+ * <p>
+ * A summary normally covers a single simulated minute. When a subscriber is too slow to
+ * receive every summary, consecutive summaries are coalesced into one covering several
+ * minutes: event counts are added together, while the queue length, stored cargo and
+ * free quays are those at the end of the last minute covered.
+ */
+public class PortTickSummary implements PortNotification {
+
+    /**
+     * The first simulated minute covered by this summary.
+     */
+    private final long firstTime;
+
+    /**
+     * The last simulated minute covered by this summary.
+     */
+    private final long time;
+
+    /**
+     * Number of events of each type, indexed by ordinal.
+     */
+    private final int[] counts;
+
+    /**
+     * Number of ships waiting in the queue at the end of the last minute.
+     */
+    private final int queueLength;
+
+    /**
+     * Number of cargo stored at the port at the end of the last minute.
+     */
+    private final int storedCargo;
+
+    /**
+     * Number of empty quays at the end of the last minute.
+     */
+    private final int freeQuays;
+
+    /**
+     * Number of events the subscriber did not receive individually.
+     */
+    private final long droppedEvents;
+
+    /**
+     * Creates a new summary.
+     *
+     * @param firstTime     first minute covered
+     * @param time          last minute covered
+     * @param counts        number of events of each type, indexed by ordinal
+     * @param queueLength   ships waiting in the queue
+     * @param storedCargo   cargo stored at the port
+     * @param freeQuays     empty quays
+     * @param droppedEvents events not received individually
+     */
+    PortTickSummary(long firstTime, long time, int[] counts, int queueLength,
+                    int storedCargo, int freeQuays, long droppedEvents) {
+        this.firstTime = firstTime;
+        this.time = time;
+        this.counts = counts;
+        this.queueLength = queueLength;
+        this.storedCargo = storedCargo;
+        this.freeQuays = freeQuays;
+        this.droppedEvents = droppedEvents;
+    }
+
+    /**
+     * Returns the first simulated minute covered by this summary.
+     *
+     * @return time in minutes
+     */
+    public long getFirstTime() {
+        return firstTime;
+    }
+
+    /**
+     * Returns the last simulated minute covered by this summary.
+     *
+     * @return time in minutes
+     */
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the number of minutes covered by this summary.
+     *
+     * @return minutes, 1 unless summaries were coalesced
+     */
+    public long getTicks() {
+        return time - firstTime + 1;
+    }
+
+    /**
+     * Returns the number of events of the given type during the minutes covered.
+     *
+     * @param type event type
+     * @return number of events
+     */
+    public int getCount(PortEventType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of ships waiting in the queue at the end of the last minute.
+     *
+     * @return queue length
+     */
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * Returns the number of cargo stored at the port at the end of the last minute.
+     *
+     * @return stored cargo
+     */
+    public int getStoredCargo() {
+        return storedCargo;
+    }
+
+    /**
+     * Returns the number of empty quays at the end of the last minute.
+     *
+     * @return free quays
+     */
+    public int getFreeQuays() {
+        return freeQuays;
+    }
+
+    /**
+     * Returns the number of events during the minutes covered that the subscriber
+     * receiving this summary did not receive individually because it was too slow.
+     *
+     * @return dropped events, 0 if every event was delivered
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * Returns a summary covering this summary followed by the given later one.
+     *
+     * @param later summary of the minutes after this one
+     * @return coalesced summary
+     */
+    PortTickSummary coalesce(PortTickSummary later) {
+        int[] sum = Arrays.copyOf(counts, counts.length);
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += later.counts[i];
+        }
+        return new PortTickSummary(firstTime, later.time, sum, later.queueLength,
+                later.storedCargo, later.freeQuays, droppedEvents + later.droppedEvents);
+    }
+
+    /**
+     * Returns a copy of this summary with the given number of dropped events added.
+     *
+     * @param dropped events not received individually
+     * @return summary with the dropped events added, or this summary if none were
+     */
+    PortTickSummary withDroppedEvents(long dropped) {
+        if (dropped == 0) {
+            return this;
+        }
+        return new PortTickSummary(firstTime, time, counts, queueLength, storedCargo,
+                freeQuays, droppedEvents + dropped);
+    }
+
+    /**
+     * Returns the human-readable string representation of this PortTickSummary.
+     * <p>
+     * For example:
+     * <pre>Summary of 120-125: 3 events, 2 ships queued, 14 cargo stored, 1 quay free</pre>
+     *
+     * @return string representation of this PortTickSummary
+     */
+    @Override
+    public String toString() {
+        int events = 0;
+        for (int count : counts) {
+            events += count;
+        }
+        return String.format("Summary of %s: %d events, %d ships queued, "
+                        + "%d cargo stored, %d %s free",
+                firstTime == time ? String.valueOf(time) : firstTime + "-" + time,
+                events, queueLength, storedCargo, freeQuays,
+                freeQuays == 1 ? "quay" : "quays");
+    }
+}
@@ -94,6 +94,16 @@ public abstract class Quay implements Encodable {
         return ship;
     }
 
+    /**
+     * Returns a new quay of the same type, ID and capacity as this quay, with the same
+     * ship docked.
+     * <p>
+     * Docking or departing ships at the copy does not affect this quay.
+     *
+     * @return copy of this quay
+     */
+    public abstract Quay copy();
+
 
     /**
      * Returns the human-readable string representation of this quay.
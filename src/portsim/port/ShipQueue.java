@@ -1,15 +1,15 @@
 package portsim.port;
 
-import portsim.ship.ContainerShip;
+import portsim.metrics.Counter;
 import portsim.ship.NauticalFlag;
 import portsim.ship.Ship;
 import portsim.util.BadEncodingException;
 import portsim.util.Encodable;
+import portsim.util.ListView;
 import portsim.util.NoSuchShipException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -23,6 +23,22 @@ public class ShipQueue implements Encodable {
      */
     private ArrayList<Ship> shipInQueue;
 
+    /**
+     * Read-only view of the ships in the queue, returned by
+     * {@link #getShipQueueView()}.
+     */
+    private final List<Ship> shipQueueView = new ListView<>(() -> this.shipInQueue);
+
+    /**
+     * Number of ships added to this queue.
+     */
+    private final Counter added = new Counter();
+
+    /**
+     * Number of ships removed from this queue by {@link #poll()}.
+     */
+    private final Counter polled = new Counter();
+
     /**
      * Constructs a new ShipQueue with an initially empty queue of ships.
      */
@@ -38,6 +54,7 @@ public class ShipQueue implements Encodable {
      */
     public void add(Ship ship) {
         shipInQueue.add(ship);
+        added.increment();
     }
 
     /**
@@ -50,7 +67,10 @@ public class ShipQueue implements Encodable {
      */
     public Ship poll() {
         Ship ship = this.peek();
-        shipInQueue.remove(ship);
+        if (ship != null) {
+            shipInQueue.remove(ship);
+            polled.increment();
+        }
         return ship;
     }
 
@@ -78,28 +98,25 @@ public class ShipQueue implements Encodable {
      * @return next ship in queue
      */
     public Ship peek() {
-        LinkedList<Ship> newShipLst = new LinkedList<>();
-
-        for (Ship ship : shipInQueue) {
-            if (ship.getFlag().equals(NauticalFlag.BRAVO)) {
-                return ship;
-            }
+        Ship ship = firstWithFlag(NauticalFlag.BRAVO);
+        if (ship == null) {
+            ship = firstWithFlag(NauticalFlag.WHISKEY);
         }
-        for (Ship ship : shipInQueue) {
-            if (ship.getFlag().equals(NauticalFlag.WHISKEY)) {
-                return ship;
-            }
+        if (ship == null) {
+            ship = firstWithFlag(NauticalFlag.HOTEL);
         }
-        for (Ship ship : shipInQueue) {
-            if (ship.getFlag().equals(NauticalFlag.HOTEL)) {
-                return ship;
-            }
+        if (ship == null && !shipInQueue.isEmpty()) {
+            ship = shipInQueue.get(0);
         }
-        for (Ship ship : shipInQueue) {
-            if (ship instanceof ContainerShip) {
+        return ship;
+    }
+
+    /* Returns the ship added first that flies the given flag, or null */
+    private Ship firstWithFlag(NauticalFlag flag) {
+        for (int i = 0; i < shipInQueue.size(); i++) {
+            Ship ship = shipInQueue.get(i);
+            if (ship.getFlag().equals(flag)) {
                 return ship;
-            } else {
-                return shipInQueue.get(0);
             }
         }
         return null;
@@ -120,6 +137,64 @@ public class ShipQueue implements Encodable {
         return new ArrayList<>(shipInQueue);
     }
 
+    /**
+     * Returns a read-only view of the ships currently stored in this ShipQueue, in the
+     * order in which they were added.
+     * <p>
+     * Unlike {@link #getShipQueue()}, this does not copy the queue. The view reflects
+     * later changes to the queue, and reading it by index or with {@link List#forEach}
+     * does not allocate.
+     *
+     * @return read-only view of the ships in queue
+     */
+    public List<Ship> getShipQueueView() {
+        return shipQueueView;
+    }
+
+    /**
+     * Returns the number of ships currently stored in this ShipQueue.
+     *
+     * @return number of ships in queue
+     */
+    public int size() {
+        return shipInQueue.size();
+    }
+
+    /**
+     * Returns the number of ships added to this queue with {@link #add(Ship)}.
+     * <p>
+     * Unlike the queue itself, this count is safe to read from any thread.
+     *
+     * @return ships added
+     */
+    public long getAddedCount() {
+        return added.getCount();
+    }
+
+    /**
+     * Returns the number of ships removed from this queue with {@link #poll()}.
+     * <p>
+     * Unlike the queue itself, this count is safe to read from any thread.
+     *
+     * @return ships polled
+     */
+    public long getPolledCount() {
+        return polled.getCount();
+    }
+
+    /**
+     * Returns a new ship queue containing the same ships in the same order.
+     * <p>
+     * Adding or removing ships from the copy does not affect this queue.
+     *
+     * @return copy of this queue
+     */
+    ShipQueue copy() {
+        ShipQueue copy = new ShipQueue();
+        copy.shipInQueue.addAll(shipInQueue);
+        return copy;
+    }
+
     /**
      * Returns true if and only if this ship queue is equal to the other given ship queue.
      * <p>
@@ -182,10 +257,12 @@ public class ShipQueue implements Encodable {
     public String encode() {
         StringBuilder result = new StringBuilder();
         StringBuilder shipId = new StringBuilder();
-        for (int n = 0; n < shipInQueue.size() - 1; n++) {
-            shipId.append(shipInQueue.get(n).getImoNumber()).append(",");
+        for (int n = 0; n < shipInQueue.size(); n++) {
+            if (n > 0) {
+                shipId.append(",");
+            }
+            shipId.append(shipInQueue.get(n).getImoNumber());
         }
-        shipId.append(shipInQueue.get(shipInQueue.size() - 1).getImoNumber());
         result.append("ShipQueue:").append(shipInQueue.size()).append(":")
                 .append(shipId);
         return result.toString();
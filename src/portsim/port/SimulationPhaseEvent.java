@@ -0,0 +1,101 @@
+package portsim.port;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event emitted for each phase of {@link Port#elapseOneMinute()}.
+ * <p>
+ * Events are only created while a recording has this event enabled, so the phases cost
+ * nothing extra when the simulation is not being profiled.
+ */
+@Name("portsim.SimulationPhase")
+@Label("Simulation Phase")
+@Category({"Port Simulation"})
+@Description("A docking, unloading or movement processing phase of a simulated minute")
+@StackTrace(false)
+@Threshold("1 ms")
+class SimulationPhaseEvent extends Event {
+
+    /**
+     * Phase name for docking ships from the ship queue.
+     */
+    static final String DOCKING = "docking";
+
+    /**
+     * Phase name for unloading docked ships.
+     */
+    static final String UNLOADING = "unloading";
+
+    /**
+     * Phase name for processing the movements due this minute.
+     */
+    static final String MOVEMENTS = "movements";
+
+    /**
+     * The registered type of this event, used to check whether it is enabled.
+     */
+    private static final EventType TYPE = EventType.getEventType(SimulationPhaseEvent.class);
+
+    /**
+     * The name of the phase.
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * The simulation time of the minute being elapsed.
+     */
+    @Label("Simulation Time")
+    @Description("Minutes since the simulation started")
+    long simulationTime;
+
+    /**
+     * Number of items handled by the phase: ships docked, ships unloaded or movements
+     * processed.
+     */
+    @Label("Count")
+    int count;
+
+    /**
+     * Starts timing a phase if this event is enabled in any recording.
+     *
+     * @return the started event, or null if the event is disabled
+     */
+    static SimulationPhaseEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        SimulationPhaseEvent event = new SimulationPhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a phase and commits the event if it passes the threshold.
+     *
+     * @param event          event returned by {@link #start()}, may be null
+     * @param phase          name of the phase
+     * @param simulationTime simulation time of the minute being elapsed
+     * @param count          number of items handled by the phase
+     */
+    static void finish(SimulationPhaseEvent event, String phase, long simulationTime,
+                       int count) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.simulationTime = simulationTime;
+            event.count = count;
+            event.commit();
+        }
+    }
+}
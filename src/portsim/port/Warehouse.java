@@ -0,0 +1,278 @@
+package portsim.port;
+
+import portsim.cargo.Cargo;
+import portsim.util.ForkableList;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The cargo stored in a {@link Port}'s warehouses.
+ * <p>
+ * Cargo is moved in and out of the warehouse in batches with {@link #storeAll(Collection)}
+ * and {@link #removeAll(Collection)}, so that the port makes one change, and publishes
+ * one event, per shipload or cargo movement. The cost of either operation depends only on
+ * the size of the batch, not on how much cargo is stored: removal finds each piece of
+ * cargo through an index of positions and fills the gap it leaves with the last piece of
+ * cargo in the warehouse. The order of the stored cargo therefore changes when cargo is
+ * removed.
+ * <p>
+ * A warehouse can be {@link #fork() forked} in constant time. A fork shares the stored
+ * cargo until either warehouse changes it, and builds its own index the first time cargo
+ * is removed from it.
+ * <p>
+ * The same piece of cargo may be stored more than once; each removal takes out one of
+ * its occurrences. Pieces of cargo are compared by identity.
+ */
+public class Warehouse extends AbstractList<Cargo> implements RandomAccess {
+
+    /**
+     * The stored cargo, possibly shared with forks of this warehouse.
+     */
+    private final ForkableList<Cargo> cargo;
+
+    /**
+     * The positions in {@link #cargo} of each piece of cargo, or null until cargo is first
+     * removed.
+     */
+    private Map<Cargo, Positions> index;
+
+    /**
+     * The number of pieces of cargo removed from this warehouse.
+     */
+    private long removals;
+
+    /**
+     * Creates a new, empty warehouse.
+     */
+    public Warehouse() {
+        this.cargo = new ForkableList<>();
+    }
+
+    /**
+     * Creates a new warehouse storing the given cargo, in order.
+     *
+     * @param cargo cargo to store
+     */
+    public Warehouse(Collection<? extends Cargo> cargo) {
+        this.cargo = new ForkableList<>(cargo);
+    }
+
+    /**
+     * Creates a new warehouse over the given list.
+     *
+     * @param cargo list of stored cargo
+     */
+    private Warehouse(ForkableList<Cargo> cargo, long removals) {
+        this.cargo = cargo;
+        this.removals = removals;
+    }
+
+    /**
+     * Returns a new warehouse storing the same cargo, without copying it.
+     * <p>
+     * Subsequent changes to either warehouse are not visible in the other.
+     *
+     * @return fork of this warehouse
+     */
+    public Warehouse fork() {
+        return new Warehouse(cargo.fork(), removals);
+    }
+
+    /**
+     * Returns the number of pieces of cargo removed from this warehouse, including those
+     * removed before it was forked.
+     * <p>
+     * While this count is unchanged, cargo has only been appended to the warehouse.
+     *
+     * @return pieces of cargo removed
+     */
+    long getRemovalCount() {
+        return removals;
+    }
+
+    @Override
+    public Cargo get(int index) {
+        return cargo.get(index);
+    }
+
+    @Override
+    public int size() {
+        return cargo.size();
+    }
+
+    /**
+     * Stores a single piece of cargo.
+     *
+     * @param piece cargo to store
+     * @return true
+     */
+    @Override
+    public boolean add(Cargo piece) {
+        if (index != null) {
+            index.computeIfAbsent(piece, c -> new Positions()).add(cargo.size());
+        }
+        cargo.add(piece);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Stores every piece of cargo in the given batch.
+     *
+     * @param batch cargo to store
+     * @return number of pieces of cargo stored
+     */
+    public int storeAll(Collection<? extends Cargo> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int start = cargo.size();
+        cargo.addAll(batch);
+        if (index != null) {
+            for (int i = start; i < cargo.size(); i++) {
+                index.computeIfAbsent(cargo.get(i), c -> new Positions()).add(i);
+            }
+        }
+        modCount++;
+        return batch.size();
+    }
+
+    /**
+     * Stores every piece of cargo in the given batch.
+     *
+     * @param batch cargo to store
+     * @return true if the batch was not empty
+     */
+    @Override
+    public boolean addAll(Collection<? extends Cargo> batch) {
+        return storeAll(batch) > 0;
+    }
+
+    /**
+     * Removes one occurrence of the given cargo.
+     *
+     * @param piece cargo to remove
+     * @return true if the cargo was stored
+     */
+    @Override
+    public boolean remove(Object piece) {
+        if (!(piece instanceof Cargo)) {
+            return false;
+        }
+        return removeOne((Cargo) piece);
+    }
+
+    /**
+     * Removes one occurrence of each piece of cargo in the given batch. Cargo that is not
+     * stored is ignored.
+     *
+     * @param batch cargo to remove
+     * @return true if any cargo was removed
+     */
+    @Override
+    public boolean removeAll(Collection<?> batch) {
+        boolean removed = false;
+        for (Object piece : batch) {
+            removed |= remove(piece);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        removals += cargo.size();
+        cargo.clear();
+        index = null;
+        modCount++;
+    }
+
+    /* Removes one occurrence of the cargo by moving the last stored cargo into its place */
+    private boolean removeOne(Cargo piece) {
+        if (index == null) {
+            buildIndex();
+        }
+        Positions positions = index.get(piece);
+        if (positions == null) {
+            return false;
+        }
+        int position = positions.removeLast();
+        if (positions.size == 0) {
+            index.remove(piece);
+        }
+        int last = cargo.size() - 1;
+        if (position != last) {
+            Cargo moved = cargo.get(last);
+            cargo.set(position, moved);
+            index.get(moved).replace(last, position);
+        }
+        cargo.remove(last);
+        removals++;
+        modCount++;
+        return true;
+    }
+
+    /* Records the position of every piece of stored cargo */
+    private void buildIndex() {
+        index = new IdentityHashMap<>();
+        for (int i = 0; i < cargo.size(); i++) {
+            index.computeIfAbsent(cargo.get(i), c -> new Positions()).add(i);
+        }
+    }
+
+    /**
+     * The positions at which one piece of cargo is stored.
+     */
+    private static final class Positions {
+
+        /**
+         * The positions, packed at the front of the array.
+         */
+        private int[] positions = new int[1];
+
+        /**
+         * The number of positions.
+         */
+        private int size;
+
+        /**
+         * Adds a position.
+         *
+         * @param position position to add
+         */
+        private void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * Removes and returns the most recently added position.
+         *
+         * @return removed position
+         */
+        private int removeLast() {
+            return positions[--size];
+        }
+
+        /**
+         * Replaces one position with another.
+         *
+         * @param from position to replace
+         * @param to   new position
+         */
+        private void replace(int from, int to) {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == from) {
+                    positions[i] = to;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -59,6 +59,12 @@ public class BulkCarrier extends Ship {
      */
     private Cargo cargo;
 
+    /**
+     * The number of times cargo has been loaded onto \n
+     * or unloaded from this bulk carrier ship.
+     */
+    private long cargoVersion;
+
     /**
      * Creates a new bulk carrier with the given \n
      * IMO number, name, origin port, nautical flag and cargo capacity.
@@ -127,6 +133,7 @@ public class BulkCarrier extends Ship {
     public void loadCargo(Cargo cargo) {
         if (canLoad(cargo)) {
             cargoList.add((BulkCargo) cargo);
+            cargoVersion++;
         }
     }
 
@@ -143,6 +150,7 @@ public class BulkCarrier extends Ship {
             throw (new NoSuchCargoException());
         } else {
             cargo = null;
+            cargoVersion++;
         }
         return (BulkCargo) emptyCargo;
     }
@@ -153,10 +161,21 @@ public class BulkCarrier extends Ship {
      * @return the current cargo onboard this vessel.
      */
     public BulkCargo getCargo() {
-        for (BulkCargo bulkCargos : cargoList) {
-            return bulkCargos;
+        if (cargoList.isEmpty()) {
+            return null;
         }
-        return null;
+        return cargoList.get(0);
+    }
+
+    /**
+     * Returns a number that changes whenever cargo is \n
+     * loaded onto or unloaded from this vessel.
+     *
+     * @return the version of the cargo on the vessel.
+     */
+    @Override
+    public long getCargoVersion() {
+        return cargoVersion;
     }
 
     /**
@@ -0,0 +1,505 @@
+package portsim.ship;
+
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The container hold of a ship, organised into bays, rows and tiers of slots.
+ * <p>
+ * Each container occupies one slot. The hold keeps running counts of its containers by
+ * {@link ContainerType} and by destination, so capacity checks, manifest counts and
+ * loading a container take constant time, and unloading every container for one
+ * destination takes time proportional to the number of those containers, however large
+ * the ship.
+ * <p>
+ * Containers are stowed from the first bay onwards, filling each stack of tiers from the
+ * bottom, and slots emptied by unloading are reused first. The slots are allocated a few
+ * bays at a time as containers reach them, so a hold costs memory in proportion to the
+ * most containers it has held rather than to its capacity.
+ */
+public class CargoHold {
+
+    /**
+     * The number of rows across each bay of a hold created by {@link #forCapacity(int)}.
+     */
+    public static final int DEFAULT_ROWS = 16;
+
+    /**
+     * The number of tiers in each row of a hold created by {@link #forCapacity(int)}.
+     */
+    public static final int DEFAULT_TIERS = 8;
+
+    /**
+     * Shared array for holds that have not stowed a container yet.
+     */
+    private static final Container[] NO_CONTAINERS = new Container[0];
+
+    /**
+     * Shared array of slot numbers for holds that have not stowed a container yet.
+     */
+    private static final int[] NO_SLOTS = new int[0];
+
+    /**
+     * The smallest length the arrays indexed by container are grown to.
+     */
+    private static final int MINIMUM_GROWTH = 4;
+
+    /**
+     * The number of bays along the ship.
+     */
+    private final int bays;
+
+    /**
+     * The number of rows across each bay.
+     */
+    private final int rows;
+
+    /**
+     * The number of tiers in each row.
+     */
+    private final int tiers;
+
+    /**
+     * The maximum number of containers, at most the number of slots.
+     */
+    private final int capacity;
+
+    /**
+     * The container in each slot, or null, indexed by slot number. Only the bays up to
+     * the furthest slot filled so far are allocated.
+     */
+    private Container[] slots = NO_CONTAINERS;
+
+    /**
+     * The slots emptied by unloading, used as a stack.
+     */
+    private int[] freeSlots = NO_SLOTS;
+
+    /**
+     * The number of entries in {@link #freeSlots}.
+     */
+    private int freeCount;
+
+    /**
+     * The first slot not filled since the hold was created or last emptied.
+     */
+    private int unusedSlot;
+
+    /**
+     * The containers in the hold, packed at the front of the array.
+     */
+    private Container[] stowed = NO_CONTAINERS;
+
+    /**
+     * The slot of each container in {@link #stowed}.
+     */
+    private int[] slotOfStowed = NO_SLOTS;
+
+    /**
+     * The position in {@link #stowed} of the container in each slot, allocated alongside
+     * {@link #slots}.
+     */
+    private int[] stowedIndexOfSlot = NO_SLOTS;
+
+    /**
+     * The number of containers in the hold.
+     */
+    private int size;
+
+    /**
+     * The number of times containers have been loaded into or removed from the hold.
+     */
+    private int modifications;
+
+    /**
+     * The number of containers of each type, indexed by ordinal.
+     */
+    private final int[] typeCounts = new int[ContainerType.values().length];
+
+    /**
+     * The slots holding containers for each destination.
+     */
+    private final Map<String, SlotList> destinations = new HashMap<>();
+
+    /**
+     * Read-only view of the containers in the hold, returned by {@link #asList()}.
+     */
+    private final List<Container> view = new StowedView();
+
+    /**
+     * Creates a new, empty hold with the given number of bays, rows and tiers, and room
+     * for a container in every slot.
+     *
+     * @param bays  number of bays along the ship
+     * @param rows  number of rows across each bay
+     * @param tiers number of tiers in each row
+     * @throws IllegalArgumentException if any dimension &lt; 0, or the hold would have
+     *                                  more than {@link Integer#MAX_VALUE} slots
+     */
+    public CargoHold(int bays, int rows, int tiers) throws IllegalArgumentException {
+        this(bays, rows, tiers, slotCapacity(bays, rows, tiers));
+    }
+
+    /**
+     * Creates a new, empty hold with the given number of bays, rows and tiers, holding
+     * at most the given number of containers.
+     *
+     * @param bays     number of bays along the ship
+     * @param rows     number of rows across each bay
+     * @param tiers    number of tiers in each row
+     * @param capacity maximum number of containers
+     * @throws IllegalArgumentException if any dimension &lt; 0, or capacity is negative
+     *                                  or greater than the number of slots
+     */
+    private CargoHold(int bays, int rows, int tiers, int capacity)
+            throws IllegalArgumentException {
+        long slotCount = slotCount(bays, rows, tiers);
+        if (capacity < 0 || capacity > slotCount) {
+            throw new IllegalArgumentException("Capacity must be between 0 and "
+                    + slotCount + ": " + capacity);
+        }
+        this.bays = bays;
+        this.rows = rows;
+        this.tiers = tiers;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a new, empty hold for the given number of containers, with
+     * {@value #DEFAULT_ROWS} rows and {@value #DEFAULT_TIERS} tiers in each bay and as
+     * many bays as needed.
+     *
+     * @param capacity maximum number of containers
+     * @return new hold
+     * @throws IllegalArgumentException if capacity &lt; 0
+     */
+    public static CargoHold forCapacity(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: "
+                    + capacity);
+        }
+        final int perBay = DEFAULT_ROWS * DEFAULT_TIERS;
+        /* Rounded up without overflowing for capacities near Integer.MAX_VALUE */
+        int bays = capacity / perBay + (capacity % perBay == 0 ? 0 : 1);
+        return new CargoHold(bays, DEFAULT_ROWS, DEFAULT_TIERS, capacity);
+    }
+
+    /* Returns the number of slots in a hold of the given dimensions */
+    private static long slotCount(int bays, int rows, int tiers) {
+        if (bays < 0 || rows < 0 || tiers < 0) {
+            throw new IllegalArgumentException("Bays, rows and tiers must not be "
+                    + "negative");
+        }
+        return (long) bays * rows * tiers;
+    }
+
+    /* Returns the number of slots in a hold of the given dimensions, as a capacity */
+    private static int slotCapacity(int bays, int rows, int tiers) {
+        long slotCount = slotCount(bays, rows, tiers);
+        if (slotCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A hold cannot have more than "
+                    + Integer.MAX_VALUE + " slots: " + slotCount);
+        }
+        return (int) slotCount;
+    }
+
+    /* Allocates whole bays, at least doubling the slots, until the given slot exists */
+    private void growSlots(int slot) {
+        final long perBay = (long) rows * tiers;
+        long bayCount = Math.max(slot / perBay + 1,
+                Math.min(bays, 2 * (slots.length / perBay)));
+        /* Slots past the capacity are never filled, so they are never allocated */
+        int length = (int) Math.min(bayCount * perBay, capacity);
+        slots = Arrays.copyOf(slots, length);
+        stowedIndexOfSlot = Arrays.copyOf(stowedIndexOfSlot, length);
+    }
+
+    /* Returns the length to grow an array indexed by container to, at most the capacity */
+    private int grownLength(int length) {
+        return (int) Math.min(capacity, Math.max(MINIMUM_GROWTH, 2L * length));
+    }
+
+    /**
+     * Returns the number of bays along the ship.
+     *
+     * @return bays
+     */
+    public int getBays() {
+        return bays;
+    }
+
+    /**
+     * Returns the number of rows across each bay.
+     *
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of tiers in each row.
+     *
+     * @return tiers
+     */
+    public int getTiers() {
+        return tiers;
+    }
+
+    /**
+     * Returns the maximum number of containers the hold can take.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of containers in the hold.
+     *
+     * @return number of containers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the hold has no containers.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of times containers have been loaded into or removed from the
+     * hold. The number changes whenever the contents of the hold change.
+     *
+     * @return number of modifications
+     */
+    public int getModificationCount() {
+        return modifications;
+    }
+
+    /**
+     * Returns whether the hold cannot take another container.
+     *
+     * @return true if full
+     */
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Returns the number of containers of the given type in the hold.
+     *
+     * @param type container type
+     * @return number of containers of the type
+     */
+    public int countOf(ContainerType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of containers bound for the given destination in the hold.
+     *
+     * @param destination destination to count
+     * @return number of containers for the destination
+     */
+    public int countFor(String destination) {
+        SlotList slotList = destinations.get(destination);
+        return slotList == null ? 0 : slotList.size;
+    }
+
+    /**
+     * Returns the destinations of the containers in the hold.
+     *
+     * @return unmodifiable set of destinations
+     */
+    public Set<String> getDestinations() {
+        return Collections.unmodifiableSet(destinations.keySet());
+    }
+
+    /**
+     * Returns the container in the given slot.
+     *
+     * @param bay  bay of the slot
+     * @param row  row of the slot
+     * @param tier tier of the slot
+     * @return container in the slot, or null if the slot is empty
+     * @throws IndexOutOfBoundsException if the slot is outside the hold
+     */
+    public Container get(int bay, int row, int tier) throws IndexOutOfBoundsException {
+        if (bay < 0 || bay >= bays || row < 0 || row >= rows || tier < 0
+                || tier >= tiers) {
+            throw new IndexOutOfBoundsException("No slot at bay " + bay + ", row " + row
+                    + ", tier " + tier);
+        }
+        long slot = ((long) bay * rows + row) * tiers + tier;
+        return slot < slots.length ? slots[(int) slot] : null;
+    }
+
+    /**
+     * Stows the given container in the next free slot.
+     *
+     * @param container container to load
+     * @throws IllegalStateException if the hold is full
+     */
+    public void load(Container container) throws IllegalStateException {
+        if (isFull()) {
+            throw new IllegalStateException("Hold is full: " + capacity + " containers");
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = unusedSlot++;
+            if (slot >= slots.length) {
+                growSlots(slot);
+            }
+        }
+        if (size == stowed.length) {
+            int length = grownLength(size);
+            stowed = Arrays.copyOf(stowed, length);
+            slotOfStowed = Arrays.copyOf(slotOfStowed, length);
+        }
+        slots[slot] = container;
+        stowed[size] = container;
+        slotOfStowed[size] = slot;
+        stowedIndexOfSlot[slot] = size;
+        size++;
+        modifications++;
+        typeCounts[container.getType().ordinal()]++;
+        destinations.computeIfAbsent(container.getDestination(), d -> new SlotList())
+                .add(slot);
+    }
+
+    /**
+     * Removes every container bound for the given destination.
+     *
+     * @param destination destination to unload
+     * @return containers removed, empty if there were none
+     */
+    public List<Container> unload(String destination) {
+        SlotList slotList = destinations.remove(destination);
+        if (slotList == null) {
+            return new ArrayList<>();
+        }
+        List<Container> unloaded = new ArrayList<>(slotList.size);
+        for (int i = 0; i < slotList.size; i++) {
+            unloaded.add(remove(slotList.slots[i]));
+        }
+        return unloaded;
+    }
+
+    /**
+     * Removes every container from the hold.
+     *
+     * @return containers removed, in the order of {@link #asList()}
+     */
+    public List<Container> unloadAll() {
+        List<Container> unloaded = new ArrayList<>(view);
+        for (int i = 0; i < size; i++) {
+            slots[slotOfStowed[i]] = null;
+            stowed[i] = null;
+        }
+        size = 0;
+        modifications++;
+        Arrays.fill(typeCounts, 0);
+        destinations.clear();
+        freeCount = 0;
+        unusedSlot = 0;
+        return unloaded;
+    }
+
+    /* Empties the given slot and returns the container it held */
+    private Container remove(int slot) {
+        Container container = slots[slot];
+        slots[slot] = null;
+        int index = stowedIndexOfSlot[slot];
+        int last = --size;
+        stowed[index] = stowed[last];
+        slotOfStowed[index] = slotOfStowed[last];
+        stowedIndexOfSlot[slotOfStowed[index]] = index;
+        stowed[last] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, grownLength(freeCount));
+        }
+        freeSlots[freeCount++] = slot;
+        modifications++;
+        typeCounts[container.getType().ordinal()]--;
+        return container;
+    }
+
+    /**
+     * Returns a read-only view of the containers in the hold.
+     * <p>
+     * The view reflects later loading and unloading, and reading it by index does not
+     * allocate. Containers appear in the order they were loaded until some are unloaded
+     * by destination, after which the order is unspecified.
+     *
+     * @return read-only view of the containers
+     */
+    public List<Container> asList() {
+        return view;
+    }
+
+    /**
+     * A growable list of slot numbers.
+     */
+    private static final class SlotList {
+
+        /**
+         * The slot numbers, packed at the front of the array.
+         */
+        private int[] slots = new int[4];
+
+        /**
+         * The number of slot numbers in the list.
+         */
+        private int size;
+
+        /**
+         * Adds a slot number to the end of the list.
+         *
+         * @param slot slot number
+         */
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * The read-only view of the containers in the hold.
+     */
+    private final class StowedView extends AbstractList<Container> implements RandomAccess {
+
+        @Override
+        public Container get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return stowed[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -46,12 +46,12 @@ public class ContainerShip extends Ship {
     private final int capacity;
 
     /**
-     * A list representing the container ship's ship board, \n
+     * The container ship's ship board, \n
      * it will be used to determine what cargos are
      * loaded onto the container ship, \n
      * and whether the ship board is empty or not.
      */
-    private List<Container> shipBoard;
+    private final CargoHold shipBoard;
 
     /**
      * Constructs a new container ship with the given IMO number, \n
@@ -68,12 +68,12 @@ public class ContainerShip extends Ship {
                          NauticalFlag flag, int capacity) {
         super(imoNumber, name, originFlag, flag);
         this.capacity = capacity;
-        shipBoard = new ArrayList<>();
         int imoNumberLength = String.valueOf(imoNumber).length();
         if (imoNumber < 0 || imoNumberLength < VALID_IMONUMBER_LENGTH
                 || capacity < 0) {
             throw new IllegalArgumentException();
         }
+        shipBoard = CargoHold.forCapacity(capacity);
     }
 
     /**
@@ -110,8 +110,8 @@ public class ContainerShip extends Ship {
     @Override
     public boolean canLoad(Cargo cargo) {
         if (cargo instanceof Container) {
-            return shipBoard.size() <= capacity
-                    && cargo.getDestination().equals(originFlag);
+            return !shipBoard.isFull()
+                    && cargo.getDestination().equals(getOriginFlag());
         }
         return false;
     }
@@ -120,10 +120,12 @@ public class ContainerShip extends Ship {
      * Loads the specified cargo onto the ship.
      *
      * @param cargo the cargo given to be loaded onto the ship.
+     * @throws IllegalStateException - if the ship is already \n
+     * carrying as many containers as its capacity.
      */
     @Override
     public void loadCargo(Cargo cargo) {
-        shipBoard.add((Container) cargo);
+        shipBoard.load((Container) cargo);
     }
 
     /**
@@ -137,10 +139,25 @@ public class ContainerShip extends Ship {
     public List<Container> unloadCargo() throws NoSuchCargoException {
         if (shipBoard.isEmpty()) {
             throw (new NoSuchCargoException());
-        } else {
-            shipBoard = new ArrayList<>();
         }
-        return shipBoard;
+        return shipBoard.unloadAll();
+    }
+
+    /**
+     * Unloads the containers bound for the specified destination. \n
+     * Other containers stay on board.
+     *
+     * @param destination the destination of the containers to unload.
+     * @return the containers that were unloaded.
+     * @throws NoSuchCargoException - if the ship has no \n
+     * containers onboard for the destination.
+     */
+    public List<Container> unloadCargo(String destination)
+            throws NoSuchCargoException {
+        if (shipBoard.countFor(destination) == 0) {
+            throw (new NoSuchCargoException());
+        }
+        return shipBoard.unload(destination);
     }
 
     /**
@@ -151,7 +168,49 @@ public class ContainerShip extends Ship {
      * @return containers on the vessel.
      */
     public List<Container> getCargo() {
-        return new ArrayList<>(shipBoard);
+        return new ArrayList<>(shipBoard.asList());
+    }
+
+    /**
+     * Returns a read-only view of the current cargo onboard this vessel.
+     * Unlike getCargo(), the containers are not copied; \n
+     * the view reflects containers loaded or unloaded later, \n
+     * and reading it by index does not allocate.
+     *
+     * @return read-only view of the containers on the vessel.
+     */
+    public List<Container> getCargoView() {
+        return shipBoard.asList();
+    }
+
+    /**
+     * Returns the hold of this vessel, \n
+     * which counts its containers by type and destination.
+     *
+     * @return the ship's hold.
+     */
+    public CargoHold getHold() {
+        return shipBoard;
+    }
+
+    /**
+     * Returns a number that changes whenever containers are \n
+     * loaded onto or unloaded from this vessel.
+     *
+     * @return the version of the containers on the vessel.
+     */
+    @Override
+    public long getCargoVersion() {
+        return shipBoard.getModificationCount();
+    }
+
+    /**
+     * Returns the number of containers onboard this vessel.
+     *
+     * @return number of containers on the vessel.
+     */
+    public int getCargoCount() {
+        return shipBoard.size();
     }
 
     /**
@@ -88,6 +88,16 @@ public abstract class Ship {
         return name;
     }
 
+    /**
+     * Returns a number that changes whenever the cargo on board this ship changes.
+     * <p>
+     * The cargo is the only part of a ship that changes after it is created, so an
+     * encoding of the ship stays valid for as long as this number stays the same.
+     *
+     * @return the version of the cargo on board this ship.
+     */
+    public abstract long getCargoVersion();
+
     /**
      * Returns this ship's IMO number.
      *
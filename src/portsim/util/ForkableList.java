@@ -0,0 +1,124 @@
+package portsim.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list that can be forked in constant time.
+ * <p>
+ * A fork shares its elements with the list it was forked from until either of them is
+ * modified, at which point the modified list takes a private copy of the elements. Reads
+ * never copy. A list that is forked many times but rarely modified therefore costs little
+ * more memory than a single list.
+ * <p>
+ * Forkable lists are not thread-safe, although a list and its forks may each be used by a
+ * different thread as long as no list is used by more than one thread at a time.
+ *
+ * @param <E> type of the elements in the list
+ */
+public class ForkableList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * The elements of this list, possibly shared with other forkable lists.
+     */
+    private ArrayList<E> elements;
+
+    /**
+     * Whether {@link #elements} may be shared with another list and must be copied
+     * before being modified.
+     */
+    private boolean shared;
+
+    /**
+     * Creates a new, empty forkable list.
+     */
+    public ForkableList() {
+        this.elements = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new forkable list containing the given elements.
+     *
+     * @param elements elements to copy into the list
+     */
+    public ForkableList(Collection<? extends E> elements) {
+        this.elements = new ArrayList<>(elements);
+    }
+
+    /**
+     * Creates a new forkable list sharing the given elements.
+     *
+     * @param elements elements shared with another list
+     * @param shared   true, since the elements are shared
+     */
+    private ForkableList(ArrayList<E> elements, boolean shared) {
+        this.elements = elements;
+        this.shared = shared;
+    }
+
+    /**
+     * Returns a new list containing the same elements as this list, without copying them.
+     * <p>
+     * Subsequent changes to either list are not visible in the other.
+     *
+     * @return fork of this list
+     */
+    public ForkableList<E> fork() {
+        this.shared = true;
+        return new ForkableList<>(elements, true);
+    }
+
+    /* Takes a private copy of the elements if they may be shared */
+    private List<E> writable() {
+        if (shared) {
+            elements = new ArrayList<>(elements);
+            shared = false;
+        }
+        modCount++;
+        return elements;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return writable().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        writable().add(index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        return writable().remove(index);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return !c.isEmpty() && writable().addAll(c);
+    }
+
+    @Override
+    public void clear() {
+        if (shared) {
+            elements = new ArrayList<>();
+            shared = false;
+            modCount++;
+        } else {
+            writable().clear();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package portsim.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A read-only view of a list that is owned by another object.
+ * <p>
+ * The view reads whichever list its owner currently holds, so an owner can create its
+ * view once and hand out the same view for as long as it lives, even if it later replaces
+ * the list. Reading the view by index or with {@link #forEach(Consumer)} never allocates,
+ * which makes views suitable for loops that run every simulated minute. Iterating with an
+ * enhanced for loop creates an iterator, as for any list.
+ * <p>
+ * The view reflects later changes to the owner's list. Callers that need the contents to
+ * stay fixed must copy them.
+ *
+ * @param <E> type of the elements in the list
+ */
+public final class ListView<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Supplies the list currently held by the owner.
+     */
+    private final Supplier<? extends List<? extends E>> source;
+
+    /**
+     * Creates a new view of the list supplied by the given source.
+     *
+     * @param source supplies the list currently held by the owner
+     */
+    public ListView(Supplier<? extends List<? extends E>> source) {
+        this.source = source;
+    }
+
+    @Override
+    public E get(int index) {
+        return source.get().get(index);
+    }
+
+    @Override
+    public int size() {
+        return source.get().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source.get().isEmpty();
+    }
+
+    /**
+     * Performs the given action for each element of the list, in order, without creating
+     * an iterator.
+     *
+     * @param action action to perform
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        List<? extends E> list = source.get();
+        for (int i = 0; i < list.size(); i++) {
+            action.accept(list.get(i));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package portsim.util;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A reader that reports how far through its input it has read.
+ * <p>
+ * Progress is reported as the fraction of an expected total number of characters read so
+ * far, at most about once per hundredth of the total and once more when the input is
+ * exhausted. Reading stops with an {@link InterruptedIOException} once the reading thread is
+ * interrupted, so a long load running on a background thread can be cancelled.
+ */
+public class ProgressReader extends FilterReader {
+
+    /**
+     * Number of times progress is reported while reading the expected total.
+     */
+    private static final int REPORTS = 100;
+
+    /**
+     * Expected number of characters in the input, at least 1.
+     */
+    private final long total;
+
+    /**
+     * Receives the fraction of the input read so far.
+     */
+    private final DoubleConsumer listener;
+
+    /**
+     * Number of characters read between reports of progress.
+     */
+    private final long reportInterval;
+
+    /**
+     * Number of characters read so far.
+     */
+    private long charsRead = 0;
+
+    /**
+     * Number of characters read after which progress is next reported.
+     */
+    private long nextReport;
+
+    /**
+     * Creates a new reader that reports progress through the given input.
+     *
+     * @param in       reader to read from
+     * @param total    expected number of characters in the input, for example the length of
+     *                 the file being read
+     * @param listener receives the fraction of the input read so far, between 0 and 1
+     */
+    public ProgressReader(Reader in, long total, DoubleConsumer listener) {
+        super(in);
+        this.total = Math.max(1, total);
+        this.listener = listener;
+        this.reportInterval = Math.max(1, this.total / REPORTS);
+        this.nextReport = reportInterval;
+    }
+
+    /**
+     * Returns the number of characters read so far.
+     *
+     * @return characters read
+     */
+    public long getCharsRead() {
+        return charsRead;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkInterrupted();
+        int c = super.read();
+        advance(c < 0 ? -1 : 1);
+        return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        checkInterrupted();
+        int count = super.read(buffer, offset, length);
+        advance(count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkInterrupted();
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    /* Throws if the reading thread has been interrupted */
+    private void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Reading interrupted after " + charsRead
+                    + " characters");
+        }
+    }
+
+    /*
+     * Counts the given number of characters read, or reports completion if it is negative,
+     * reporting progress when the next report is due.
+     */
+    private void advance(long count) {
+        if (count < 0) {
+            listener.accept(1);
+            return;
+        }
+        charsRead += count;
+        if (charsRead >= nextReport) {
+            nextReport = charsRead + reportInterval;
+            listener.accept(Math.min(1, (double) charsRead / total));
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package portsim.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel that calls {@link Tickable} components only on the minutes
+ * they have registered for.
+ * <p>
+ * Components are registered either to run every {@code period} minutes or once at an
+ * absolute time. Each call to {@link #advance()} moves the wheel forward one minute and
+ * calls every component due at that minute, in the order they were registered. Minutes on
+ * which no component is due cost a constant amount of work, however many components are
+ * registered.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. A component due within
+ * the next {@value #SLOTS} minutes sits in the first level; components due further ahead
+ * sit in coarser levels and are moved down as their time approaches. Components due more
+ * than 2<sup>24</sup> minutes ahead are held in an overflow list.
+ */
+public class TimingWheel {
+
+    /**
+     * Number of bits of the time used to index the slots of one level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * Number of slots in each level.
+     */
+    public static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * Number of levels in the wheel.
+     */
+    public static final int LEVELS = 4;
+
+    /**
+     * Order in which components due at the same minute are called.
+     */
+    private static final Comparator<Registration> REGISTRATION_ORDER =
+            Comparator.comparingLong(r -> r.sequence);
+
+    /**
+     * The registrations in each slot of each level.
+     */
+    private final List<List<Registration>> slots = new ArrayList<>();
+
+    /**
+     * Registrations due beyond the last level.
+     */
+    private final List<Registration> overflow = new ArrayList<>();
+
+    /**
+     * Registrations due at the current minute, reused between calls to advance.
+     */
+    private final List<Registration> due = new ArrayList<>();
+
+    /**
+     * The current time of the wheel, in minutes.
+     */
+    private long now;
+
+    /**
+     * Sequence number given to the next registration.
+     */
+    private long nextSequence;
+
+    /**
+     * Number of active registrations.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty timing wheel at the given time.
+     *
+     * @param now current time in minutes
+     */
+    public TimingWheel(long now) {
+        this.now = now;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Returns the current time of the wheel.
+     *
+     * @return time in minutes
+     */
+    public long getTime() {
+        return now;
+    }
+
+    /**
+     * Returns the number of active registrations.
+     *
+     * @return registrations
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Registers a component to be called every {@code period} minutes, on each minute
+     * that is a multiple of the period plus the offset.
+     * <p>
+     * For example, a period of 10 and an offset of 5 calls the component at minutes 5,
+     * 15, 25 and so on.
+     *
+     * @param component component to call
+     * @param period    minutes between calls
+     * @param offset    minute within the period at which the component is called
+     * @return registration that can be cancelled
+     * @throws IllegalArgumentException if period &lt; 1, or offset &lt; 0 or &gt;= period
+     */
+    public Registration schedule(Tickable component, long period, long offset)
+            throws IllegalArgumentException {
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be at least 1: " + period);
+        }
+        if (offset < 0 || offset >= period) {
+            throw new IllegalArgumentException("Offset must be within the period: "
+                    + offset);
+        }
+        Registration registration = new Registration(component, period, offset,
+                nextSequence++);
+        registration.due = nextDue(registration);
+        insert(registration);
+        size++;
+        return registration;
+    }
+
+    /**
+     * Registers a component to be called once, at the given time.
+     *
+     * @param component component to call
+     * @param time      time to call the component at
+     * @return registration that can be cancelled
+     * @throws IllegalArgumentException if the time is not after the wheel's current time
+     */
+    public Registration scheduleAt(Tickable component, long time)
+            throws IllegalArgumentException {
+        if (time <= now) {
+            throw new IllegalArgumentException("Time must be after " + now + ": " + time);
+        }
+        Registration registration = new Registration(component, 0, 0, nextSequence++);
+        registration.due = time;
+        insert(registration);
+        size++;
+        return registration;
+    }
+
+    /**
+     * Moves the wheel forward one minute and calls every component due at the new time.
+     *
+     * @return number of components called
+     */
+    public int advance() {
+        now++;
+        cascade();
+        List<Registration> slot = slots.get((int) (now & (SLOTS - 1)));
+        if (slot.isEmpty()) {
+            return 0;
+        }
+        /* Copied one at a time, as addAll would allocate an array every minute */
+        for (int i = 0; i < slot.size(); i++) {
+            due.add(slot.get(i));
+        }
+        slot.clear();
+        if (due.size() > 1) {
+            due.sort(REGISTRATION_ORDER);
+        }
+        int called = 0;
+        for (int i = 0; i < due.size(); i++) {
+            Registration registration = due.get(i);
+            if (registration.cancelled) {
+                continue;
+            }
+            registration.component.elapseOneMinute();
+            called++;
+            if (registration.cancelled) {
+                continue;
+            }
+            if (registration.period > 0) {
+                registration.due += registration.period;
+                insert(registration);
+            } else {
+                registration.cancelled = true;
+                size--;
+            }
+        }
+        due.clear();
+        return called;
+    }
+
+    /**
+     * Moves the wheel to the given time without calling any component.
+     * <p>
+     * Periodic components are next called on the first of their minutes after the new
+     * time. Components registered to be called once at or before the new time are
+     * dropped.
+     *
+     * @param time new time of the wheel, in minutes
+     */
+    public void reset(long time) {
+        List<Registration> active = new ArrayList<>();
+        for (List<Registration> slot : slots) {
+            active.addAll(slot);
+            slot.clear();
+        }
+        active.addAll(overflow);
+        overflow.clear();
+        now = time;
+        size = 0;
+        active.sort(REGISTRATION_ORDER);
+        for (Registration registration : active) {
+            if (registration.cancelled) {
+                continue;
+            }
+            if (registration.period > 0) {
+                registration.due = nextDue(registration);
+            } else if (registration.due <= now) {
+                registration.cancelled = true;
+                continue;
+            }
+            insert(registration);
+            size++;
+        }
+    }
+
+    /* Returns the first minute after now on which the periodic registration is due */
+    private long nextDue(Registration registration) {
+        long next = now + 1;
+        long remainder = Math.floorMod(next - registration.offset, registration.period);
+        return remainder == 0 ? next : next + registration.period - remainder;
+    }
+
+    /* Places the registration in the finest level whose span covers its due time */
+    private void insert(Registration registration) {
+        long due = registration.due;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((due ^ now) >>> shift == 0) {
+                int slot = (int) ((due >>> (SLOT_BITS * level)) & (SLOTS - 1));
+                slots.get(level * SLOTS + slot).add(registration);
+                return;
+            }
+        }
+        overflow.add(registration);
+    }
+
+    /* Moves registrations down to finer levels as the current time enters their span */
+    private void cascade() {
+        if ((now & (SLOTS - 1)) != 0) {
+            return;
+        }
+        if ((now & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0 && !overflow.isEmpty()) {
+            List<Registration> pending = new ArrayList<>(overflow);
+            overflow.clear();
+            reinsert(pending);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                int slot = (int) ((now >>> (SLOT_BITS * level)) & (SLOTS - 1));
+                List<Registration> pending = slots.get(level * SLOTS + slot);
+                if (!pending.isEmpty()) {
+                    List<Registration> moved = new ArrayList<>(pending);
+                    pending.clear();
+                    reinsert(moved);
+                }
+            }
+        }
+    }
+
+    /* Inserts each registration that has not been cancelled */
+    private void reinsert(List<Registration> registrations) {
+        for (Registration registration : registrations) {
+            if (!registration.cancelled) {
+                insert(registration);
+            }
+        }
+    }
+
+    /**
+     * A component registered with a timing wheel.
+     */
+    public final class Registration {
+
+        /**
+         * The component to call.
+         */
+        private final Tickable component;
+
+        /**
+         * Minutes between calls, or 0 if the component is called once.
+         */
+        private final long period;
+
+        /**
+         * Minute within the period at which the component is called.
+         */
+        private final long offset;
+
+        /**
+         * Order in which this registration was made.
+         */
+        private final long sequence;
+
+        /**
+         * The next time the component is due to be called.
+         */
+        private long due;
+
+        /**
+         * Whether this registration has been cancelled or has completed.
+         */
+        private boolean cancelled;
+
+        /**
+         * Creates a new registration.
+         *
+         * @param component component to call
+         * @param period    minutes between calls, or 0 if called once
+         * @param offset    minute within the period at which the component is called
+         * @param sequence  order in which the registration was made
+         */
+        private Registration(Tickable component, long period, long offset, long sequence) {
+            this.component = component;
+            this.period = period;
+            this.offset = offset;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Returns the next time the component is due to be called.
+         *
+         * @return time in minutes
+         */
+        public long getDue() {
+            return due;
+        }
+
+        /**
+         * Returns whether this registration is still active.
+         *
+         * @return true if the component will be called again
+         */
+        public boolean isActive() {
+            return !cancelled;
+        }
+
+        /**
+         * Stops the component from being called again.
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                size--;
+            }
+        }
+    }
+}
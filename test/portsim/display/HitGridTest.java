@@ -0,0 +1,50 @@
+package portsim.display;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HitGridTest {
+    private HitGrid grid;
+
+    @Before
+    public void setUp() throws Exception {
+        grid = new HitGrid(1000, 100000, 1000);
+        for (int i = 0; i < 1000; i++) {
+            grid.add(new PortCanvas.ClickableRegion(500, i * 100, 130, 80), i);
+        }
+    }
+
+    @Test
+    public void findTest() {
+        assertEquals(1000, grid.size());
+        assertEquals(0, grid.find(500, 0));
+        assertEquals(417, grid.find(600, 41750));
+        assertEquals(999, grid.find(630, 99980));
+    }
+
+    @Test
+    public void findMissTest() {
+        assertEquals(HitGrid.NONE, grid.find(499, 50));
+        assertEquals(HitGrid.NONE, grid.find(600, 41790));
+        assertEquals(HitGrid.NONE, grid.find(-1, 0));
+        assertEquals(HitGrid.NONE, grid.find(600, 200000));
+    }
+
+    @Test
+    public void lastAddedWinsTest() {
+        grid.add(new PortCanvas.ClickableRegion(550, 0, 10, 10), 5000);
+        assertEquals(5000, grid.find(555, 5));
+        assertEquals(0, grid.find(520, 5));
+    }
+
+    @Test
+    public void regionEqualityTest() {
+        PortCanvas.ClickableRegion region = new PortCanvas.ClickableRegion(1, 2, 3, 4);
+        PortCanvas.ClickableRegion same = new PortCanvas.ClickableRegion(1, 2, 3, 4);
+        assertEquals(region, same);
+        assertEquals(region.hashCode(), same.hashCode());
+        assertNotEquals(region, new PortCanvas.ClickableRegion(1, 2, 3, 5));
+    }
+}
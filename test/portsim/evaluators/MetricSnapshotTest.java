@@ -0,0 +1,63 @@
+package portsim.evaluators;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricSnapshotTest {
+    private MetricSnapshot flagSnapshot;
+    private MetricSnapshot quaySnapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        this.flagSnapshot = MetricSnapshot.builder("ShipFlagEvaluator", 120)
+                .count("Australia", 4)
+                .count("Japan", 1)
+                .build();
+        this.quaySnapshot = MetricSnapshot.builder("QuayOccupancyEvaluator", 120)
+                .value("quaysOccupied", 3, "Quay(s) currently occupied")
+                .build();
+    }
+
+    @Test
+    public void renderCountTest() {
+        assertEquals("ShipFlagEvaluator" + System.lineSeparator()
+                + "Australia : 4" + System.lineSeparator()
+                + "Japan : 1", flagSnapshot.render());
+    }
+
+    @Test
+    public void renderValueTest() {
+        assertEquals("QuayOccupancyEvaluator" + System.lineSeparator()
+                + "3 Quay(s) currently occupied", quaySnapshot.render());
+    }
+
+    @Test
+    public void encodeTest() {
+        assertEquals("MetricSnapshot:ShipFlagEvaluator:120:Australia=4,Japan=1",
+                flagSnapshot.encode());
+    }
+
+    @Test
+    public void equalsIgnoresTimeTest() {
+        MetricSnapshot later = MetricSnapshot.builder("QuayOccupancyEvaluator", 125)
+                .value("quaysOccupied", 3, "Quay(s) currently occupied")
+                .build();
+        assertEquals(quaySnapshot, later);
+        assertEquals(quaySnapshot.hashCode(), later.hashCode());
+    }
+
+    @Test
+    public void notEqualsChangedValueTest() {
+        MetricSnapshot changed = MetricSnapshot.builder("QuayOccupancyEvaluator", 120)
+                .value("quaysOccupied", 4, "Quay(s) currently occupied")
+                .build();
+        assertNotEquals(quaySnapshot, changed);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void metricsUnmodifiableTest() {
+        flagSnapshot.getMetrics().clear();
+    }
+}
@@ -0,0 +1,103 @@
+package portsim.movement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.port.BulkQuay;
+import portsim.port.Port;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+import portsim.util.BadEncodingException;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class RecurringMovementTest {
+    private BulkCarrier bulkCarrier;
+    private RecurringMovement weekly;
+
+    @Before
+    public void setUp() throws Exception {
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+        this.weekly = new RecurringMovement(bulkCarrier, MovementDirection.INBOUND,
+                10, 10080, 30250);
+    }
+
+    @Test
+    public void nextOccurrenceBeforeStartTest() {
+        assertEquals(10, weekly.nextOccurrence(0).getTime());
+    }
+
+    @Test
+    public void nextOccurrenceRoundsUpTest() {
+        ShipMovement occurrence = weekly.nextOccurrence(11);
+        assertEquals(10090, occurrence.getTime());
+        assertEquals(MovementDirection.INBOUND, occurrence.getDirection());
+        assertSame(bulkCarrier, occurrence.getShip());
+        assertEquals(20170, weekly.nextOccurrence(20170).getTime());
+    }
+
+    @Test
+    public void nextOccurrenceAfterEndTest() {
+        assertNull(weekly.nextOccurrence(30251));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPeriodTest() {
+        new RecurringMovement(bulkCarrier, MovementDirection.INBOUND, 0, 0, 10);
+    }
+
+    @Test
+    public void encodeTest() throws BadEncodingException {
+        assertEquals("RecurringMovement:10:10080:30250:INBOUND:3456789", weekly.encode());
+        assertEquals(weekly.encode(), RecurringMovement.fromString(weekly.encode()).encode());
+    }
+
+    @Test(expected = BadEncodingException.class)
+    public void fromStringUnknownShipTest() throws BadEncodingException {
+        RecurringMovement.fromString("RecurringMovement:10:10080:30250:INBOUND:1111111");
+    }
+
+    @Test
+    public void portSchedulesOneOccurrenceTest() {
+        Port port = new Port("Brisbane");
+        port.addQuay(new BulkQuay(1, 150));
+        port.addRecurringMovement(new RecurringMovement(bulkCarrier,
+                MovementDirection.INBOUND, 3, 5, 100));
+        assertEquals(1, port.getMovements().size());
+        for (int i = 0; i < 20; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(1, port.getMovements().size());
+        assertEquals(23, port.getMovements().peek().getTime());
+    }
+
+    @Test
+    public void initialisePortRecurringTest() throws Exception {
+        String encoded = String.join(System.lineSeparator(), "Brisbane", "12", "0", "0",
+                "0", "ShipQueue:0:", "StoredCargo:0:", "Movements:0", "Evaluators:0:",
+                "RecurringMovements:1", weekly.encode());
+        Port loaded = Port.initialisePort(new StringReader(encoded));
+        assertEquals(1, loaded.getRecurringMovements().size());
+        assertEquals(weekly.encode(), loaded.getRecurringMovements().get(0).encode());
+        assertEquals(10090, loaded.getMovements().peek().getTime());
+    }
+
+    @Test(expected = BadEncodingException.class)
+    public void initialisePortBadRecurringHeaderTest() throws Exception {
+        String encoded = String.join(System.lineSeparator(), "Brisbane", "12", "0", "0",
+                "0", "ShipQueue:0:", "StoredCargo:0:", "Movements:0", "Evaluators:0:",
+                "Recurring:x");
+        Port.initialisePort(new StringReader(encoded));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
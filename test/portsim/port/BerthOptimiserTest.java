@@ -0,0 +1,90 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BerthOptimiserTest {
+    private Port port;
+    private BulkCarrier smallCarrier;
+    private BulkCarrier largeCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 200));
+        this.port.addQuay(new BulkQuay(2, 100));
+        this.smallCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 100);
+        this.largeCarrier = new BulkCarrier(1234567, "Marvellous", "Australia",
+                NauticalFlag.BRAVO, 150);
+        port.getShipQueue().add(smallCarrier);
+        port.getShipQueue().add(largeCarrier);
+    }
+
+    @Test
+    public void greedyCandidateFirstTest() {
+        BerthOptimiser optimiser = new BerthOptimiser(30, 8,
+                TimeUnit.SECONDS.toNanos(5));
+        assertSame(smallCarrier, optimiser.candidates(port).get(0).get(1));
+        assertNull(optimiser.candidates(port).get(0).get(2));
+    }
+
+    @Test
+    public void betterThanGreedyTest() {
+        BerthOptimiser optimiser = new BerthOptimiser(30, 8,
+                TimeUnit.SECONDS.toNanos(5));
+        BerthPlan plan = optimiser.optimise(port);
+        assertSame(largeCarrier, plan.getAssignments().get(1));
+        assertSame(smallCarrier, plan.getAssignments().get(2));
+        assertEquals(0, plan.getWaitingMinutes());
+        assertEquals(0, port.currentTime());
+        assertTrue(port.getQuays().get(0).isEmpty());
+
+        assertEquals(2, plan.apply(port));
+        assertSame(largeCarrier, port.getQuays().get(0).getShip());
+    }
+
+    @Test
+    public void budgetExpiredReturnsGreedyTest() {
+        BerthOptimiser optimiser = new BerthOptimiser(30, 8, 1);
+        BerthPlan plan = optimiser.optimise(port);
+        assertSame(smallCarrier, plan.getAssignments().get(1));
+        assertEquals(0, plan.getEvaluated());
+        assertEquals(1, plan.getPruned());
+    }
+
+    @Test
+    public void departedShipsNotWaitingTest() throws Exception {
+        BulkCarrier departedCarrier = new BulkCarrier(7654321, "Departed", "Japan",
+                NauticalFlag.BRAVO, 50);
+        port.getShipQueue().add(departedCarrier);
+        port.dockShip(port.getQuays().get(0), departedCarrier);
+        port.restoreDeparture(port.getQuayView().get(0));
+
+        BerthOptimiser optimiser = new BerthOptimiser(30, 8,
+                TimeUnit.SECONDS.toNanos(5));
+        BerthPlan plan = optimiser.optimise(port);
+        assertFalse(plan.getAssignments().containsValue(departedCarrier));
+        assertEquals(0, plan.getWaitingMinutes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidHorizonTest() {
+        new BerthOptimiser(0, 8, 1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
@@ -0,0 +1,145 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class MovementIntakeTest {
+    private MovementIntake intake;
+    private BulkCarrier bulkCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.intake = new MovementIntake();
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+    }
+
+    private ShipMovement movement(long time) {
+        return new ShipMovement(time, MovementDirection.INBOUND, bulkCarrier);
+    }
+
+    @Test
+    public void drainOrderTest() {
+        MovementIntake.Producer ais = intake.newProducer("AIS");
+        MovementIntake.Producer gate = intake.newProducer("Gate");
+        ShipMovement gateFirst = movement(20);
+        ShipMovement aisLate = movement(30);
+        ShipMovement aisFirst = movement(20);
+        ShipMovement aisSecond = movement(20);
+        gate.submit(gateFirst);
+        ais.submit(aisLate);
+        ais.submit(aisFirst);
+        ais.submit(aisSecond);
+
+        List<Movement> drained = intake.drain(0);
+        assertEquals(List.of(aisFirst, aisSecond, gateFirst, aisLate), drained);
+        assertTrue(intake.isEmpty());
+    }
+
+    @Test
+    public void drainRejectsPastTest() {
+        MovementIntake.Producer ais = intake.newProducer("AIS");
+        ais.submit(movement(4));
+        ais.submit(movement(5));
+        assertEquals(1, intake.drain(5).size());
+        assertEquals(2, intake.getSubmitted());
+        assertEquals(1, intake.getAccepted());
+        assertEquals(1, intake.getRejected());
+    }
+
+    @Test
+    public void concurrentProducersTest() throws Exception {
+        final int producers = 4;
+        final int perProducer = 5000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            MovementIntake.Producer producer = intake.newProducer("Feed " + p);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    producer.submit(movement(1 + i % 50));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, intake.drain(0).size());
+    }
+
+    @Test
+    public void portDrainsAtTickTest() {
+        Port port = new Port("Brisbane");
+        port.getMovementIntake().newProducer("AIS").submit(movement(1));
+        assertEquals(0, port.getMovements().size());
+        port.elapseOneMinute();
+        assertEquals(0, port.getMovements().size());
+        assertEquals(1, port.getShipQueue().size());
+    }
+
+    @Test
+    public void portRejectsCurrentMinuteTest() {
+        Port port = new Port("Brisbane");
+        for (int i = 0; i < 3; i++) {
+            port.elapseOneMinute();
+        }
+        MovementIntake.Producer ais = port.getMovementIntake().newProducer("AIS");
+        ais.submit(movement(3));
+        ais.submit(movement(4));
+        port.elapseOneMinute();
+        assertEquals(1, port.getMovementIntake().getAccepted());
+        assertEquals(1, port.getMovementIntake().getRejected());
+        assertEquals(0, port.getMovements().size());
+        assertEquals(1, port.getShipQueue().size());
+    }
+
+    @Test
+    public void portProcessesInDrainOrderTest() {
+        Port port = new Port("Brisbane");
+        MovementIntake.Producer ais = port.getMovementIntake().newProducer("AIS");
+        MovementIntake.Producer gate = port.getMovementIntake().newProducer("Gate");
+        List<Ship> aisShips = new ArrayList<>();
+        List<Ship> gateShips = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            BulkCarrier ship = new BulkCarrier(1000000 + i, "Ship" + i, "China",
+                    NauticalFlag.NOVEMBER, 100);
+            MovementIntake.Producer producer = i % 2 == 0 ? gate : ais;
+            producer.submit(new ShipMovement(3, MovementDirection.INBOUND, ship));
+            (producer == ais ? aisShips : gateShips).add(ship);
+        }
+        List<Ship> expected = new ArrayList<>(aisShips);
+        expected.addAll(gateShips);
+        for (int i = 0; i < 3; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(expected, port.getShipQueue().getShipQueue());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
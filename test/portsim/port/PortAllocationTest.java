@@ -0,0 +1,136 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs a large port through thousands of minutes and fails if a steady-state tick, or a
+ * processed movement, allocates more than its budget.
+ */
+public class PortAllocationTest {
+    /* Bytes a tick may allocate on average once the port has warmed up */
+    private static final long TICK_BUDGET = 128;
+    /* Bytes processing one movement may allocate on average */
+    private static final long MOVEMENT_BUDGET = 256;
+
+    private static final int QUAYS = 100;
+    private static final int WARM_UP_TICKS = 5_000;
+    private static final int MEASURED_TICKS = 10_000;
+
+    private com.sun.management.ThreadMXBean threads;
+    private Port port;
+    private List<Ship> ships;
+
+    @Before
+    public void setUp() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        this.threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        this.port = new Port("Brisbane");
+        this.ships = new ArrayList<>();
+        for (int i = 0; i < QUAYS; i++) {
+            Ship ship;
+            if (i % 2 == 0) {
+                port.addQuay(new BulkQuay(i, 1000));
+                ship = new BulkCarrier(1000000 + i, "Bulk" + i, "China",
+                        NauticalFlag.NOVEMBER, 500);
+            } else {
+                port.addQuay(new ContainerQuay(i, 1000));
+                ship = new ContainerShip(1000000 + i, "Box" + i, "Japan",
+                        NauticalFlag.NOVEMBER, 500);
+            }
+            port.getShipQueue().add(ship);
+            ships.add(ship);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+
+    @Test
+    public void steadyStateTickAllocationTest() {
+        elapse(WARM_UP_TICKS);
+        long allocated = allocatedBytes();
+        elapse(MEASURED_TICKS);
+        long perTick = (allocatedBytes() - allocated) / MEASURED_TICKS;
+        assertTrue("Allocated " + perTick + " bytes per tick, budget " + TICK_BUDGET,
+                perTick <= TICK_BUDGET);
+    }
+
+    @Test
+    public void eventRingTickAllocationTest() {
+        PortEventRing ring = new PortEventRing(1024);
+        ring.addHandler("idle", event -> { });
+        ring.start();
+        try {
+            port.setEventRing(ring);
+            elapse(WARM_UP_TICKS);
+            long allocated = allocatedBytes();
+            elapse(MEASURED_TICKS);
+            long perTick = (allocatedBytes() - allocated) / MEASURED_TICKS;
+            assertTrue("Allocated " + perTick + " bytes per tick, budget " + TICK_BUDGET,
+                    perTick <= TICK_BUDGET);
+        } finally {
+            ring.close();
+        }
+    }
+
+    @Test
+    public void processedMovementAllocationTest() {
+        elapse(WARM_UP_TICKS);
+        long baseline = allocatedBytes();
+        elapse(MEASURED_TICKS);
+        long idle = allocatedBytes() - baseline;
+
+        /* Two movements a minute: one ship leaves its quay and another queues again */
+        List<Movement> movements = new ArrayList<>();
+        long start = port.currentTime() + 1;
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            movements.add(new ShipMovement(start + i, MovementDirection.OUTBOUND,
+                    ships.get(i % QUAYS)));
+            movements.add(new ShipMovement(start + i, MovementDirection.INBOUND,
+                    ships.get((i + 1) % QUAYS)));
+        }
+        port.addMovements(movements);
+        long processed = port.getMetrics().getMovementsProcessed();
+        long allocated = allocatedBytes();
+        elapse(MEASURED_TICKS);
+        processed = port.getMetrics().getMovementsProcessed() - processed;
+        assertEquals(movements.size(), processed);
+        long perMovement = Math.max(0, allocatedBytes() - allocated - idle) / processed;
+        assertTrue("Allocated " + perMovement + " bytes per movement, budget "
+                + MOVEMENT_BUDGET, perMovement <= MOVEMENT_BUDGET);
+    }
+
+    private void elapse(int minutes) {
+        for (int i = 0; i < minutes; i++) {
+            port.elapseOneMinute();
+        }
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,91 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PortEventBusTest {
+    private Port port;
+    private BulkCarrier bulkCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 150));
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+    }
+
+    @Test
+    public void subscribedTypesOnlyTest() {
+        List<PortEvent> events = new ArrayList<>();
+        port.getEventBus().subscribe(EnumSet.of(PortEventType.DOCK), events::add);
+        for (int i = 0; i < 10; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(1, events.size());
+        PortEvent dock = events.get(0);
+        assertEquals(PortEventType.DOCK, dock.getType());
+        assertEquals(10, dock.getTime());
+        assertSame(bulkCarrier, dock.getShip());
+        assertEquals(1, dock.getQuay().getId());
+    }
+
+    @Test
+    public void immediateDeliveryTest() {
+        List<PortEvent> events = new ArrayList<>();
+        port.getEventBus().subscribe(EnumSet.of(PortEventType.SHIP_INBOUND),
+                events::add);
+        port.elapseOneMinute();
+        port.elapseOneMinute();
+        port.elapseOneMinute();
+        assertEquals(1, events.size());
+        assertSame(bulkCarrier, events.get(0).getShip());
+        assertEquals(3, events.get(0).getMovement().getTime());
+    }
+
+    @Test
+    public void batchPerTickTest() {
+        List<String> batches = new ArrayList<>();
+        port.getEventBus().subscribeBatched(
+                EnumSet.of(PortEventType.SHIP_INBOUND, PortEventType.DOCK),
+                (time, events) -> batches.add(time + ":" + events.size()));
+        for (int i = 0; i < 10; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(List.of("3:1", "10:1"), batches);
+    }
+
+    @Test
+    public void cancelTest() {
+        List<PortEvent> events = new ArrayList<>();
+        PortEventBus.Subscription subscription = port.getEventBus().subscribe(
+                EnumSet.allOf(PortEventType.class), events::add);
+        assertTrue(port.getEventBus().hasSubscribers(PortEventType.UNLOAD));
+        subscription.cancel();
+        assertFalse(port.getEventBus().hasSubscribers(PortEventType.UNLOAD));
+        for (int i = 0; i < 10; i++) {
+            port.elapseOneMinute();
+        }
+        assertTrue(events.isEmpty());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
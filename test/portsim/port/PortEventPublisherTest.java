@@ -0,0 +1,195 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import static org.junit.Assert.*;
+
+public class PortEventPublisherTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    private Port port;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 150));
+        BulkCarrier bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+    }
+
+    @After
+    public void tearDown() {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+
+    @Test
+    public void eventsAndSummariesInOrderTest() {
+        PortEventPublisher publisher = new PortEventPublisher(port, 16, DIRECT);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+        for (int i = 0; i < 10; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(12, recorder.items.size());
+        assertTrue(recorder.items.get(2) instanceof PortEvent);
+        assertEquals(PortEventType.SHIP_INBOUND,
+                ((PortEvent) recorder.items.get(2)).getType());
+        assertEquals(3, recorder.items.get(3).getTime());
+        assertEquals(PortEventType.DOCK, ((PortEvent) recorder.items.get(10)).getType());
+
+        PortTickSummary last = (PortTickSummary) recorder.items.get(11);
+        assertEquals(10, last.getTime());
+        assertEquals(1, last.getTicks());
+        assertEquals(1, last.getCount(PortEventType.DOCK));
+        assertEquals(0, last.getCount(PortEventType.SHIP_INBOUND));
+        assertEquals(0, last.getFreeQuays());
+        assertEquals(0, last.getDroppedEvents());
+    }
+
+    @Test
+    public void coalesceSlowSubscriberTest() {
+        PortEventPublisher publisher = new PortEventPublisher(port, 1, DIRECT);
+        Recorder recorder = new Recorder(0);
+        publisher.subscribe(recorder, PortEventPublisher.Overflow.COALESCE);
+        for (int i = 0; i < 10; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(10, port.currentTime());
+        assertTrue(recorder.items.isEmpty());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(2, recorder.items.size());
+        PortTickSummary first = (PortTickSummary) recorder.items.get(0);
+        assertEquals(1, first.getTime());
+        PortTickSummary coalesced = (PortTickSummary) recorder.items.get(1);
+        assertEquals(2, coalesced.getFirstTime());
+        assertEquals(10, coalesced.getTime());
+        assertEquals(9, coalesced.getTicks());
+        assertEquals(1, coalesced.getCount(PortEventType.SHIP_INBOUND));
+        assertEquals(1, coalesced.getCount(PortEventType.DOCK));
+        assertEquals(2, coalesced.getDroppedEvents());
+    }
+
+    @Test
+    public void throttleSlowSubscriberTest() throws Exception {
+        PortEventPublisher publisher = new PortEventPublisher(port, 2, DIRECT);
+        Recorder recorder = new Recorder(0);
+        publisher.subscribe(recorder, PortEventPublisher.Overflow.THROTTLE);
+        Thread simulation = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                port.elapseOneMinute();
+            }
+        });
+        simulation.start();
+        simulation.join(200);
+        assertTrue(simulation.isAlive());
+        assertEquals(3, port.currentTime());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        simulation.join(5000);
+        assertFalse(simulation.isAlive());
+        assertEquals(12, recorder.items.size());
+        for (PortNotification item : recorder.items) {
+            if (item instanceof PortTickSummary) {
+                assertEquals(0, ((PortTickSummary) item).getDroppedEvents());
+            }
+        }
+    }
+
+    @Test
+    public void closeCompletesSubscribersTest() {
+        PortEventPublisher publisher = new PortEventPublisher(port, 4, DIRECT);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+        assertEquals(1, publisher.getNumberOfSubscribers());
+        publisher.close();
+        assertTrue(recorder.completed);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+        assertFalse(port.getEventBus().hasSubscribers(PortEventType.DOCK));
+        port.elapseOneMinute();
+        assertTrue(recorder.items.isEmpty());
+    }
+
+    @Test
+    public void cancelAndInvalidRequestTest() {
+        PortEventPublisher publisher = new PortEventPublisher(port, 4, DIRECT);
+        Recorder cancelled = new Recorder(Long.MAX_VALUE);
+        Recorder invalid = new Recorder(0);
+        publisher.subscribe(cancelled);
+        publisher.subscribe(invalid);
+        cancelled.subscription.cancel();
+        invalid.subscription.request(0);
+        assertTrue(invalid.error instanceof IllegalArgumentException);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+        port.elapseOneMinute();
+        assertTrue(cancelled.items.isEmpty());
+    }
+
+    @Test
+    public void invalidRequestSignalledOnExecutorTest() {
+        Deque<Runnable> tasks = new ArrayDeque<>();
+        PortEventPublisher publisher = new PortEventPublisher(port, 4, tasks::add);
+        Recorder invalid = new Recorder(0);
+        publisher.subscribe(invalid);
+        invalid.subscription.request(-1);
+        assertNull(invalid.error);
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertTrue(invalid.error instanceof IllegalArgumentException);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+    }
+
+    /* Records every item received, requesting a fixed number on subscription */
+    private static class Recorder implements Flow.Subscriber<PortNotification> {
+        private final long initialRequest;
+        private final List<PortNotification> items = new CopyOnWriteArrayList<>();
+        private Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        private Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(PortNotification item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
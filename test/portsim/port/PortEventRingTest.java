@@ -0,0 +1,130 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class PortEventRingTest {
+    private Port port;
+    private PortEventRing ring;
+    private BulkCarrier bulkCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 150));
+        this.ring = new PortEventRing(4);
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+    }
+
+    @Test
+    public void capacityRoundedTest() {
+        assertEquals(8, new PortEventRing(5).getCapacity());
+    }
+
+    @Test
+    public void barrierTest() throws Exception {
+        List<String> seen = new ArrayList<>();
+        AtomicLong ticks = new AtomicLong();
+        ring.addHandler("recorder", new PortEventRing.Handler() {
+            @Override
+            public void onEvent(PortEventRing.Slot event) {
+                seen.add(event.getType() + "@" + event.getTime());
+            }
+
+            @Override
+            public void onTick(long time) {
+                ticks.incrementAndGet();
+            }
+        });
+        ring.start();
+        port.setEventRing(ring);
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+        for (int i = 0; i < 20; i++) {
+            port.elapseOneMinute();
+        }
+        assertTrue(ring.awaitTime(20, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(20, ticks.get());
+        assertEquals(List.of("SHIP_INBOUND@3", "DOCK@10"), seen);
+    }
+
+    @Test
+    public void slotValuesTest() throws Exception {
+        List<String> seen = new ArrayList<>();
+        ring.addHandler("recorder", event -> seen.add(event.getType() + ":"
+                + event.getImoNumber() + ":" + event.getQuayId() + ":"
+                + event.getCargoCount()));
+        ring.start();
+        port.setEventRing(ring);
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+        for (int i = 0; i < 11; i++) {
+            port.elapseOneMinute();
+        }
+        assertTrue(ring.awaitTime(11, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(List.of("SHIP_INBOUND:3456789:-1:0", "DOCK:3456789:1:0"), seen);
+    }
+
+    @Test
+    public void handlerFailureTest() throws Exception {
+        ring.addHandler("failing", event -> {
+            throw new IllegalStateException();
+        });
+        ring.start();
+        port.setEventRing(ring);
+        port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, bulkCarrier));
+        port.elapseOneMinute();
+        assertTrue(ring.awaitTime(1, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(1, ring.getFailures());
+    }
+
+    @Test(timeout = 10000)
+    public void handlerErrorTest() throws Exception {
+        ring.addHandler("erroring", event -> {
+            throw new AssertionError();
+        });
+        ring.start();
+        port.setEventRing(ring);
+        for (int i = 0; i < 10; i++) {
+            port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, bulkCarrier));
+        }
+        for (int i = 0; i < 20; i++) {
+            port.elapseOneMinute();
+        }
+        assertTrue(ring.awaitTime(20, TimeUnit.SECONDS.toNanos(5)));
+        assertTrue(ring.getFailures() >= 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void publishBeforeStartTest() {
+        ring.addHandler("idle", event -> { });
+        port.setEventRing(ring);
+        port.elapseOneMinute();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterStartTest() {
+        ring.start();
+        ring.addHandler("late", event -> { });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ring.close();
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
@@ -0,0 +1,139 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import static org.junit.Assert.*;
+
+public class PortHistoryTest {
+    private Port port;
+    private BulkCarrier bulkCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 150));
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+    }
+
+    @Test
+    public void pointInTimeTest() {
+        PortHistory history = new PortHistory(100);
+        port.setHistory(history);
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+        for (int i = 0; i < 20; i++) {
+            port.elapseOneMinute();
+        }
+
+        assertTrue(history.getStateAt(2).getShipQueue().isEmpty());
+        assertNull(history.getStateAt(2).getDockedShip(1));
+        assertEquals(1, history.getStateAt(7).getShipQueue().size());
+        assertNull(history.getStateAt(9).getDockedShip(1));
+        assertSame(bulkCarrier, history.getStateAt(10).getDockedShip(1));
+        assertSame(bulkCarrier, history.getStateAt(19).getDockedShip(1));
+    }
+
+    @Test
+    public void unchangedMinutesNotRecordedTest() {
+        PortHistory history = new PortHistory(100);
+        port.setHistory(history);
+        for (int i = 0; i < 50; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(1, history.size());
+        assertEquals(0, history.getStateAt(49).getTime());
+    }
+
+    @Test
+    public void sharesUnchangedComponentsTest() {
+        PortHistory history = new PortHistory(100);
+        port.setHistory(history);
+        PortState initial = history.getLatestState();
+        port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, bulkCarrier));
+        port.elapseOneMinute();
+        PortState queued = history.getLatestState();
+        assertNotSame(initial.getShipQueue(), queued.getShipQueue());
+        assertSame(initial.getStoredCargo(), queued.getStoredCargo());
+    }
+
+    @Test
+    public void storedCargoIsolatedTest() {
+        port.restoreStoredCargo(new BulkCargo(1, "China", 11111, BulkCargoType.COAL));
+        PortHistory history = new PortHistory(100);
+        port.setHistory(history);
+        PortState initial = history.getLatestState();
+        port.restoreStoredCargo(new BulkCargo(2, "China", 22222, BulkCargoType.OIL));
+        assertEquals(1, initial.getStoredCargo().size());
+        assertEquals(1, initial.getStoredCargo().get(0).getId());
+        assertEquals(2, port.getCargoView().size());
+    }
+
+    @Test
+    public void capacityTest() {
+        PortHistory history = new PortHistory(2);
+        port.setHistory(history);
+        port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, bulkCarrier));
+        port.addMovement(new ShipMovement(2, MovementDirection.INBOUND, bulkCarrier));
+        port.elapseOneMinute();
+        port.elapseOneMinute();
+        assertEquals(2, history.size());
+        assertEquals(1, history.getEarliestTime());
+        assertNull(history.getStateAt(0));
+    }
+
+    @Test
+    public void emptyUnloadNotRecordedTest() {
+        PortHistory history = new PortHistory(100);
+        port.setHistory(history);
+        PortState initial = history.getLatestState();
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+        for (int i = 0; i < 20; i++) {
+            port.elapseOneMinute();
+        }
+        assertSame(bulkCarrier, history.getStateAt(15).getDockedShip(1));
+        assertSame(initial.getStoredCargo(), history.getStateAt(19).getStoredCargo());
+    }
+
+    @Test
+    public void earlierStoredCargoUnchangedTest() {
+        PortHistory history = new PortHistory(100);
+        port.setHistory(history);
+        port.restoreStoredCargo(new BulkCargo(1, "China", 11111, BulkCargoType.COAL));
+        port.elapseOneMinute();
+        PortState first = history.getLatestState();
+        port.restoreStoredCargo(new BulkCargo(2, "China", 22222, BulkCargoType.OIL));
+        port.elapseOneMinute();
+        PortState second = history.getLatestState();
+        port.restoreRemovedCargo(1);
+        port.elapseOneMinute();
+
+        assertEquals(1, first.getStoredCargo().size());
+        assertEquals(2, second.getStoredCargo().size());
+        assertEquals(2, second.getStoredCargo().get(1).getId());
+        assertEquals(1, history.getLatestState().getStoredCargo().size());
+        assertEquals(2, history.getLatestState().getStoredCargo().get(0).getId());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void stateImmutableTest() {
+        PortHistory history = new PortHistory(1);
+        port.setHistory(history);
+        history.getLatestState().getShipQueue().add(bulkCarrier);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
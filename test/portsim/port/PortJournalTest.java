@@ -0,0 +1,185 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+import portsim.util.BadEncodingException;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PortJournalTest {
+    private Path journalFile;
+    private Path snapshotFile;
+    private Port port;
+    private BulkCarrier bulkCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.journalFile = Files.createTempFile("port", ".journal");
+        this.snapshotFile = Files.createTempFile("port", ".snapshot");
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 150));
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+    }
+
+    @Test
+    public void replayDockTest() throws Exception {
+        try (PortJournal journal = new PortJournal(journalFile, 4)) {
+            port.setJournal(journal);
+            port.processMovement(new ShipMovement(0, MovementDirection.INBOUND, bulkCarrier));
+            for (int i = 0; i < 10; i++) {
+                port.elapseOneMinute();
+            }
+        }
+
+        Port recovered = new Port("Brisbane");
+        recovered.addQuay(new BulkQuay(1, 150));
+        long applied = PortJournal.replay(recovered, Files.newBufferedReader(journalFile));
+
+        assertEquals(2, applied);
+        assertEquals(10, recovered.currentTime());
+        assertEquals(port.getShipQueue(), recovered.getShipQueue());
+        assertSame(bulkCarrier, recovered.getQuays().get(0).getShip());
+    }
+
+    @Test
+    public void replaySkipsOlderEntriesTest() throws Exception {
+        port.restoreTime(20);
+        long applied = PortJournal.replay(port, new StringReader("Time:5"
+                + System.lineSeparator() + "Depart:1" + System.lineSeparator()
+                + "Time:25" + System.lineSeparator() + "Queue:3456789"));
+        assertEquals(1, applied);
+        assertEquals(25, port.currentTime());
+        assertEquals(1, port.getShipQueue().size());
+    }
+
+    @Test
+    public void checkpointRecoverTest() throws Exception {
+        try (PortJournal journal = new PortJournal(journalFile, 4)) {
+            port.setJournal(journal);
+            for (int i = 0; i < 20; i++) {
+                port.elapseOneMinute();
+            }
+            port.processMovement(new ShipMovement(20, MovementDirection.INBOUND,
+                    bulkCarrier));
+            journal.checkpoint(port, snapshotFile);
+            for (int i = 0; i < 10; i++) {
+                port.elapseOneMinute();
+            }
+        }
+
+        Ship.resetShipRegistry();
+        Port recovered = PortJournal.recover(snapshotFile, journalFile);
+        assertEquals(30, recovered.currentTime());
+        assertEquals(port.getShipQueue().size(), recovered.getShipQueue().size());
+        assertEquals(bulkCarrier.getImoNumber(),
+                recovered.getQuays().get(0).getShip().getImoNumber());
+    }
+
+    @Test
+    public void recoverSkipsCheckpointedJournalTest() throws Exception {
+        Path staleJournal = Files.createTempFile("port", ".journal");
+        try (PortJournal journal = new PortJournal(journalFile)) {
+            port.setJournal(journal);
+            for (int i = 0; i < 20; i++) {
+                port.elapseOneMinute();
+            }
+            port.processMovement(new ShipMovement(20, MovementDirection.INBOUND,
+                    bulkCarrier));
+            journal.sync();
+            Files.copy(journalFile, staleJournal, StandardCopyOption.REPLACE_EXISTING);
+            journal.checkpoint(port, snapshotFile);
+        }
+        // crash after the snapshot was moved into place but before the journal was reset
+        Files.move(staleJournal, journalFile, StandardCopyOption.REPLACE_EXISTING);
+
+        Ship.resetShipRegistry();
+        Port recovered = PortJournal.recover(snapshotFile, journalFile);
+        assertEquals(20, recovered.currentTime());
+        assertEquals(1, recovered.getShipQueue().size());
+    }
+
+    @Test
+    public void recoverUnloadedContainersTest() throws Exception {
+        port.addQuay(new ContainerQuay(2, 10));
+        ContainerShip inbound = new ContainerShip(1234567, "Evergreen", "Japan",
+                NauticalFlag.BRAVO, 10);
+        ContainerShip outbound = new ContainerShip(7654321, "Maersk", "Australia",
+                NauticalFlag.BRAVO, 8);
+        Container first = new Container(11, "Australia", ContainerType.STANDARD);
+        Container second = new Container(12, "Australia", ContainerType.STANDARD);
+        inbound.loadCargo(first);
+        inbound.loadCargo(second);
+        try (PortJournal journal = new PortJournal(journalFile, 4)) {
+            port.setJournal(journal);
+            port.processMovement(new ShipMovement(0, MovementDirection.INBOUND, inbound));
+            for (int i = 0; i < 15; i++) {
+                port.elapseOneMinute();
+            }
+            journal.checkpoint(port, snapshotFile);
+            for (int i = 0; i < 10; i++) {
+                port.elapseOneMinute();
+            }
+            port.processMovement(new ShipMovement(25, MovementDirection.OUTBOUND,
+                    outbound));
+        }
+        assertFalse(Cargo.getCargoRegistry().containsKey(first.getId()));
+        assertEquals(4, port.getStoredCargoCount());
+
+        Ship.resetShipRegistry();
+        Port recovered = PortJournal.recover(snapshotFile, journalFile);
+        assertEquals(25, recovered.currentTime());
+        assertEquals(4, recovered.getStoredCargoCount());
+        assertFalse(Cargo.getCargoRegistry().containsKey(first.getId()));
+        assertFalse(Cargo.getCargoRegistry().containsKey(second.getId()));
+        List<Integer> loaded = new ArrayList<>();
+        for (Container container : ((ContainerShip) Ship.getShipByImoNumber(
+                outbound.getImoNumber())).getCargoView()) {
+            loaded.add(container.getId());
+        }
+        assertTrue(loaded.containsAll(List.of(first.getId(), second.getId())));
+
+        String encoded = recovered.encode();
+        Ship.resetShipRegistry();
+        Port reloaded = Port.initialisePort(new StringReader(encoded));
+        assertEquals(4, reloaded.getStoredCargoCount());
+        assertFalse(Cargo.getCargoRegistry().containsKey(first.getId()));
+    }
+
+    @Test(expected = BadEncodingException.class)
+    public void replayUnknownQuayTest() throws Exception {
+        PortJournal.replay(port, new StringReader("Time:1" + System.lineSeparator()
+                + "Depart:9"));
+    }
+
+    @Test(expected = BadEncodingException.class)
+    public void replayUnknownEntryTest() throws Exception {
+        PortJournal.replay(port, new StringReader("Teleport:1"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        port.setJournal(null);
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(snapshotFile);
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
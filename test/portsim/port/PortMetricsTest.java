@@ -0,0 +1,102 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PortMetricsTest {
+    private Port port;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.port.addQuay(new BulkQuay(1, 100));
+        this.port.addQuay(new ContainerQuay(2, 100));
+    }
+
+    @Test
+    public void gaugesTest() {
+        port.elapseOneMinute();
+        PortMetrics metrics = port.getMetrics();
+        assertEquals(0, metrics.getQueueLength());
+        assertEquals(2, metrics.getFreeQuays());
+        assertEquals(0, metrics.getStoredCargoCount());
+        assertEquals(0, metrics.getMovementsPending());
+    }
+
+    @Test
+    public void gaugesPublishedAtTickTest() {
+        PortMetrics metrics = port.getMetrics();
+        port.elapseOneMinute();
+        BulkCarrier bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+        port.getShipQueue().add(bulkCarrier);
+        port.addQuay(new BulkQuay(3, 100));
+        assertEquals(0, metrics.getQueueLength());
+        assertEquals(2, metrics.getFreeQuays());
+        port.elapseOneMinute();
+        assertEquals(1, metrics.getQueueLength());
+        assertEquals(3, metrics.getFreeQuays());
+        port.getShipQueue().poll();
+        assertEquals(1, metrics.getQueueAdds());
+        assertEquals(1, metrics.getQueuePolls());
+    }
+
+    @Test
+    public void movementsPendingTest() {
+        BulkCarrier bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+        port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, bulkCarrier));
+        port.addMovement(new ShipMovement(3, MovementDirection.OUTBOUND, bulkCarrier));
+        port.elapseOneMinute();
+        assertEquals(1, port.getMetrics().getMovementsPending());
+        port.elapseOneMinute();
+        port.elapseOneMinute();
+        assertEquals(0, port.getMetrics().getMovementsPending());
+    }
+
+    @Test
+    public void tickTimersTest() {
+        for (int i = 0; i < 10; i++) {
+            port.elapseOneMinute();
+        }
+        PortMetrics metrics = port.getMetrics();
+        assertEquals(10, metrics.getTicks());
+        assertEquals(10, metrics.getRegistry().getTimers().get("port.movements").getCount());
+        assertEquals(1, metrics.getRegistry().getTimers().get("port.docking").getCount());
+        assertEquals(1, metrics.getRegistry().getTimers().get("port.unloading").getCount());
+        assertTrue(metrics.getMaxTickNanos() <= metrics.getTickNanos());
+    }
+
+    @Test
+    public void reporterPeriodTest() {
+        List<Long> reportTimes = new ArrayList<>();
+        port.getMetrics().addReporter((time, registry) -> reportTimes.add(time), 5);
+        for (int i = 0; i < 12; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(List.of(5L, 10L), reportTimes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reporterInvalidPeriodTest() {
+        port.getMetrics().addReporter((time, registry) -> { }, 0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
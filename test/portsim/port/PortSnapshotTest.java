@@ -0,0 +1,130 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class PortSnapshotTest {
+    private Port port;
+    private Path directory;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        port.addQuay(new BulkQuay(1, 150));
+        port.getShipQueue().add(new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120));
+        port.restoreStoredCargo(new BulkCargo(1, "Brisbane", 100, BulkCargoType.OIL));
+        this.directory = Files.createTempDirectory("snapshot");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void snapshotIsolatedTest() {
+        String before = port.encode();
+        PortSnapshot snapshot = port.snapshot();
+
+        port.addQuay(new ContainerQuay(2, 10));
+        port.getShipQueue().add(new BulkCarrier(1234567, "Other", "China",
+                NauticalFlag.NOVEMBER, 100));
+        port.restoreStoredCargo(new BulkCargo(2, "Brisbane", 50, BulkCargoType.COAL));
+        for (int i = 0; i < 5; i++) {
+            port.elapseOneMinute();
+        }
+
+        assertNotEquals(before, port.encode());
+        assertEquals(before, snapshot.encode());
+    }
+
+    @Test
+    public void saveReplacesFileTest() throws Exception {
+        Path file = directory.resolve("port.txt");
+        Files.writeString(file, "previous");
+        PortSnapshot snapshot = port.snapshot();
+        snapshot.save(file);
+        assertEquals(snapshot.encode(), Files.readString(file, StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void saveReloadsStoredCargoTest() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+        Port saved = new Port("Brisbane");
+        saved.addQuay(new BulkQuay(1, 150));
+        saved.restoreStoredCargo(new BulkCargo(1, "Brisbane", 100, BulkCargoType.OIL));
+        saved.restoreStoredCargo(new BulkCargo(2, "Sydney", 50, BulkCargoType.COAL));
+        Path file = directory.resolve("port.txt");
+        saved.snapshot().save(file);
+
+        Cargo.resetCargoRegistry();
+        Port loaded;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            loaded = Port.initialisePort(reader);
+        }
+        assertEquals(2, loaded.getCargo().size());
+        assertEquals(1, loaded.getCargo().get(0).getId());
+        assertEquals(2, loaded.getCargo().get(1).getId());
+        assertEquals(Files.readString(file, StandardCharsets.UTF_8), loaded.encode());
+    }
+
+    @Test
+    public void saveReloadsUnloadedContainersTest() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+        Port saved = new Port("Brisbane");
+        saved.addQuay(new ContainerQuay(1, 10));
+        ContainerShip ship = new ContainerShip(1234567, "Evergreen", "Japan",
+                NauticalFlag.BRAVO, 10);
+        ship.loadCargo(new Container(11, "Australia", ContainerType.STANDARD));
+        ship.loadCargo(new Container(12, "Australia", ContainerType.REEFER));
+        saved.getShipQueue().add(ship);
+        for (int i = 0; i < 15; i++) {
+            saved.elapseOneMinute();
+        }
+        assertFalse(Cargo.getCargoRegistry().containsKey(11));
+        Path file = directory.resolve("port.txt");
+        saved.snapshot().save(file);
+
+        Ship.resetShipRegistry();
+        Port loaded;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            loaded = Port.initialisePort(reader);
+        }
+        assertEquals(2, loaded.getCargo().size());
+        assertEquals(11, loaded.getCargo().get(0).getId());
+        assertEquals(12, loaded.getCargo().get(1).getId());
+        assertFalse(Cargo.getCargoRegistry().containsKey(11));
+        assertFalse(Cargo.getCargoRegistry().containsKey(12));
+    }
+}
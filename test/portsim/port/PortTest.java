@@ -0,0 +1,205 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PortTest {
+    private Port port;
+    private BulkCarrier bulkCarrier;
+
+    @Before
+    public void setUp() throws Exception {
+        this.port = new Port("Brisbane");
+        this.bulkCarrier = new BulkCarrier(3456789, "Glorious", "Switzerland",
+                NauticalFlag.HOTEL, 120);
+    }
+
+    private static void assertOrdered(PriorityQueue<Movement> movements, int expected) {
+        PriorityQueue<Movement> copy = new PriorityQueue<>(movements);
+        long previous = Long.MIN_VALUE;
+        int count = 0;
+        while (!copy.isEmpty()) {
+            long time = copy.poll().getTime();
+            assertTrue(time >= previous);
+            previous = time;
+            count++;
+        }
+        assertEquals(expected, count);
+    }
+
+    @Test
+    public void addMovementsRebuildTest() {
+        port.addMovement(new ShipMovement(50, MovementDirection.INBOUND, bulkCarrier));
+        List<Movement> movements = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            movements.add(new ShipMovement(random.nextInt(10000),
+                    MovementDirection.INBOUND, bulkCarrier));
+        }
+        port.addMovements(movements);
+        assertOrdered(port.getMovements(), 1001);
+        assertNotNull(port.getMovements().comparator());
+    }
+
+    @Test
+    public void addMovementsSmallBatchTest() {
+        for (int i = 0; i < 100; i++) {
+            port.addMovement(new ShipMovement(100 - i, MovementDirection.INBOUND,
+                    bulkCarrier));
+        }
+        PriorityQueue<Movement> before = port.getMovements();
+        port.addMovements(List.of(new ShipMovement(3, MovementDirection.OUTBOUND,
+                bulkCarrier)));
+        assertSame(before, port.getMovements());
+        assertEquals(1, port.getMovements().peek().getTime());
+        assertOrdered(port.getMovements(), 101);
+    }
+
+    @Test
+    public void addMovementsInvalidLeavesQueueTest() {
+        port.restoreTime(10);
+        port.addMovement(new ShipMovement(20, MovementDirection.INBOUND, bulkCarrier));
+        try {
+            port.addMovements(List.of(
+                    new ShipMovement(30, MovementDirection.INBOUND, bulkCarrier),
+                    new ShipMovement(5, MovementDirection.INBOUND, bulkCarrier)));
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, port.getMovements().size());
+        }
+    }
+
+    @Test
+    public void initialisePortSchedulesMovementsTest() throws Exception {
+        String encoded = String.join(System.lineSeparator(), "Brisbane", "12", "0", "0",
+                "0", "ShipQueue:0:", "StoredCargo:0:", "Movements:2",
+                "ShipMovement:5:INBOUND:3456789", "ShipMovement:40:OUTBOUND:3456789",
+                "Evaluators:0:");
+        Port loaded = Port.initialisePort(new StringReader(encoded));
+        assertEquals(1, loaded.getMovements().size());
+        assertEquals(40, loaded.getMovements().peek().getTime());
+    }
+
+    @Test
+    public void encodeCurrentTimeTest() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            port.elapseOneMinute();
+        }
+        String encoded = port.encode();
+        assertEquals("20", encoded.split(System.lineSeparator())[1]);
+        Ship.resetShipRegistry();
+        Port loaded = Port.initialisePort(new StringReader(encoded));
+        assertEquals(20, loaded.currentTime());
+    }
+
+    @Test
+    public void forkIndependentTest() {
+        port.addQuay(new BulkQuay(1, 150));
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, bulkCarrier));
+        Port fork = port.fork();
+        assertTrue(fork.isDetached());
+        assertFalse(port.isDetached());
+        for (int i = 0; i < 10; i++) {
+            fork.elapseOneMinute();
+        }
+        assertEquals(10, fork.currentTime());
+        assertEquals(1, fork.getShipQueue().size());
+        assertSame(bulkCarrier, fork.getQuays().get(0).getShip());
+        assertEquals(0, port.currentTime());
+        assertEquals(0, port.getShipQueue().size());
+        assertTrue(port.getQuays().get(0).isEmpty());
+        assertEquals(1, port.getMovements().size());
+    }
+
+    @Test
+    public void processedMovementsRemovedTest() {
+        port.addMovement(new ShipMovement(2, MovementDirection.INBOUND, bulkCarrier));
+        port.addMovement(new ShipMovement(5, MovementDirection.INBOUND, bulkCarrier));
+        port.elapseOneMinute();
+        port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, bulkCarrier));
+        port.elapseOneMinute();
+        assertEquals(1, port.getMovements().size());
+        assertEquals(5, port.getMovements().peek().getTime());
+        assertEquals(1, port.getShipQueue().size());
+        assertEquals(1, port.fork().getMovements().size());
+    }
+
+    @Test
+    public void forkStoredCargoIsolatedTest() {
+        Port loaded = new Port("Brisbane", 0, new ShipQueue(), new ArrayList<>(),
+                new ArrayList<>());
+        Port fork = loaded.fork();
+        fork.restoreStoredCargo(new BulkCargo(1, "China", 11111, BulkCargoType.COAL));
+        assertEquals(1, fork.getCargo().size());
+        assertEquals(0, loaded.getCargo().size());
+    }
+
+    @Test
+    public void scheduledComponentTest() {
+        List<Long> times = new ArrayList<>();
+        port.schedule(() -> times.add(port.currentTime()), 60, 0);
+        port.scheduleAt(() -> times.add(-port.currentTime()), 90);
+        for (int i = 0; i < 130; i++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(List.of(60L, -90L, 120L), times);
+    }
+
+    @Test
+    public void forkScheduledComponentTest() {
+        for (int i = 0; i < 100; i++) {
+            port.elapseOneMinute();
+        }
+        Port fork = port.fork();
+        List<Long> times = new ArrayList<>();
+        fork.schedule(() -> times.add(fork.currentTime()), 60, 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> fork.scheduleAt(() -> times.add(-fork.currentTime()), 50));
+        for (int i = 0; i < 100; i++) {
+            fork.elapseOneMinute();
+        }
+        assertEquals(List.of(120L, 180L), times);
+    }
+
+    @Test
+    public void readOnlyViewsTest() {
+        List<Quay> quays = port.getQuayView();
+        List<Cargo> cargo = port.getCargoView();
+        port.addQuay(new BulkQuay(1, 150));
+        port.restoreStoredCargo(new BulkCargo(1, "China", 11111, BulkCargoType.COAL));
+        assertEquals(1, quays.size());
+        assertEquals(1, port.getQuayCount());
+        assertEquals(1, cargo.size());
+        assertSame(quays, port.getQuayView());
+        assertThrows(UnsupportedOperationException.class, () -> cargo.remove(0));
+
+        Port fork = port.fork();
+        fork.restoreStoredCargo(new BulkCargo(2, "China", 22222, BulkCargoType.COAL));
+        assertEquals(2, fork.getCargoView().size());
+        assertEquals(1, cargo.size());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+}
@@ -65,6 +65,19 @@ public class ShipQueueTest {
     }
 
 
+    @Test
+    public void shipQueueViewTest() {
+        List<Ship> view = shipQueue.getShipQueueView();
+        assertTrue(view.isEmpty());
+        shipQueue.add(bulkCarrier1);
+        shipQueue.add(containerShip);
+        assertEquals(List.of(bulkCarrier1, containerShip), view);
+        assertSame(view, shipQueue.getShipQueueView());
+        shipQueue.poll();
+        assertEquals(List.of(bulkCarrier1), view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(bulkCarrier3));
+    }
+
     @Test
     public void equalsTest() {
         shipQueue.add(bulkCarrier1);
@@ -120,12 +133,28 @@ public class ShipQueueTest {
         assertEquals(shipReadyToDock, shipQueue.poll());
     }
 
+    @Test
+    public void addPollCountTest() {
+        shipQueue.add(shipReadyToDock);
+        shipQueue.add(shipCarryingDangerousCargo);
+        shipQueue.poll();
+        shipQueue.poll();
+        shipQueue.poll();
+        assertEquals(2, shipQueue.getAddedCount());
+        assertEquals(2, shipQueue.getPolledCount());
+    }
+
     @Test
     public void encodeTest() {
         shipQueue.add(shipCarryingDangerousCargo);
         assertEquals("ShipQueue:1:1357924", shipQueue.encode());
     }
 
+    @Test
+    public void encodeEmptyTest() {
+        assertEquals("ShipQueue:0:", shipQueue.encode());
+    }
+
     @Test
     public void fromStringValidTest() throws BadEncodingException {
         shipQueue.add(shipCarryingDangerousCargo);
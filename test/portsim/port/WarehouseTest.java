@@ -0,0 +1,81 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class WarehouseTest {
+    private Warehouse warehouse;
+    private List<Cargo> batch;
+
+    @Before
+    public void setUp() throws Exception {
+        this.warehouse = new Warehouse();
+        this.batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Container(i, "Japan", ContainerType.STANDARD));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+
+    @Test
+    public void storeAndRemoveBatchTest() {
+        assertEquals(5, warehouse.storeAll(batch));
+        assertEquals(batch, warehouse);
+        assertTrue(warehouse.removeAll(List.of(batch.get(1), batch.get(3))));
+        assertEquals(3, warehouse.size());
+        assertEquals(Set.of(batch.get(0), batch.get(2), batch.get(4)),
+                new HashSet<>(warehouse));
+        assertFalse(warehouse.remove(batch.get(1)));
+
+        warehouse.storeAll(List.of(batch.get(1)));
+        assertTrue(warehouse.remove(batch.get(0)));
+        assertTrue(warehouse.remove(batch.get(1)));
+        assertEquals(Set.of(batch.get(2), batch.get(4)), new HashSet<>(warehouse));
+    }
+
+    @Test
+    public void duplicatesRemovedOneAtATimeTest() {
+        Cargo coal = new BulkCargo(10, "China", 500, BulkCargoType.COAL);
+        warehouse.add(coal);
+        warehouse.storeAll(batch);
+        warehouse.add(coal);
+        assertTrue(warehouse.remove(coal));
+        assertEquals(6, warehouse.size());
+        assertTrue(warehouse.contains(coal));
+        assertTrue(warehouse.remove(coal));
+        assertFalse(warehouse.contains(coal));
+        assertEquals(new HashSet<>(batch), new HashSet<>(warehouse));
+    }
+
+    @Test
+    public void forkTest() {
+        warehouse.storeAll(batch);
+        warehouse.remove(batch.get(0));
+        Warehouse fork = warehouse.fork();
+        fork.remove(batch.get(1));
+        warehouse.remove(batch.get(2));
+        assertEquals(Set.of(batch.get(2), batch.get(3), batch.get(4)),
+                new HashSet<>(fork));
+        assertEquals(Set.of(batch.get(1), batch.get(3), batch.get(4)),
+                new HashSet<>(warehouse));
+    }
+}
@@ -0,0 +1,145 @@
+package portsim.ship;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.util.NoSuchCargoException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CargoHoldTest {
+    private CargoHold hold;
+    private Container toJapan1;
+    private Container toJapan2;
+    private Container toChina;
+
+    @Before
+    public void setUp() throws Exception {
+        this.hold = new CargoHold(2, 2, 2);
+        this.toJapan1 = new Container(1, "Japan", ContainerType.STANDARD);
+        this.toJapan2 = new Container(2, "Japan", ContainerType.REEFER);
+        this.toChina = new Container(3, "China", ContainerType.STANDARD);
+    }
+
+    @After
+    public void tearDown() {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+    }
+
+    @Test
+    public void loadAndCountTest() {
+        hold.load(toJapan1);
+        hold.load(toJapan2);
+        hold.load(toChina);
+        assertEquals(8, hold.getCapacity());
+        assertEquals(3, hold.size());
+        assertEquals(2, hold.countOf(ContainerType.STANDARD));
+        assertEquals(1, hold.countOf(ContainerType.REEFER));
+        assertEquals(0, hold.countOf(ContainerType.TANKER));
+        assertEquals(2, hold.countFor("Japan"));
+        assertEquals(Set.of("Japan", "China"), hold.getDestinations());
+        assertSame(toJapan1, hold.get(0, 0, 0));
+        assertSame(toJapan2, hold.get(0, 0, 1));
+        assertSame(toChina, hold.get(0, 1, 0));
+        assertNull(hold.get(1, 1, 1));
+        assertEquals(List.of(toJapan1, toJapan2, toChina), hold.asList());
+    }
+
+    @Test
+    public void unloadByDestinationTest() {
+        hold.load(toJapan1);
+        hold.load(toChina);
+        hold.load(toJapan2);
+        List<Container> unloaded = hold.unload("Japan");
+        assertEquals(Set.of(toJapan1, toJapan2), new HashSet<>(unloaded));
+        assertEquals(List.of(toChina), hold.asList());
+        assertEquals(0, hold.countFor("Japan"));
+        assertEquals(1, hold.countOf(ContainerType.STANDARD));
+        assertEquals(0, hold.countOf(ContainerType.REEFER));
+        assertNull(hold.get(0, 0, 0));
+        assertTrue(hold.unload("Japan").isEmpty());
+
+        Container reused = new Container(4, "Fiji", ContainerType.TANKER);
+        hold.load(reused);
+        assertSame(reused, hold.get(0, 1, 0));
+    }
+
+    @Test
+    public void capacityTest() {
+        CargoHold small = CargoHold.forCapacity(2);
+        assertEquals(2, small.getCapacity());
+        assertEquals(1, small.getBays());
+        small.load(toJapan1);
+        small.load(toJapan2);
+        assertTrue(small.isFull());
+        assertThrows(IllegalStateException.class, () -> small.load(toChina));
+        assertEquals(List.of(toJapan1, toJapan2), small.unloadAll());
+        assertTrue(small.isEmpty());
+        small.load(toChina);
+        assertSame(toChina, small.get(0, 0, 0));
+    }
+
+    @Test
+    public void slotsGrowByBayTest() {
+        CargoHold large = CargoHold.forCapacity(300);
+        assertEquals(3, large.getBays());
+        assertNull(large.get(2, 15, 7));
+        for (int i = 0; i < 200; i++) {
+            large.load(new Container(100 + i, "Fiji", ContainerType.STANDARD));
+        }
+        assertEquals(200, large.size());
+        assertEquals(299, large.get(1, 8, 7).getId());
+        assertNull(large.get(1, 9, 0));
+        assertEquals(200, large.unload("Fiji").size());
+        assertTrue(large.isEmpty());
+    }
+
+    @Test
+    public void maximumCapacityTest() {
+        CargoHold huge = CargoHold.forCapacity(Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, huge.getCapacity());
+        assertEquals(Integer.MAX_VALUE / 128 + 1, huge.getBays());
+        huge.load(toJapan1);
+        assertSame(toJapan1, huge.get(0, 0, 0));
+        assertNull(huge.get(huge.getBays() - 1, 15, 7));
+
+        ContainerShip ship = new ContainerShip(1234567, "Ever Given", "Japan",
+                NauticalFlag.NOVEMBER, Integer.MAX_VALUE);
+        assertFalse(ship.getHold().isFull());
+    }
+
+    @Test
+    public void containerShipHoldTest() throws NoSuchCargoException {
+        ContainerShip ship = new ContainerShip(1234567, "Ever Given", "Japan",
+                NauticalFlag.NOVEMBER, 3);
+        ship.loadCargo(toJapan1);
+        ship.loadCargo(toChina);
+        assertEquals(2, ship.getCargoCount());
+        assertEquals(1, ship.getHold().countFor("China"));
+        assertEquals(List.of(toChina), ship.unloadCargo("China"));
+        assertThrows(NoSuchCargoException.class, () -> ship.unloadCargo("China"));
+        assertEquals(List.of(toJapan1), ship.unloadCargo());
+        assertTrue(ship.getCargo().isEmpty());
+    }
+
+    @Test
+    public void cargoVersionTest() throws NoSuchCargoException {
+        ContainerShip ship = new ContainerShip(1234567, "Ever Given", "Japan",
+                NauticalFlag.NOVEMBER, 3);
+        long empty = ship.getCargoVersion();
+        ship.loadCargo(toJapan1);
+        long loaded = ship.getCargoVersion();
+        assertNotEquals(empty, loaded);
+        assertEquals(loaded, ship.getCargoVersion());
+        ship.getHold().unload("Japan");
+        assertNotEquals(loaded, ship.getCargoVersion());
+    }
+}
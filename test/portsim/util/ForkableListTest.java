@@ -0,0 +1,43 @@
+package portsim.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ForkableListTest {
+    private ForkableList<String> list;
+
+    @Before
+    public void setUp() throws Exception {
+        this.list = new ForkableList<>(List.of("a", "b", "c"));
+    }
+
+    @Test
+    public void forkSharesElementsTest() {
+        ForkableList<String> fork = list.fork();
+        assertEquals(list, fork);
+    }
+
+    @Test
+    public void forkIsolatedTest() {
+        ForkableList<String> fork = list.fork();
+        fork.add("d");
+        list.remove("a");
+        assertEquals(List.of("b", "c"), list);
+        assertEquals(List.of("a", "b", "c", "d"), fork);
+    }
+
+    @Test
+    public void forkOfForkIsolatedTest() {
+        ForkableList<String> fork = list.fork();
+        ForkableList<String> grandchild = fork.fork();
+        grandchild.clear();
+        fork.set(0, "z");
+        assertEquals(List.of("a", "b", "c"), list);
+        assertEquals(List.of("z", "b", "c"), fork);
+        assertTrue(grandchild.isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package portsim.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProgressReaderTest {
+    private String input;
+    private List<Double> reports;
+
+    @Before
+    public void setUp() throws Exception {
+        this.input = "line\n".repeat(10000);
+        this.reports = new ArrayList<>();
+    }
+
+    @Test
+    public void reportsProgressTest() throws Exception {
+        ProgressReader reader = new ProgressReader(new StringReader(input), input.length(),
+                reports::add);
+        BufferedReader lines = new BufferedReader(reader);
+        int count = 0;
+        while (lines.readLine() != null) {
+            count++;
+        }
+        assertEquals(10000, count);
+        assertEquals(input.length(), reader.getCharsRead());
+        assertTrue(reports.size() > 1);
+        assertTrue(reports.size() <= 102);
+        for (int i = 1; i < reports.size(); i++) {
+            assertTrue(reports.get(i) >= reports.get(i - 1));
+        }
+        assertEquals(1.0, reports.get(reports.size() - 1), 0);
+    }
+
+    @Test
+    public void interruptedTest() throws Exception {
+        ProgressReader reader = new ProgressReader(new StringReader(input), input.length(),
+                reports::add);
+        char[] buffer = new char[100];
+        assertEquals(100, reader.read(buffer));
+        Thread.currentThread().interrupt();
+        try {
+            reader.read(buffer);
+            fail("Expected reading to stop");
+        } catch (InterruptedIOException expected) {
+            assertEquals(100, reader.getCharsRead());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package portsim.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTest {
+    private TimingWheel wheel;
+    private List<String> calls;
+
+    @Before
+    public void setUp() throws Exception {
+        this.wheel = new TimingWheel(0);
+        this.calls = new ArrayList<>();
+    }
+
+    private void advanceTo(long time) {
+        while (wheel.getTime() < time) {
+            wheel.advance();
+        }
+    }
+
+    @Test
+    public void periodWithOffsetTest() {
+        List<Long> times = new ArrayList<>();
+        wheel.schedule(() -> times.add(wheel.getTime()), 10, 5);
+        advanceTo(40);
+        assertEquals(List.of(5L, 15L, 25L, 35L), times);
+    }
+
+    @Test
+    public void registrationOrderTest() {
+        wheel.schedule(() -> calls.add("second"), 2, 0);
+        wheel.schedule(() -> calls.add("first"), 1, 0);
+        advanceTo(2);
+        assertEquals(List.of("first", "second", "first"), calls);
+    }
+
+    @Test
+    public void farFutureCascadeTest() {
+        List<Long> times = new ArrayList<>();
+        wheel.scheduleAt(() -> times.add(wheel.getTime()), 300_000);
+        wheel.scheduleAt(() -> times.add(wheel.getTime()), 4_100);
+        wheel.schedule(() -> times.add(wheel.getTime()), 100_000, 99_999);
+        advanceTo(300_000);
+        assertEquals(List.of(4_100L, 99_999L, 199_999L, 299_999L, 300_000L), times);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void overflowTest() {
+        long far = (1L << 24) + 17;
+        TimingWheel.Registration registration = wheel.scheduleAt(
+                () -> calls.add("far"), far);
+        advanceTo(far - 1);
+        assertTrue(calls.isEmpty());
+        wheel.advance();
+        assertEquals(List.of("far"), calls);
+        assertFalse(registration.isActive());
+    }
+
+    @Test
+    public void cancelTest() {
+        TimingWheel.Registration registration = wheel.schedule(
+                () -> calls.add("tick"), 1, 0);
+        advanceTo(3);
+        registration.cancel();
+        advanceTo(10);
+        assertEquals(3, calls.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void resetTest() {
+        List<Long> times = new ArrayList<>();
+        wheel.schedule(() -> times.add(wheel.getTime()), 10, 5);
+        wheel.scheduleAt(() -> times.add(-1L), 20);
+        wheel.reset(100);
+        advanceTo(120);
+        assertEquals(List.of(105L, 115L), times);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scheduleAtPastTest() {
+        wheel.scheduleAt(() -> { }, 0);
+    }
+}